@@ -37,6 +37,7 @@ import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfileService;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -109,6 +110,10 @@ public class ChatNotificationService implements Service {
     private final UserIdentityService userIdentityService;
     private final UserProfileService userProfileService;
     private final Map<String, Pin> chatMessagesByChannelIdPins = new ConcurrentHashMap<>();
+    // Index of the not consumed notification IDs. Updated by the NotificationsService subscriber, so counters
+    // do not require to iterate and parse all notification IDs.
+    private final Map<String, Set<String>> notConsumedNotificationIdsByChannelId = new ConcurrentHashMap<>();
+    private final Map<ChatChannelDomain, Set<String>> notConsumedNotificationIdsByDomain = new ConcurrentHashMap<>();
 
     public ChatNotificationService(ChatService chatService,
                                    NotificationsService notificationsService,
@@ -129,6 +134,8 @@ public class ChatNotificationService implements Service {
 
     @Override
     public CompletableFuture<Boolean> initialize() {
+        notificationsService.subscribe(this::onNotificationIdChanged);
+
         BisqEasyOpenTradeChannelService bisqEasyOpenTradeChannelService = chatService.getBisqEasyOpenTradeChannelService();
         bisqEasyOpenTradeChannelService.getChannels().addObserver(() ->
                 onChatChannelsChanged(bisqEasyOpenTradeChannelService.getChannels()));
@@ -159,17 +166,14 @@ public class ChatNotificationService implements Service {
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     public void consumeNotificationId(ChatChannel<? extends ChatMessage> chatChannel) {
-        chatChannel.getChatMessages()
-                .stream()
-                .map(chatMessage -> createNotificationId(chatChannel.getId(),
-                        chatMessage.getId()))
-                .forEach(notificationsService::consumeNotificationId);
+        Set<String> notificationIds = notConsumedNotificationIdsByChannelId.get(chatChannel.getId());
+        if (notificationIds != null && !notificationIds.isEmpty()) {
+            notificationsService.consumeNotificationIds(new HashSet<>(notificationIds));
+        }
     }
 
     public int getNumNotificationsByDomain(ChatChannelDomain chatChannelDomain) {
-        return (int) notificationsService.getNotConsumedNotificationIds().stream()
-                .filter(notificationId -> chatChannelDomain == getChatChannelDomain(notificationId))
-                .count();
+        return getNumNotConsumed(notConsumedNotificationIdsByDomain.get(chatChannelDomain));
     }
 
     public int getNumNotificationsMyDomainOrParentDomain(ChatChannelDomain chatChannelDomain) {
@@ -177,14 +181,9 @@ public class ChatNotificationService implements Service {
             case BISQ_EASY_OFFERBOOK:
             case BISQ_EASY_OPEN_TRADES:
             case BISQ_EASY_PRIVATE_CHAT:
-                return (int) notificationsService.getNotConsumedNotificationIds().stream()
-                        .filter(notificationId -> {
-                            ChatChannelDomain notificationIdChatChannelDomain = getChatChannelDomain(notificationId);
-                            return notificationIdChatChannelDomain == ChatChannelDomain.BISQ_EASY_OFFERBOOK ||
-                                    notificationIdChatChannelDomain == ChatChannelDomain.BISQ_EASY_OPEN_TRADES ||
-                                    notificationIdChatChannelDomain == ChatChannelDomain.BISQ_EASY_PRIVATE_CHAT;
-                        })
-                        .count();
+                return getNumNotificationsByDomain(ChatChannelDomain.BISQ_EASY_OFFERBOOK) +
+                        getNumNotificationsByDomain(ChatChannelDomain.BISQ_EASY_OPEN_TRADES) +
+                        getNumNotificationsByDomain(ChatChannelDomain.BISQ_EASY_PRIVATE_CHAT);
             case DISCUSSION:
             case EVENTS:
             case SUPPORT:
@@ -194,9 +193,7 @@ public class ChatNotificationService implements Service {
     }
 
     public <C extends ChatChannel<?>> Integer getNumNotificationsByChannel(C chatChannel) {
-        return (int) notificationsService.getNotConsumedNotificationIds().stream()
-                .filter(notificationId -> chatChannel.getId().equals(getChatChannelId(notificationId)))
-                .count();
+        return getNumNotConsumed(notConsumedNotificationIdsByChannelId.get(chatChannel.getId()));
     }
 
 
@@ -204,6 +201,31 @@ public class ChatNotificationService implements Service {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
+    // Called from within the NotificationsService lock, thus updates are not interleaved
+    private void onNotificationIdChanged(String notificationId) {
+        String channelId;
+        ChatChannelDomain chatChannelDomain;
+        try {
+            channelId = getChatChannelId(notificationId);
+            chatChannelDomain = getChatChannelDomain(notificationId);
+        } catch (Exception e) {
+            log.warn("Unexpected notificationId {}", notificationId);
+            return;
+        }
+
+        if (notificationsService.isNotConsumed(notificationId)) {
+            notConsumedNotificationIdsByChannelId.computeIfAbsent(channelId, key -> ConcurrentHashMap.newKeySet()).add(notificationId);
+            notConsumedNotificationIdsByDomain.computeIfAbsent(chatChannelDomain, key -> ConcurrentHashMap.newKeySet()).add(notificationId);
+        } else {
+            Optional.ofNullable(notConsumedNotificationIdsByChannelId.get(channelId)).ifPresent(set -> set.remove(notificationId));
+            Optional.ofNullable(notConsumedNotificationIdsByDomain.get(chatChannelDomain)).ifPresent(set -> set.remove(notificationId));
+        }
+    }
+
+    private static int getNumNotConsumed(Set<String> notificationIds) {
+        return notificationIds != null ? notificationIds.size() : 0;
+    }
+
     private <M extends ChatMessage> void onChatChannelsChanged(ObservableArray<? extends ChatChannel<M>> channels) {
         channels.forEach(chatChannel -> {
             String channelId = chatChannel.getId();
@@ -20,10 +20,9 @@ package bisq.common.observable.collection;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
-import java.util.Collection;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Observer implementation which maps the changes of the source collection to the
@@ -31,6 +30,10 @@ import java.util.stream.Collectors;
  * executor (usually runs the runnable on the JavaFX Application Thread).
  * This is useful for mirroring changes of the source collection on the target collection while supporting
  * the UI frameworks constraints and mapping to different element types (usually ListItems).
+ * <p>
+ * Changes are not forwarded one by one. They are collected until the executor runs the pending flush task and then
+ * applied as one diff (one removeAll and one addAll call on the target collection). So a burst of changes (e.g. at
+ * inventory sync) results in one task on the executor and one change event on the target collection.
  *
  * @param <S> The type of the collection element of the source collection
  * @param <T> The type of the collection element of the target collection
@@ -38,9 +41,32 @@ import java.util.stream.Collectors;
 @EqualsAndHashCode
 @ToString
 final class CollectionChangeMapper<S, T> implements CollectionObserver<S> {
+    private enum ChangeType {
+        ADD,
+        REMOVE,
+        CLEAR
+    }
+
+    private static class Change {
+        private final ChangeType type;
+        private final Object element;
+
+        private Change(ChangeType type, Object element) {
+            this.type = type;
+            this.element = element;
+        }
+    }
+
     private final Collection<T> targetCollection;
     private final Function<S, T> mapFunction;
     private final Consumer<Runnable> executor;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Object lock = new Object();
+    // Guarded by lock. If not empty a flush task is scheduled at the executor.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<Change> pendingChanges = new ArrayList<>();
 
     CollectionChangeMapper(Collection<T> targetCollection,
                            Function<S, T> mapFunction,
@@ -52,50 +78,94 @@ final class CollectionChangeMapper<S, T> implements CollectionObserver<S> {
 
     @Override
     public void add(S element) {
-        executor.accept(() -> {
-            T item = mapFunction.apply(element);
-            if (!targetCollection.contains(item)) {
-                targetCollection.add(item);
-            }
-        });
+        enqueue(List.of(new Change(ChangeType.ADD, element)));
     }
 
     @Override
     public void addAll(Collection<? extends S> values) {
-        executor.accept(() -> {
-            targetCollection.addAll(values.stream()
-                    .map(mapFunction)
-                    .filter(item -> !targetCollection.contains(item))
-                    .collect(Collectors.toList()));
-        });
+        List<Change> changes = new ArrayList<>(values.size());
+        values.forEach(element -> changes.add(new Change(ChangeType.ADD, element)));
+        enqueue(changes);
     }
 
     @Override
     public void setAll(Collection<? extends S> values) {
-        executor.accept(() -> {
-            targetCollection.clear();
-            targetCollection.addAll(values.stream()
-                    .map(mapFunction)
-                    .collect(Collectors.toList()));
-        });
+        List<Change> changes = new ArrayList<>(values.size() + 1);
+        changes.add(new Change(ChangeType.CLEAR, null));
+        values.forEach(element -> changes.add(new Change(ChangeType.ADD, element)));
+        enqueue(changes);
     }
 
     @Override
     public void remove(Object element) {
-        //noinspection unchecked
-        executor.accept(() -> targetCollection.remove(mapFunction.apply((S) element)));
+        enqueue(List.of(new Change(ChangeType.REMOVE, element)));
     }
 
     @Override
     public void removeAll(Collection<?> values) {
-        //noinspection unchecked
-        executor.accept(() -> targetCollection.removeAll(values.stream()
-                .map(element -> mapFunction.apply((S) element))
-                .collect(Collectors.toSet())));
+        List<Change> changes = new ArrayList<>(values.size());
+        values.forEach(element -> changes.add(new Change(ChangeType.REMOVE, element)));
+        enqueue(changes);
     }
 
     @Override
     public void clear() {
-        executor.accept(targetCollection::clear);
+        enqueue(List.of(new Change(ChangeType.CLEAR, null)));
+    }
+
+    private void enqueue(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        boolean isFlushScheduled;
+        synchronized (lock) {
+            isFlushScheduled = !pendingChanges.isEmpty();
+            pendingChanges.addAll(changes);
+        }
+        if (!isFlushScheduled) {
+            executor.accept(this::applyPendingChanges);
+        }
+    }
+
+    private void applyPendingChanges() {
+        List<Change> changes;
+        synchronized (lock) {
+            changes = pendingChanges;
+            pendingChanges = new ArrayList<>();
+        }
+
+        // We track the resulting content in a hash set to avoid O(n) contains calls on the target collection
+        Set<T> present = new HashSet<>(targetCollection);
+        Set<T> toAdd = new LinkedHashSet<>();
+        Set<T> toRemove = new HashSet<>();
+        for (Change change : changes) {
+            if (change.type == ChangeType.CLEAR) {
+                targetCollection.clear();
+                present.clear();
+                toAdd.clear();
+                toRemove.clear();
+                continue;
+            }
+
+            //noinspection unchecked
+            T item = mapFunction.apply((S) change.element);
+            if (change.type == ChangeType.ADD) {
+                // If the item was removed before in that batch it is still in the target collection
+                if (present.add(item) && !toRemove.remove(item)) {
+                    toAdd.add(item);
+                }
+            } else {
+                if (present.remove(item) && !toAdd.remove(item)) {
+                    toRemove.add(item);
+                }
+            }
+        }
+
+        if (!toRemove.isEmpty()) {
+            targetCollection.removeAll(toRemove);
+        }
+        if (!toAdd.isEmpty()) {
+            targetCollection.addAll(toAdd);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.observable.map;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Observer implementation which mirrors the changes of the source map on the target map (usually a JavaFx
+ * ObservableMap) using the given executor (usually runs the runnable on the JavaFX Application Thread).
+ * <p>
+ * Changes are coalesced per key until the executor runs the pending flush task, so a burst of changes results in
+ * one task on the executor.
+ *
+ * @param <K, V> The map types.
+ */
+@EqualsAndHashCode
+@ToString
+final class HashMapChangeMapper<K, V> implements HashMapObserver<K, V> {
+    private final Map<K, V> targetMap;
+    private final Consumer<Runnable> executor;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Object lock = new Object();
+    // Pending changes are guarded by lock. A key is either in pendingPuts or in pendingRemoves.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<K, V> pendingPuts = new LinkedHashMap<>();
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<Object> pendingRemoves = new HashSet<>();
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isClearPending;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isFlushScheduled;
+
+    HashMapChangeMapper(Map<K, V> targetMap, Consumer<Runnable> executor) {
+        this.targetMap = targetMap;
+        this.executor = executor;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        synchronized (lock) {
+            pendingRemoves.remove(key);
+            pendingPuts.put(key, value);
+        }
+        maybeScheduleFlush();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        synchronized (lock) {
+            pendingRemoves.removeAll(map.keySet());
+            pendingPuts.putAll(map);
+        }
+        maybeScheduleFlush();
+    }
+
+    @Override
+    public void remove(Object key) {
+        synchronized (lock) {
+            //noinspection SuspiciousMethodCalls
+            pendingPuts.remove(key);
+            pendingRemoves.add(key);
+        }
+        maybeScheduleFlush();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            pendingPuts.clear();
+            pendingRemoves.clear();
+            isClearPending = true;
+        }
+        maybeScheduleFlush();
+    }
+
+    private void maybeScheduleFlush() {
+        synchronized (lock) {
+            if (isFlushScheduled) {
+                return;
+            }
+            isFlushScheduled = true;
+        }
+        executor.accept(this::applyPendingChanges);
+    }
+
+    private void applyPendingChanges() {
+        Map<K, V> puts;
+        Set<Object> removes;
+        boolean clear;
+        synchronized (lock) {
+            puts = pendingPuts;
+            removes = pendingRemoves;
+            clear = isClearPending;
+            pendingPuts = new LinkedHashMap<>();
+            pendingRemoves = new HashSet<>();
+            isClearPending = false;
+            isFlushScheduled = false;
+        }
+
+        if (clear) {
+            targetMap.clear();
+        }
+        removes.forEach(targetMap::remove);
+        targetMap.putAll(puts);
+    }
+}
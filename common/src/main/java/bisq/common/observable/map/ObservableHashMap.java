@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class ObservableHashMap<K, V> implements Map<K, V> {
     @Getter
@@ -51,6 +52,16 @@ public class ObservableHashMap<K, V> implements Map<K, V> {
         return () -> observers.remove(simpleHashMapObserver);
     }
 
+    /**
+     * Mirrors the changes on the target map. Changes get coalesced until the executor applies them.
+     */
+    public Pin addHashMapChangeMapper(Map<K, V> targetMap, Consumer<Runnable> executor) {
+        HashMapChangeMapper<K, V> hashMapChangeMapper = new HashMapChangeMapper<>(targetMap, executor);
+        hashMapChangeMapper.putAll(map);
+        observers.add(hashMapChangeMapper);
+        return () -> observers.remove(hashMapChangeMapper);
+    }
+
     @Nullable
     @Override
     public V put(K key, V value) {
@@ -21,9 +21,9 @@ import bisq.common.util.ProtobufUtils;
 import com.google.protobuf.Any;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class ProtoResolverMap<T extends Proto> {
@@ -33,7 +33,8 @@ public class ProtoResolverMap<T extends Proto> {
         this.addToNetworkStorageWhiteList = addToNetworkStorageWhiteList;
     }
 
-    private final Map<String, ProtoResolver<T>> map = new HashMap<>();
+    // Resolvers are used from multiple threads (e.g. parallel decoding of persisted network data)
+    private final Map<String, ProtoResolver<T>> map = new ConcurrentHashMap<>();
 
     public void addProtoResolver(String protoTypeName, ProtoResolver<T> resolver) {
         if (addToNetworkStorageWhiteList) {
@@ -57,6 +57,21 @@ public class ExecutorFactory {
         return Executors.newSingleThreadScheduledExecutor(threadFactory);
     }
 
+    /**
+     * Single threaded ScheduledThreadPoolExecutor which removes cancelled tasks immediately from its queue.
+     * Intended to be used as a shared timer where many tasks get scheduled and cancelled.
+     */
+    public static ScheduledThreadPoolExecutor newSingleThreadTimer(String name) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat(getNameWithThreadNum(name))
+                .setDaemon(true)
+                .build();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
     /**
      * Uses a SynchronousQueue, so each submitted task requires a new thread as no queuing functionality is provided.
      * To be used when we want to avoid overhead for new thread creation/destruction and no queuing functionality.
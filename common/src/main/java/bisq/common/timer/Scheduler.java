@@ -22,25 +22,45 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
-import java.util.Random;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * All Scheduler instances share a single timer thread which only dispatches due tasks to a worker pool. Thus a
+ * Scheduler is a cheap object and long-running tasks do not delay other timers.
+ * Periodic tasks are rescheduled after the task has completed, so executions of the same Scheduler never overlap
+ * (fixed delay semantics).
+ */
 @Slf4j
 public class Scheduler implements TaskScheduler {
-    // We do not use a ScheduledThreadPoolExecutor as the queue cannot be customized. It would cause undesired behaviour 
-    // in case we would use a static executor for all Scheduler instances and multiple schedule calls would get 
-    // queued up instead of starting a new scheduler.
-    private final ScheduledExecutorService executor;
+    private static final ScheduledThreadPoolExecutor TIMER = ExecutorFactory.newSingleThreadTimer("Scheduler-timer");
+    private static final long RETRY_AFTER_REJECTION_MS = 1000;
+    // We log at most once in that interval if executions get rejected, as it affects many tasks at once
+    private static final long REJECTION_LOG_INTERVAL_MS = 10_000;
+    // Threads are only created if all existing ones are busy and get terminated after 60 sec. idle time. As tasks
+    // might block (e.g. PeerGroupManager.runBlockingTasks) we do not use a bounded pool, otherwise blocking tasks
+    // could delay all other timers.
+    private static final ThreadPoolExecutor WORKER_POOL = ExecutorFactory.getThreadPoolExecutor("Scheduler-worker",
+            0,
+            Integer.MAX_VALUE,
+            60_000,
+            new SynchronousQueue<>());
+    private static final AtomicLong lastRejectionLogTs = new AtomicLong();
+    @Getter
+    private static final SchedulerMetrics metrics = new SchedulerMetrics();
+
     private final Runnable task;
     private volatile boolean stopped;
     @Getter
-    private long counter;
+    private volatile long counter;
     private Optional<String> threadName = Optional.empty();
+    private long cycles;
+    private long delayInNanos;
+    private boolean active;
+    private ScheduledFuture<?> scheduledFuture;
 
     private Scheduler(Runnable task) {
         this.task = task;
-        executor = ExecutorFactory.newSingleThreadScheduledExecutor("Scheduler-" + new Random().nextInt(1000));
     }
 
     public static Scheduler run(Runnable task) {
@@ -89,36 +109,20 @@ public class Scheduler implements TaskScheduler {
 
     @Override
     public Scheduler repeated(long initialDelay, long delay, TimeUnit timeUnit, long cycles) {
-        if (stopped) {
-            return this;
-        }
-        if (cycles == 1) {
-            executor.schedule(() -> {
-                if (stopped) {
-                    return;
-                }
-                threadName.ifPresent(name -> Thread.currentThread().setName(name));
-                try {
-                    task.run();
-                } finally {
-                    stop();
-                }
-            }, delay, timeUnit);
-        } else {
-            executor.scheduleWithFixedDelay(() -> {
-                if (stopped) {
-                    return;
-                }
-                threadName.ifPresent(name -> Thread.currentThread().setName(name));
-                try {
-                    task.run();
-                } finally {
-                    counter++;
-                    if (counter >= cycles) {
-                        stop();
-                    }
-                }
-            }, initialDelay, delay, timeUnit);
+        synchronized (this) {
+            if (stopped) {
+                return this;
+            }
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+            if (!active) {
+                active = true;
+                metrics.onTimerStarted();
+            }
+            this.cycles = cycles;
+            delayInNanos = timeUnit.toNanos(delay);
+            schedule(cycles == 1 ? delayInNanos : timeUnit.toNanos(initialDelay));
         }
         return this;
     }
@@ -126,6 +130,85 @@ public class Scheduler implements TaskScheduler {
     @Override
     public void stop() {
         stopped = true;
-        ExecutorFactory.shutdownAndAwaitTermination(executor);
+        synchronized (this) {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+                scheduledFuture = null;
+            }
+            if (active) {
+                active = false;
+                metrics.onTimerStopped();
+            }
+        }
+    }
+
+    // Must be called while holding the lock
+    private void schedule(long delayInNanos) {
+        long dueTime = System.nanoTime() + delayInNanos;
+        scheduledFuture = TIMER.schedule(() -> dispatch(dueTime), delayInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Called on the timer thread. Must not block.
+    private void dispatch(long dueTime) {
+        if (stopped) {
+            return;
+        }
+        try {
+            WORKER_POOL.execute(() -> execute(dueTime));
+        } catch (RejectedExecutionException e) {
+            // Not expected as the pool is unbounded. Just as a safety net, we skip this execution and try again later
+            // instead of stopping the scheduler.
+            metrics.onRejectedExecution();
+            if (isRejectionLogDue()) {
+                log.error("Task could not be executed. We retry later. {}", metrics, e);
+            }
+            synchronized (this) {
+                if (!stopped) {
+                    schedule(Math.max(delayInNanos, TimeUnit.MILLISECONDS.toNanos(RETRY_AFTER_REJECTION_MS)));
+                }
+            }
+        }
+    }
+
+    private void execute(long dueTime) {
+        if (stopped) {
+            return;
+        }
+        metrics.onExecution(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dueTime));
+
+        Thread thread = Thread.currentThread();
+        String originalName = thread.getName();
+        threadName.ifPresent(thread::setName);
+        try {
+            task.run();
+        } catch (Throwable t) {
+            // Same as with ScheduledExecutorService.scheduleWithFixedDelay, an exception stops further executions
+            log.error("Task execution failed. We stop the scheduler.", t);
+            stop();
+            return;
+        } finally {
+            thread.setName(originalName);
+        }
+
+        if (cycles == 1) {
+            stop();
+            return;
+        }
+        counter++;
+        if (counter >= cycles) {
+            stop();
+            return;
+        }
+        synchronized (this) {
+            if (!stopped) {
+                schedule(delayInNanos);
+            }
+        }
+    }
+
+    private static boolean isRejectionLogDue() {
+        long now = System.currentTimeMillis();
+        long lastLogTs = lastRejectionLogTs.get();
+        return now - lastLogTs > REJECTION_LOG_INTERVAL_MS && lastRejectionLogTs.compareAndSet(lastLogTs, now);
     }
 }
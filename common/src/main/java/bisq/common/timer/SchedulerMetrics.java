@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.timer;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the shared timer used by all Scheduler instances.
+ * Drift is the time between the scheduled execution time and the time when the task actually started.
+ */
+@Getter
+public class SchedulerMetrics {
+    // Executions with a larger drift are counted as late executions
+    public static final long LATE_EXECUTION_THRESHOLD_MS = 100;
+
+    private final AtomicInteger numActiveTimers = new AtomicInteger();
+    private final AtomicLong numExecutions = new AtomicLong();
+    private final AtomicLong numLateExecutions = new AtomicLong();
+    // Executions which were skipped as the worker pool rejected them
+    private final AtomicLong numRejectedExecutions = new AtomicLong();
+    private final AtomicLong maxDriftInMs = new AtomicLong();
+    private final AtomicLong accumulatedDriftInMs = new AtomicLong();
+
+    SchedulerMetrics() {
+    }
+
+    void onTimerStarted() {
+        numActiveTimers.incrementAndGet();
+    }
+
+    void onTimerStopped() {
+        numActiveTimers.decrementAndGet();
+    }
+
+    void onExecution(long driftInMs) {
+        long drift = Math.max(0, driftInMs);
+        numExecutions.incrementAndGet();
+        accumulatedDriftInMs.addAndGet(drift);
+        maxDriftInMs.accumulateAndGet(drift, Math::max);
+        if (drift > LATE_EXECUTION_THRESHOLD_MS) {
+            numLateExecutions.incrementAndGet();
+        }
+    }
+
+    void onRejectedExecution() {
+        numRejectedExecutions.incrementAndGet();
+    }
+
+    public double getAverageDriftInMs() {
+        long executions = numExecutions.get();
+        return executions == 0 ? 0 : accumulatedDriftInMs.get() / (double) executions;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulerMetrics{" +
+                "numActiveTimers=" + numActiveTimers.get() +
+                ", numExecutions=" + numExecutions.get() +
+                ", numLateExecutions=" + numLateExecutions.get() +
+                ", numRejectedExecutions=" + numRejectedExecutions.get() +
+                ", maxDriftInMs=" + maxDriftInMs.get() +
+                ", averageDriftInMs=" + getAverageDriftInMs() +
+                '}';
+    }
+}
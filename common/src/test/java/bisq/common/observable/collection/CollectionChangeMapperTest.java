@@ -0,0 +1,55 @@
+package bisq.common.observable.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionChangeMapperTest {
+    @Test
+    public void changesAreAppliedAsOneBatch() {
+        ObservableSet<Integer> source = new ObservableSet<>(List.of(1, 2, 3));
+        List<String> target = new ArrayList<>();
+        List<Runnable> pendingTasks = new ArrayList<>();
+        source.addCollectionChangeMapper(target, String::valueOf, pendingTasks::add);
+
+        for (int i = 4; i < 20_000; i++) {
+            source.add(i);
+        }
+        source.remove(1);
+        source.remove(5);
+        source.add(1);
+        source.remove(10);
+
+        assertThat(pendingTasks).hasSize(1);
+        assertThat(target).isEmpty();
+
+        pendingTasks.remove(0).run();
+        assertThat(target).hasSize(19_997)
+                .doesNotContain("5", "10")
+                .startsWith("2", "3", "4", "6", "7");
+
+        source.clear();
+        source.add(7);
+        assertThat(pendingTasks).hasSize(1);
+        pendingTasks.remove(0).run();
+        assertThat(target).containsExactly("7");
+    }
+
+    @Test
+    public void directExecutorAppliesImmediately() {
+        ObservableArray<Integer> source = new ObservableArray<>();
+        List<Integer> target = new ArrayList<>();
+        source.addCollectionChangeMapper(target, e -> e, Runnable::run);
+
+        source.add(1);
+        source.add(1);
+        assertThat(target).containsExactly(1);
+        source.setAll(List.of(2, 3));
+        assertThat(target).containsExactly(2, 3);
+        source.remove(Integer.valueOf(2));
+        assertThat(target).containsExactly(3);
+    }
+}
@@ -0,0 +1,90 @@
+package bisq.common.timer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+public class SchedulerTest {
+    @Test
+    public void after() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Scheduler scheduler = Scheduler.run(latch::countDown).after(50);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(scheduler.getCounter()).isEqualTo(0);
+    }
+
+    @Test
+    public void repeatedStopsAfterCycles() throws InterruptedException {
+        AtomicInteger numExecutions = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(3);
+        Scheduler scheduler = Scheduler.run(() -> {
+            numExecutions.incrementAndGet();
+            latch.countDown();
+        }).repeated(10, 3);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(numExecutions.get()).isEqualTo(3);
+        assertThat(scheduler.getCounter()).isEqualTo(3);
+    }
+
+    @Test
+    public void stopCancelsPendingExecution() throws InterruptedException {
+        AtomicInteger numExecutions = new AtomicInteger();
+        Scheduler scheduler = Scheduler.run(numExecutions::incrementAndGet).after(100);
+        scheduler.stop();
+        Thread.sleep(300);
+        assertThat(numExecutions.get()).isEqualTo(0);
+
+        // A stopped scheduler cannot be restarted
+        scheduler.after(10);
+        Thread.sleep(100);
+        assertThat(numExecutions.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void blockingTaskDoesNotDelayOtherTimers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Scheduler blocking = Scheduler.run(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignore) {
+            }
+        }).after(0);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Scheduler.run(latch::countDown).after(50);
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        blocking.stop();
+    }
+
+    // Replaces a micro-benchmark: 10k concurrently active periodic timers must not cause noticeable drift
+    @Test
+    public void manyConcurrentTimers() throws InterruptedException {
+        int numTimers = 10_000;
+        int cycles = 5;
+        CountDownLatch latch = new CountDownLatch(numTimers * cycles);
+        List<Scheduler> schedulers = new ArrayList<>();
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < numTimers; i++) {
+            schedulers.add(Scheduler.run(latch::countDown).repeated(100, cycles));
+        }
+        log.info("Creating {} timers took {} ms. {}", numTimers, System.currentTimeMillis() - ts, Scheduler.getMetrics());
+
+        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        log.info("Executing {} timers with {} cycles took {} ms. {}",
+                numTimers, cycles, System.currentTimeMillis() - ts, Scheduler.getMetrics());
+
+        Thread.sleep(200);
+        assertThat(schedulers).allMatch(scheduler -> scheduler.getCounter() == cycles);
+        assertThat(Scheduler.getMetrics().getNumExecutions().get()).isGreaterThanOrEqualTo((long) numTimers * cycles);
+    }
+}
@@ -22,7 +22,6 @@ import bisq.common.observable.Pin;
 import bisq.common.observable.ReadOnlyObservable;
 import bisq.common.observable.collection.ObservableArray;
 import bisq.common.observable.collection.ObservableSet;
-import bisq.common.observable.map.HashMapObserver;
 import bisq.common.observable.map.ObservableHashMap;
 import bisq.desktop.common.threading.UIThread;
 import javafx.beans.property.*;
@@ -121,23 +120,7 @@ public class FxBindings {
         }
 
         public Pin to(ObservableHashMap<K, V> observable) {
-            return observable.addObserver(new HashMapObserver<>() {
-                @Override
-                public void put(K key, V value) {
-                    UIThread.run(() -> observableMap.put(key, value));
-                }
-
-                @Override
-                public void remove(Object key) {
-                    //noinspection SuspiciousMethodCalls
-                    UIThread.run(() -> observableMap.remove(key));
-                }
-
-                @Override
-                public void clear() {
-                    UIThread.run(observableMap::clear);
-                }
-            });
+            return observable.addHashMapChangeMapper(observableMap, UIThread::run);
         }
     }
 
@@ -19,11 +19,9 @@ package bisq.desktop.common.utils;
 
 import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.SnapshotParameters;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -87,27 +85,58 @@ public class ImageUtil {
         stage.getIcons().add(ImageUtil.getImageByPath("images/app_window/icon_16.png"));
     }
 
-    public static Image composeImage(String[] paths, int width, int height) {
-        Canvas canvas = new Canvas();
-        canvas.setWidth(width);
-        canvas.setHeight(height);
-        GraphicsContext graphicsContext2D = canvas.getGraphicsContext2D();
+    /**
+     * Composes the images at the given paths on top of each other and clips the result to a circle.
+     * Does not use a Canvas, thus it can be called from any thread.
+     *
+     * @return The pixels in non-premultiplied ARGB format, row by row.
+     */
+    public static int[] composeImagePixels(String[] paths, int width, int height) {
+        int[] result = new int[width * height];
+        int[] layer = new int[width * height];
+        for (String path : paths) {
+            Image image = getImageByPath("images/robohash/" + path, width, height);
+            Objects.requireNonNull(image, "Image not found. path=" + path)
+                    .getPixelReader()
+                    .getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), layer, 0, width);
+            for (int i = 0; i < result.length; i++) {
+                result[i] = blend(layer[i], result[i], 1);
+            }
+        }
 
+        // Clip to circle with anti-aliased edge
         double radius = Math.min(height, width) / 2d;
-        double x = width / 2d;
-        double y = height / 2d;
-        graphicsContext2D.beginPath();
-        graphicsContext2D.moveTo(x - radius, y);
-        graphicsContext2D.arc(x, y, radius, radius, 180, 360);
-        graphicsContext2D.closePath();
-        graphicsContext2D.clip();
+        double centerX = width / 2d;
+        double centerY = height / 2d;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double distance = Math.hypot(x + 0.5 - centerX, y + 0.5 - centerY);
+                double coverage = Math.max(0, Math.min(1, radius - distance + 0.5));
+                if (coverage < 1) {
+                    int index = y * width + x;
+                    result[index] = blend(result[index], 0, coverage);
+                }
+            }
+        }
+        return result;
+    }
 
-        for (String path : paths) {
-            graphicsContext2D.drawImage(new Image("images/robohash/" + path), 0, 0, width, height);
+    // Source-over blending of non-premultiplied ARGB pixels. Coverage scales the alpha of the source.
+    private static int blend(int source, int destination, double coverage) {
+        double sourceAlpha = (source >>> 24) / 255d * coverage;
+        double destinationAlpha = (destination >>> 24) / 255d * (1 - sourceAlpha);
+        double alpha = sourceAlpha + destinationAlpha;
+        if (alpha <= 0) {
+            return 0;
         }
-        SnapshotParameters snapshotParameters = new SnapshotParameters();
-        snapshotParameters.setFill(Color.TRANSPARENT);
-        return canvas.snapshot(snapshotParameters, null);
+        int red = blendChannel(source >> 16, destination >> 16, sourceAlpha, destinationAlpha, alpha);
+        int green = blendChannel(source >> 8, destination >> 8, sourceAlpha, destinationAlpha, alpha);
+        int blue = blendChannel(source, destination, sourceAlpha, destinationAlpha, alpha);
+        return ((int) Math.round(alpha * 255) << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    private static int blendChannel(int source, int destination, double sourceAlpha, double destinationAlpha, double alpha) {
+        return (int) Math.round(((source & 0xff) * sourceAlpha + (destination & 0xff) * destinationAlpha) / alpha);
     }
 
     /**
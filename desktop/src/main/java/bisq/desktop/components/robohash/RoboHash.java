@@ -1,50 +1,215 @@
 package bisq.desktop.components.robohash;
 
 import bisq.common.data.ByteArray;
+import bisq.common.encoding.Hex;
+import bisq.common.threading.ExecutorFactory;
+import bisq.desktop.common.threading.UIThread;
 import bisq.desktop.common.utils.ImageUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 // Derived from https://github.com/neuhalje/android-robohash
 // Number of combinations: 3 * 15 * 15 * 15 * 15 * 15 * 15  = 34171875 (2 ^ 25)
 @Slf4j
 public class RoboHash {
-    private static final int MAX_CACHE_SIZE = 10000;
+    // Each image has 300*300 pixels with 4 bytes, so about 280 images fit into the memory cache
+    private static final long MAX_CACHE_SIZE_IN_BYTES = 100 * 1024 * 1024;
+    // If the PNG files of the disk cache exceed that size, the least recently used files get deleted until the cache
+    // is below PRUNED_DISK_CACHE_SIZE_IN_BYTES. Pruning to a lower size avoids pruning again at each write.
+    private static final long MAX_DISK_CACHE_SIZE_IN_BYTES = 50 * 1024 * 1024;
+    private static final long PRUNED_DISK_CACHE_SIZE_IN_BYTES = 40 * 1024 * 1024;
     private static final HandleFactory HANDLE_FACTORY = new HandleFactory();
-    private static final ConcurrentHashMap<ByteArray, Image> CACHE = new ConcurrentHashMap<>();
+    private static final Cache<ByteArray, Image> CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHE_SIZE_IN_BYTES)
+            .weigher((ByteArray pubKeyHash, Image image) -> (int) (image.getWidth() * image.getHeight() * 4))
+            .build();
+    private static final ExecutorService EXECUTOR = ExecutorFactory.newFixedThreadPool("RoboHash", 2);
+    private static volatile Optional<Path> cacheDirectory = Optional.empty();
+    private static final AtomicLong diskCacheSizeInBytes = new AtomicLong();
+
+    /**
+     * Enables the persistent PNG cache of the rendered images.
+     */
+    public static void setCacheDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            cacheDirectory = Optional.of(directory);
+            EXECUTOR.execute(RoboHash::pruneDiskCache);
+        } catch (IOException e) {
+            log.warn("Could not create RoboHash cache directory {}", directory, e);
+        }
+    }
 
     public static Image getImage(byte[] pubKeyHash) {
         return getImage(new ByteArray(pubKeyHash), true);
     }
 
+    /**
+     * @param useCache If false, the image is neither taken from nor added to the memory and disk cache. To be used
+     *                 for images which are likely not shown again, like the ones of the temporary key pairs at
+     *                 generating a new profile.
+     */
     public static Image getImage(byte[] pubKeyHash, boolean useCache) {
         return getImage(new ByteArray(pubKeyHash), useCache);
     }
 
+    /**
+     * Returns the image from the memory cache if available. Otherwise, we return a transparent placeholder image
+     * which gets filled on the UI thread once the image has been loaded from the disk cache or rendered on the
+     * RoboHash executor.
+     */
     private static Image getImage(ByteArray pubKeyHash, boolean useCache) {
-        if (useCache && CACHE.containsKey(pubKeyHash)) {
-            return CACHE.get(pubKeyHash);
+        if (useCache) {
+            Image cached = CACHE.getIfPresent(pubKeyHash);
+            if (cached != null) {
+                return cached;
+            }
         }
-        BigInteger bigInteger = new BigInteger(pubKeyHash.getBytes());
         Configuration configuration = new Configuration();
+        WritableImage image = new WritableImage(configuration.width(), configuration.height());
+        if (useCache) {
+            Image cached = CACHE.asMap().putIfAbsent(pubKeyHash, image);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        EXECUTOR.execute(() -> {
+            try {
+                int[] pixels;
+                if (useCache) {
+                    pixels = readFromDisk(pubKeyHash, configuration)
+                            .orElseGet(() -> {
+                                int[] rendered = render(pubKeyHash, configuration);
+                                writeToDisk(pubKeyHash, rendered, configuration);
+                                return rendered;
+                            });
+                } else {
+                    pixels = render(pubKeyHash, configuration);
+                }
+                UIThread.run(() -> image.getPixelWriter().setPixels(0, 0,
+                        configuration.width(), configuration.height(),
+                        PixelFormat.getIntArgbInstance(), pixels, 0, configuration.width()));
+            } catch (Exception e) {
+                log.error("Creating RoboHash image failed", e);
+                CACHE.invalidate(pubKeyHash);
+            }
+        });
+        return image;
+    }
+
+    private static int[] render(ByteArray pubKeyHash, Configuration configuration) {
+        BigInteger bigInteger = new BigInteger(pubKeyHash.getBytes());
         VariableSizeHashing hashing = new VariableSizeHashing(configuration.getBucketSizes());
         byte[] data = hashing.createBuckets(bigInteger);
         Handle handle = HANDLE_FACTORY.calculateHandle(data);
-        Image image = imageForHandle(handle, configuration);
-        if (useCache && CACHE.size() < MAX_CACHE_SIZE) {
-            CACHE.put(pubKeyHash, image);
-        }
-        return image;
+        return pixelsForHandle(handle, configuration);
     }
 
-    private static Image imageForHandle(Handle handle, Configuration configuration) {
+    private static int[] pixelsForHandle(Handle handle, Configuration configuration) {
         long ts = System.currentTimeMillis();
         byte[] bucketValues = handle.bucketValues();
         String[] paths = configuration.convertToFacetParts(bucketValues);
         log.debug("Generated paths for RoboHash image in {} ms", System.currentTimeMillis() - ts); // typically <1ms
-        return ImageUtil.composeImage(paths, configuration.width(), configuration.height());
+        return ImageUtil.composeImagePixels(paths, configuration.width(), configuration.height());
+    }
+
+    private static Optional<int[]> readFromDisk(ByteArray pubKeyHash, Configuration configuration) {
+        return cacheDirectory.map(directory -> getFile(directory, pubKeyHash))
+                .filter(File::exists)
+                .flatMap(file -> {
+                    try {
+                        BufferedImage bufferedImage = ImageIO.read(file);
+                        int width = configuration.width();
+                        int height = configuration.height();
+                        if (bufferedImage == null || bufferedImage.getWidth() != width || bufferedImage.getHeight() != height) {
+                            return Optional.empty();
+                        }
+                        // The modification time is used as last access time at pruning
+                        if (!file.setLastModified(System.currentTimeMillis())) {
+                            log.debug("Could not update modification time of {}", file);
+                        }
+                        return Optional.of(bufferedImage.getRGB(0, 0, width, height, null, 0, width));
+                    } catch (IOException e) {
+                        log.warn("Reading RoboHash image from {} failed", file, e);
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    private static void writeToDisk(ByteArray pubKeyHash, int[] pixels, Configuration configuration) {
+        cacheDirectory.ifPresent(directory -> {
+            File file = getFile(directory, pubKeyHash);
+            File tempFile = new File(file.getPath() + ".tmp");
+            try {
+                int width = configuration.width();
+                BufferedImage bufferedImage = new BufferedImage(width, configuration.height(), BufferedImage.TYPE_INT_ARGB);
+                bufferedImage.setRGB(0, 0, width, configuration.height(), pixels, 0, width);
+                ImageIO.write(bufferedImage, "png", tempFile);
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (diskCacheSizeInBytes.addAndGet(file.length()) > MAX_DISK_CACHE_SIZE_IN_BYTES) {
+                    pruneDiskCache();
+                }
+            } catch (IOException e) {
+                log.warn("Writing RoboHash image to {} failed", file, e);
+            }
+        });
+    }
+
+    // Deletes the least recently used files if the disk cache exceeds MAX_DISK_CACHE_SIZE_IN_BYTES
+    private static synchronized void pruneDiskCache() {
+        cacheDirectory.ifPresent(directory -> {
+            File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(".png"));
+            if (files == null) {
+                return;
+            }
+            long size = Arrays.stream(files).mapToLong(File::length).sum();
+            if (size > MAX_DISK_CACHE_SIZE_IN_BYTES) {
+                // We read the modification times before sorting, as they might change while sorting
+                Map<File, Long> lastModifiedByFile = Arrays.stream(files)
+                        .collect(Collectors.toMap(Function.identity(), File::lastModified));
+                List<File> leastRecentlyUsedFirst = lastModifiedByFile.keySet().stream()
+                        .sorted(Comparator.comparingLong(lastModifiedByFile::get))
+                        .collect(Collectors.toList());
+                int numDeleted = 0;
+                for (File file : leastRecentlyUsedFirst) {
+                    if (size <= PRUNED_DISK_CACHE_SIZE_IN_BYTES) {
+                        break;
+                    }
+                    long length = file.length();
+                    if (file.delete()) {
+                        size -= length;
+                        numDeleted++;
+                    }
+                }
+                log.info("Deleted {} least recently used RoboHash images from the disk cache", numDeleted);
+            }
+            diskCacheSizeInBytes.set(size);
+        });
+    }
+
+    private static File getFile(Path directory, ByteArray pubKeyHash) {
+        return directory.resolve(Hex.encode(pubKeyHash.getBytes()) + ".png").toFile();
     }
 }
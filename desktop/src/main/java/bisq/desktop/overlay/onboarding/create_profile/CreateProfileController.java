@@ -197,7 +197,9 @@ public class CreateProfileController implements Controller {
 
     private void applyIdentityData(byte[] pubKeyHash, String nym) {
         model.getNym().set(nym);
-        model.getRoboHashImage().set(RoboHash.getImage(pubKeyHash));
+        // The key pair is only persisted once the profile gets created, so we do not cache the images of the
+        // regenerated key pairs
+        model.getRoboHashImage().set(RoboHash.getImage(pubKeyHash, false));
         model.getPowProgress().set(0);
         model.getRoboHashIconVisible().set(true);
         model.getReGenerateButtonDisabled().set(false);
@@ -241,6 +241,9 @@ public class DesktopApplicationService extends ApplicationService {
                         if (result != null && result) {
                             setState(State.APP_INITIALIZED);
                             log.info("ApplicationService initialized");
+                            // All services have added their message listeners, so we can process the mailbox messages we have
+                            // already received.
+                            networkService.processMailboxBacklog();
                             return true;
                         } else {
                             log.error("Initializing applicationService failed");
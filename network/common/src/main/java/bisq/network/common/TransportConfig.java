@@ -27,4 +27,12 @@ public interface TransportConfig {
     int getDefaultNodeSocketTimeout();
 
     int getUserNodeSocketTimeout();
+
+    /**
+     * If true, connections are served by a selector thread after the handshake instead of a blocking read thread per
+     * connection. Requires sockets created from channels, thus only supported by transports not using a SOCKS proxy.
+     */
+    default boolean isNioTransport() {
+        return false;
+    }
 }
@@ -36,6 +36,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
@@ -49,6 +50,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class NetworkEnvelopeSocketChannelTests {
 
@@ -90,8 +92,8 @@ public class NetworkEnvelopeSocketChannelTests {
         OutputStream outputStream = Channels.newOutputStream(serverToClientSocketChannel);
         requestNetworkEnvelope.toProto().writeDelimitedTo(outputStream);
 
-        List<NetworkEnvelope> receivedNetworkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        assertThat(receivedNetworkEnvelopes).containsExactly(requestNetworkEnvelope);
+        List<bisq.network.protobuf.NetworkEnvelope> receivedProtos = networkEnvelopeSocketChannel.receiveProtos();
+        assertThat(receivedProtos).containsExactly(requestNetworkEnvelope.toProto());
     }
 
     @Test
@@ -102,10 +104,10 @@ public class NetworkEnvelopeSocketChannelTests {
         requestNetworkEnvelope.toProto().writeDelimitedTo(outputStream);
         requestNetworkEnvelope.toProto().writeDelimitedTo(outputStream);
 
-        List<NetworkEnvelope> receivedNetworkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        assertThat(receivedNetworkEnvelopes)
+        List<bisq.network.protobuf.NetworkEnvelope> receivedProtos = networkEnvelopeSocketChannel.receiveProtos();
+        assertThat(receivedProtos)
                 .hasSize(2)
-                .containsExactly(requestNetworkEnvelope, requestNetworkEnvelope);
+                .containsExactly(requestNetworkEnvelope.toProto(), requestNetworkEnvelope.toProto());
     }
 
     @Test
@@ -120,13 +122,13 @@ public class NetworkEnvelopeSocketChannelTests {
         ByteBuffer firstHundredBytesBuffer = ByteBuffer.wrap(messageInBytes, 0, 100);
         serverToClientSocketChannel.write(firstHundredBytesBuffer);
 
-        networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        networkEnvelopeSocketChannel.receiveProtos();
 
         ByteBuffer remainingBytesBuffer = ByteBuffer.wrap(messageInBytes, 100, messageInBytes.length - 100);
         serverToClientSocketChannel.write(remainingBytesBuffer);
 
-        List<NetworkEnvelope> receivedNetworkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        assertThat(receivedNetworkEnvelopes).containsExactly(requestNetworkEnvelope);
+        List<bisq.network.protobuf.NetworkEnvelope> receivedProtos = networkEnvelopeSocketChannel.receiveProtos();
+        assertThat(receivedProtos).containsExactly(requestNetworkEnvelope.toProto());
     }
 
     @Test
@@ -141,26 +143,24 @@ public class NetworkEnvelopeSocketChannelTests {
         ByteBuffer firstFiftyBytesBuffer = ByteBuffer.wrap(messageInBytes, 0, 50);
         serverToClientSocketChannel.write(firstFiftyBytesBuffer);
 
-        networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        networkEnvelopeSocketChannel.receiveProtos();
 
         ByteBuffer secondFiftyBytesBuffer = ByteBuffer.wrap(messageInBytes, 50, 50);
         serverToClientSocketChannel.write(secondFiftyBytesBuffer);
 
-        networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        networkEnvelopeSocketChannel.receiveProtos();
 
         ByteBuffer remainingBytesBuffer = ByteBuffer.wrap(messageInBytes, 100, messageInBytes.length - 100);
         serverToClientSocketChannel.write(remainingBytesBuffer);
 
-        List<NetworkEnvelope> receivedNetworkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        assertThat(receivedNetworkEnvelopes).containsExactly(requestNetworkEnvelope);
+        List<bisq.network.protobuf.NetworkEnvelope> receivedProtos = networkEnvelopeSocketChannel.receiveProtos();
+        assertThat(receivedProtos).containsExactly(requestNetworkEnvelope.toProto());
     }
 
     @Test
     void endOfStreamTest() throws IOException {
         serverToClientSocketChannel.close();
-        networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-
-        assertThat(clientSocketChannel.isOpen()).isFalse();
+        assertThrows(EOFException.class, networkEnvelopeSocketChannel::receiveProtos);
     }
 
     @Test
@@ -172,12 +172,12 @@ public class NetworkEnvelopeSocketChannelTests {
         requestNetworkEnvelope.toProto().writeDelimitedTo(outputStream);
 
         // read first 100 bytes
-        List<NetworkEnvelope> receivedNetworkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        assertThat(receivedNetworkEnvelopes).isEmpty();
+        List<bisq.network.protobuf.NetworkEnvelope> receivedProtos = networkEnvelopeSocketChannel.receiveProtos();
+        assertThat(receivedProtos).isEmpty();
 
         // read remaining
-        receivedNetworkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        assertThat(receivedNetworkEnvelopes).containsExactly(requestNetworkEnvelope);
+        receivedProtos = networkEnvelopeSocketChannel.receiveProtos();
+        assertThat(receivedProtos).containsExactly(requestNetworkEnvelope.toProto());
     }
 
     private NetworkEnvelope createHandshakeRequestMessage() {
@@ -317,6 +317,14 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         dataService.orElseThrow().removeListener(listener);
     }
 
+    /**
+     * Processes the mailbox messages addressed to us which are already in the mailbox stores.
+     * To be called once the application services have added their message listeners.
+     */
+    public void processMailboxBacklog() {
+        serviceNodesByTransport.processMailboxBacklog();
+    }
+
     public void addMessageListener(MessageListener messageListener) {
         serviceNodesByTransport.addMessageListener(messageListener);
     }
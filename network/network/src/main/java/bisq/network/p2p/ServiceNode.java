@@ -261,6 +261,10 @@ public class ServiceNode {
         return getNodesById().send(senderNetworkId, envelopePayloadMessage, address, torIdentity);
     }
 
+    void processMailboxBacklog() {
+        confidentialMessageService.ifPresent(ConfidentialMessageService::processMailboxBacklog);
+    }
+
     public void addMessageListener(MessageListener messageListener) {
         //todo rename NodeListener
         nodesById.addNodeListener(new Node.Listener() {
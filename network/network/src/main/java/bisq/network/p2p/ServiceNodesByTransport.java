@@ -211,6 +211,11 @@ public class ServiceNodesByTransport {
     }
 
 
+    public void processMailboxBacklog() {
+        // The mailbox stores are shared by all transports, so we process the backlog only once
+        map.values().stream().findFirst().ifPresent(ServiceNode::processMailboxBacklog);
+    }
+
     public void addMessageListener(MessageListener messageListener) {
         map.values().forEach(serviceNode -> serviceNode.addMessageListener(messageListener));
     }
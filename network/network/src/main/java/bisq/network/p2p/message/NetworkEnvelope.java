@@ -19,12 +19,16 @@ package bisq.network.p2p.message;
 
 import bisq.common.proto.Proto;
 import bisq.network.p2p.node.ConnectionException;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Outside data structure to be sent over the wire.
  */
@@ -38,15 +42,31 @@ public final class NetworkEnvelope implements Proto {
     private final int version;
     private final AuthorizationToken authorizationToken;
     private final EnvelopePayloadMessage envelopePayloadMessage;
+    // Only set at the connection handshake. Not covered by the proof of work (see Feature).
+    private final List<Feature> features;
 
     public NetworkEnvelope(AuthorizationToken authorizationToken, EnvelopePayloadMessage envelopePayloadMessage) {
-        this(VERSION, authorizationToken, envelopePayloadMessage);
+        this(authorizationToken, envelopePayloadMessage, new ArrayList<>());
+    }
+
+    public NetworkEnvelope(AuthorizationToken authorizationToken,
+                           EnvelopePayloadMessage envelopePayloadMessage,
+                           List<Feature> features) {
+        this(VERSION, authorizationToken, envelopePayloadMessage, features);
     }
 
     public NetworkEnvelope(int version, AuthorizationToken authorizationToken, EnvelopePayloadMessage envelopePayloadMessage) {
+        this(version, authorizationToken, envelopePayloadMessage, new ArrayList<>());
+    }
+
+    public NetworkEnvelope(int version,
+                           AuthorizationToken authorizationToken,
+                           EnvelopePayloadMessage envelopePayloadMessage,
+                           List<Feature> features) {
         this.version = version;
         this.authorizationToken = authorizationToken;
         this.envelopePayloadMessage = envelopePayloadMessage;
+        this.features = features;
     }
 
     public bisq.network.protobuf.NetworkEnvelope toProto() {
@@ -54,13 +74,15 @@ public final class NetworkEnvelope implements Proto {
                 .setVersion(version)
                 .setAuthorizationToken(authorizationToken.toProto())
                 .setNetworkMessage(envelopePayloadMessage.toProto())
+                .addAllFeatures(Feature.toProto(features))
                 .build();
     }
 
     public static NetworkEnvelope fromProto(bisq.network.protobuf.NetworkEnvelope proto) {
         return new NetworkEnvelope(proto.getVersion(),
-                AuthorizationToken.fromProto(proto.getAuthorizationToken()),
-                EnvelopePayloadMessage.fromProto(proto.getNetworkMessage()));
+                AuthorizationToken.fromProto(proto.getAuthorizationToken(), proto.getNetworkMessage()),
+                EnvelopePayloadMessage.fromProto(proto.getNetworkMessage()),
+                Feature.fromProto(proto.getFeaturesList()));
     }
 
     public void verifyVersion() throws ConnectionException {
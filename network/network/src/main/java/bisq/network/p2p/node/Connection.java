@@ -22,10 +22,13 @@ import bisq.network.NetworkService;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeCodec;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadService;
 import bisq.network.common.Address;
+import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,11 +36,19 @@ import javax.annotation.Nullable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -62,35 +73,81 @@ public abstract class Connection {
         void onConnectionClosed(CloseReason closeReason);
     }
 
+    private static final int NIO_READ_BUFFER_SIZE = 64 * 1024;
+    // If more received bytes are waiting for being decoded, we stop reading from the channel until they got decoded.
+    private static final long MAX_PENDING_RECEIVED_BYTES = 4 * 1024 * 1024;
+    private static final long DEFAULT_SEND_QUEUE_TIMEOUT = 120_000;
+
     @Getter
     private final String id = StringUtils.createUid();
     @Getter
     private final Capability peersCapability;
+    // Features the peer has sent at the handshake. Empty for old peers.
+    @Getter
+    private final List<Feature> peersFeatures;
     @Getter
     private final NetworkLoadService peersNetworkLoadService;
     @Getter
     private final ConnectionMetrics connectionMetrics;
 
+    @Nullable
     private NetworkEnvelopeSocket networkEnvelopeSocket;
+    // Present if the connection is served by the ConnectionMultiplexer
+    private Optional<NetworkEnvelopeSocketChannel> networkEnvelopeSocketChannel = Optional.empty();
+    private long readTimeout;
+    private volatile long lastReadTime;
     private final Handler handler;
+    private final BiConsumer<Connection, Exception> errorHandler;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
     @Nullable
     private Future<?> inputHandlerFuture;
     private final AtomicInteger sentMessageCounter = new AtomicInteger(0);
     private final Object writeLock = new Object();
+    private final Object sendQueueLock = new Object();
+    // Last queued send. Each send waits for its predecessor, so messages are written in the order of their
+    // message counter even if the proof of work of a later message got minted first.
+    private CompletableFuture<Connection> sendQueueTail = CompletableFuture.completedFuture(this);
+    // Last queued decoding of a received message at the multiplexer path. Only accessed on the selector thread.
+    // Each decoding waits for its predecessor, so messages are dispatched in the order they have been received.
+    private CompletableFuture<Void> receiveQueueTail = CompletableFuture.completedFuture(null);
+    private final Object receiveQueueLock = new Object();
+    // Guarded by receiveQueueLock
+    private long numPendingReceivedBytes;
+    private boolean isReadPaused;
+    private boolean isReadStopped;
     private volatile boolean isStopped;
     private volatile boolean listeningStopped;
 
     protected Connection(Socket socket,
                          Capability peersCapability,
+                         List<Feature> peersFeatures,
                          NetworkLoadService peersNetworkLoadService,
                          ConnectionMetrics connectionMetrics,
                          Handler handler,
-                         BiConsumer<Connection, Exception> errorHandler) {
+                         BiConsumer<Connection, Exception> errorHandler,
+                         Optional<ConnectionMultiplexer> connectionMultiplexer) {
         this.peersCapability = peersCapability;
+        this.peersFeatures = peersFeatures;
         this.peersNetworkLoadService = peersNetworkLoadService;
         this.handler = handler;
         this.connectionMetrics = connectionMetrics;
+        this.errorHandler = errorHandler;
+
+        // Only sockets created from a channel (clear net) can be used with the multiplexer.
+        if (connectionMultiplexer.isPresent() && socket.getChannel() != null) {
+            try {
+                readTimeout = socket.getSoTimeout();
+                socket.getChannel().configureBlocking(false);
+                networkEnvelopeSocketChannel = Optional.of(new NetworkEnvelopeSocketChannel(socket.getChannel(), NIO_READ_BUFFER_SIZE));
+            } catch (IOException exception) {
+                log.error("Could not switch socket channel to non-blocking mode " + socket, exception);
+                errorHandler.accept(this, exception);
+                close(CloseReason.EXCEPTION.exception(exception));
+                return;
+            }
+            connectionMultiplexer.get().register(this);
+            return;
+        }
 
         try {
             this.networkEnvelopeSocket = new NetworkEnvelopeSocket(socket);
@@ -109,30 +166,11 @@ public abstract class Connection {
                     // parsing might need some time wo we check again if connection is still active
                     if (isInputStreamActive()) {
                         checkNotNull(proto, "Proto from NetworkEnvelope.parseDelimitedFrom(inputStream) must not be null");
-                        long ts = System.currentTimeMillis();
-                        NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
-                        long deserializeTime = System.currentTimeMillis() - ts;
-
-                        networkEnvelope.verifyVersion();
-                        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
-                        log.debug("Received message: {} at: {}",
-                                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
-                        connectionMetrics.onReceived(networkEnvelope, deserializeTime);
-                        NetworkService.DISPATCHER.submit(() -> handler.handleNetworkMessage(envelopePayloadMessage,
-                                networkEnvelope.getAuthorizationToken(),
-                                this));
+                        handleProto(proto);
                     }
                 }
             } catch (Exception exception) {
-                //todo StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
-                if (isInputStreamActive()) {
-                    log.debug("Call shutdown from startListen read handler {} due exception={}", this, exception.toString());
-                    close(CloseReason.EXCEPTION.exception(exception));
-                    // EOFException expected if connection got closed
-                    if (!(exception instanceof EOFException)) {
-                        errorHandler.accept(this, exception);
-                    }
-                }
+                handleReadException(exception);
             }
         });
     }
@@ -150,6 +188,10 @@ public abstract class Connection {
         listeners.remove(listener);
     }
 
+    public boolean isPeerSupporting(Feature feature) {
+        return peersFeatures.contains(feature);
+    }
+
     public Address getPeerAddress() {
         return peersCapability.getAddress();
     }
@@ -173,7 +215,7 @@ public abstract class Connection {
     @Override
     public String toString() {
         return "'" + getClass().getSimpleName() + " [peerAddress=" + getPeersCapability().getAddress() +
-                ", socket=" + networkEnvelopeSocket +
+                ", socket=" + (networkEnvelopeSocketChannel.isPresent() ? networkEnvelopeSocketChannel.get() : networkEnvelopeSocket) +
                 ", keyId=" + getId() + "]'";
     }
 
@@ -191,19 +233,32 @@ public abstract class Connection {
         try {
             NetworkEnvelope networkEnvelope = new NetworkEnvelope(authorizationToken, envelopePayloadMessage);
             boolean sent = false;
+            int numBytes = 0;
             long ts = System.currentTimeMillis();
-            synchronized (writeLock) {
+            if (networkEnvelopeSocketChannel.isPresent()) {
                 try {
-                    networkEnvelopeSocket.send(networkEnvelope);
+                    // The multiplexer writes the queued data when the channel is writable
+                    numBytes = networkEnvelopeSocketChannel.get().enqueue(networkEnvelope, getSendQueueTimeout());
                     sent = true;
                 } catch (Throwable throwable) {
                     if (!isStopped) {
                         throw throwable;
                     }
                 }
+            } else {
+                synchronized (writeLock) {
+                    try {
+                        numBytes = networkEnvelopeSocket.send(networkEnvelope);
+                        sent = true;
+                    } catch (Throwable throwable) {
+                        if (!isStopped) {
+                            throw throwable;
+                        }
+                    }
+                }
             }
             if (sent) {
-                connectionMetrics.onSent(networkEnvelope, System.currentTimeMillis() - ts);
+                connectionMetrics.onSent(numBytes, System.currentTimeMillis() - ts);
                 if (envelopePayloadMessage instanceof CloseConnectionMessage) {
                     log.info("Sent {} from {}",
                             StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
@@ -239,7 +294,18 @@ public abstract class Connection {
             inputHandlerFuture.cancel(true);
         }
         try {
-            networkEnvelopeSocket.close();
+            if (networkEnvelopeSocketChannel.isPresent()) {
+                // Best effort to write queued messages like a CloseConnectionMessage
+                networkEnvelopeSocketChannel.get().flushSendQueue();
+            }
+        } catch (IOException ignore) {
+        }
+        try {
+            if (networkEnvelopeSocketChannel.isPresent()) {
+                networkEnvelopeSocketChannel.get().close();
+            } else if (networkEnvelopeSocket != null) {
+                networkEnvelopeSocket.close();
+            }
         } catch (IOException ignore) {
         }
         NetworkService.DISPATCHER.submit(() -> {
@@ -253,8 +319,22 @@ public abstract class Connection {
         listeners.forEach(listener -> listener.onNetworkMessage(envelopePayloadMessage));
     }
 
-    AtomicInteger getSentMessageCounter() {
-        return sentMessageCounter;
+    /**
+     * Assigns the next message counter, requests the AuthorizationToken for it from the tokenFactory and queues the
+     * message until the token is available and all previously queued messages have been sent.
+     */
+    CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage,
+                                            IntFunction<CompletableFuture<AuthorizationToken>> tokenFactory) {
+        synchronized (sendQueueLock) {
+            CompletableFuture<AuthorizationToken> tokenFuture = tokenFactory.apply(sentMessageCounter.incrementAndGet());
+            CompletableFuture<Connection> future = sendQueueTail
+                    .handle((connection, throwable) -> null) // A failed send must not block the following messages
+                    .thenCombine(tokenFuture, (nil, authorizationToken) -> authorizationToken)
+                    .thenApplyAsync(authorizationToken -> send(envelopePayloadMessage, authorizationToken),
+                            NetworkService.NETWORK_IO_POOL);
+            sendQueueTail = future;
+            return future;
+        }
     }
 
     boolean isStopped() {
@@ -262,10 +342,125 @@ public abstract class Connection {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // ConnectionMultiplexer callbacks, called on the selector thread
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    void onRegistered(Selector selector) throws ClosedChannelException {
+        NetworkEnvelopeSocketChannel channel = networkEnvelopeSocketChannel.orElseThrow();
+        lastReadTime = System.currentTimeMillis();
+        channel.setSelectionKey(channel.getSocketChannel().register(selector, SelectionKey.OP_READ, this));
+    }
+
+    /**
+     * Only the framing is done on the selector thread. The decoding (including the payload digest of the
+     * AuthorizationToken) and the dispatching are done on the NETWORK_IO_POOL.
+     */
+    void onReadable() {
+        try {
+            List<byte[]> frames = networkEnvelopeSocketChannel.orElseThrow().receiveFrames();
+            lastReadTime = System.currentTimeMillis();
+            for (byte[] frame : frames) {
+                updatePendingReceivedBytes(frame.length);
+                receiveQueueTail = receiveQueueTail.thenRunAsync(() -> handleFrame(frame), NetworkService.NETWORK_IO_POOL);
+            }
+        } catch (Exception exception) {
+            // We stop reading but handle the exception only after the messages received before got dispatched, as
+            // the peer might have sent a CloseConnectionMessage before closing the channel.
+            synchronized (receiveQueueLock) {
+                isReadStopped = true;
+                networkEnvelopeSocketChannel.orElseThrow().setReadInterest(false);
+            }
+            receiveQueueTail = receiveQueueTail.thenRunAsync(() -> handleReadException(exception),
+                    NetworkService.NETWORK_IO_POOL);
+        }
+    }
+
+    void onWritable() {
+        try {
+            networkEnvelopeSocketChannel.orElseThrow().flushSendQueue();
+        } catch (IOException exception) {
+            if (!isStopped) {
+                log.debug("Call shutdown from write handler {} due exception={}", this, exception.toString());
+                close(CloseReason.EXCEPTION.exception(exception));
+                errorHandler.accept(this, exception);
+            }
+        }
+    }
+
+    // Equivalent to the SO_TIMEOUT of the blocking read at the socket path
+    void checkReadTimeout(long now) {
+        if (readTimeout > 0 && now - lastReadTime > readTimeout) {
+            handleReadException(new SocketTimeoutException("Read timed out after " + readTimeout + " ms"));
+        }
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
+    private void handleFrame(byte[] frame) {
+        try {
+            if (isInputStreamActive()) {
+                handleProto(NetworkEnvelopeCodec.decode(frame, 0, frame.length));
+                // Reading might be paused while we decode, so we count the decoding as read activity
+                lastReadTime = System.currentTimeMillis();
+            }
+        } catch (InvalidProtocolBufferException e) {
+            log.error("Couldn't parse protocol buffer message.", e);
+        } catch (Exception exception) {
+            handleReadException(exception);
+        } finally {
+            updatePendingReceivedBytes(-frame.length);
+        }
+    }
+
+    private void updatePendingReceivedBytes(long delta) {
+        synchronized (receiveQueueLock) {
+            numPendingReceivedBytes += delta;
+            if (isReadStopped) {
+                return;
+            }
+            boolean pauseReading = numPendingReceivedBytes > MAX_PENDING_RECEIVED_BYTES;
+            if (pauseReading != isReadPaused) {
+                isReadPaused = pauseReading;
+                networkEnvelopeSocketChannel.orElseThrow().setReadInterest(!pauseReading);
+            }
+        }
+    }
+
+    private void handleProto(bisq.network.protobuf.NetworkEnvelope proto) {
+        long ts = System.currentTimeMillis();
+        NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
+        long deserializeTime = System.currentTimeMillis() - ts;
+
+        networkEnvelope.verifyVersion();
+        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
+        log.debug("Received message: {} at: {}",
+                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
+        connectionMetrics.onReceived(NetworkEnvelopeCodec.getFramedSize(proto), deserializeTime);
+        NetworkService.DISPATCHER.submit(() -> handler.handleNetworkMessage(envelopePayloadMessage,
+                networkEnvelope.getAuthorizationToken(),
+                this));
+    }
+
+    private void handleReadException(Exception exception) {
+        //todo StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
+        if (isInputStreamActive()) {
+            log.debug("Call shutdown from startListen read handler {} due exception={}", this, exception.toString());
+            close(CloseReason.EXCEPTION.exception(exception));
+            // EOFException expected if connection got closed
+            if (!(exception instanceof EOFException)) {
+                errorHandler.accept(this, exception);
+            }
+        }
+    }
+
+    private long getSendQueueTimeout() {
+        return readTimeout > 0 ? readTimeout : DEFAULT_SEND_QUEUE_TIMEOUT;
+    }
+
     private String getThreadNameId() {
         return StringUtils.truncate(getPeersCapability().getAddress().toString() + "-" + id.substring(0, 8));
     }
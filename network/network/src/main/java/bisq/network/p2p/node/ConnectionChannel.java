@@ -94,10 +94,11 @@ public abstract class ConnectionChannel {
         try {
             NetworkEnvelope networkEnvelope = new NetworkEnvelope(authorizationToken, envelopePayloadMessage);
             boolean sent = false;
+            int numBytes = 0;
             long ts = System.currentTimeMillis();
             synchronized (writeLock) {
                 try {
-                    networkEnvelopeSocketChannel.send(networkEnvelope);
+                    numBytes = networkEnvelopeSocketChannel.send(networkEnvelope);
                     sent = true;
                 } catch (Throwable throwable) {
                     if (!isStopped) {
@@ -106,7 +107,7 @@ public abstract class ConnectionChannel {
                 }
             }
             if (sent) {
-                connectionMetrics.onSent(networkEnvelope, System.currentTimeMillis() - ts);
+                connectionMetrics.onSent(numBytes, System.currentTimeMillis() - ts);
                 if (envelopePayloadMessage instanceof CloseConnectionMessage) {
                     log.info("Sent {} from {}",
                             StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Serves the reads and the queued writes of all NIO connections of a node from a single selector thread, instead of
+ * using a blocking read thread per connection. Connections get registered after the handshake, which is still done
+ * with blocking IO.
+ * Handlers are called on the selector thread, so they must not block. Received messages are only framed on the
+ * selector thread, decoding and dispatching is done by the connection on another thread.
+ */
+@Slf4j
+class ConnectionMultiplexer {
+    private static final long SELECT_TIMEOUT = 1000;
+
+    private final Selector selector;
+    private final Queue<Connection> pendingRegistrations = new ConcurrentLinkedQueue<>();
+    private volatile boolean isStopped;
+
+    ConnectionMultiplexer(String name) throws IOException {
+        selector = Selector.open();
+        Thread thread = new Thread(this::selectLoop, "ConnectionMultiplexer-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void register(Connection connection) {
+        pendingRegistrations.add(connection);
+        selector.wakeup();
+    }
+
+    void shutdown() {
+        isStopped = true;
+        selector.wakeup();
+    }
+
+    int getNumConnections() {
+        return selector.keys().size();
+    }
+
+    private void selectLoop() {
+        long lastTimeoutCheck = System.currentTimeMillis();
+        try {
+            while (!isStopped) {
+                selector.select(SELECT_TIMEOUT);
+                processPendingRegistrations();
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey selectionKey = iterator.next();
+                    iterator.remove();
+                    Connection connection = (Connection) selectionKey.attachment();
+                    try {
+                        if (selectionKey.isValid() && selectionKey.isWritable()) {
+                            connection.onWritable();
+                        }
+                        if (selectionKey.isValid() && selectionKey.isReadable()) {
+                            connection.onReadable();
+                        }
+                    } catch (CancelledKeyException ignore) {
+                        // Connection got closed concurrently
+                    } catch (Throwable throwable) {
+                        // A failure of one connection (even an Error) must not stop the selector for all others
+                        log.error("Unhandled exception at handling {}. We close that connection.", connection, throwable);
+                        connection.close(CloseReason.EXCEPTION.exception(throwable));
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastTimeoutCheck >= SELECT_TIMEOUT) {
+                    lastTimeoutCheck = now;
+                    selector.keys().forEach(selectionKey -> ((Connection) selectionKey.attachment()).checkReadTimeout(now));
+                }
+            }
+        } catch (Exception e) {
+            if (!isStopped) {
+                log.error("Unhandled exception in selector loop", e);
+            }
+        } finally {
+            selector.keys().forEach(selectionKey -> ((Connection) selectionKey.attachment())
+                    .close(CloseReason.SHUTDOWN));
+            try {
+                selector.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private void processPendingRegistrations() {
+        Connection connection;
+        while ((connection = pendingRegistrations.poll()) != null) {
+            try {
+                connection.onRegistered(selector);
+            } catch (ClosedChannelException e) {
+                connection.close(CloseReason.EXCEPTION.exception(e));
+            }
+        }
+    }
+}
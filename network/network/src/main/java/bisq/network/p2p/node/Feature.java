@@ -0,0 +1,58 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import com.google.common.base.Enums;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Optional protocol features a node supports. Features are exchanged in the NetworkEnvelope of the connection
+ * handshake, so that new protocol variants can be used with peers supporting them while we fall back to the default
+ * protocol for older peers.
+ * They must not be part of the Capability or any other EnvelopePayloadMessage, as old peers would drop the unknown
+ * field and their serialized message would not match the proof of work payload anymore.
+ * We do not use a protobuf enum as unknown enum values of newer peers would fail to resolve.
+ */
+public enum Feature {
+    INVENTORY_BLOOM_FILTER,
+    INVENTORY_PAGING,
+    AUTHORIZATION_PAYLOAD_DIGEST;
+
+    public static List<Feature> getSupportedFeatures() {
+        return new ArrayList<>(Arrays.asList(values()));
+    }
+
+    public static List<String> toProto(List<Feature> features) {
+        return features.stream()
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+
+    public static List<Feature> fromProto(List<String> features) {
+        // Features unknown to us (from newer peers) are ignored
+        return features.stream()
+                .map(e -> Enums.getIfPresent(Feature.class, e).toJavaUtil())
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+}
@@ -25,6 +25,8 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.Socket;
+import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 
 @Slf4j
@@ -38,11 +40,13 @@ public class InboundConnection extends Connection {
     InboundConnection(Socket socket,
                       ServerSocketResult serverSocketResult,
                       Capability peersCapability,
+                      List<Feature> peersFeatures,
                       NetworkLoadService peersNetworkLoadService,
                       ConnectionMetrics connectionMetrics,
                       Handler handler,
-                      BiConsumer<Connection, Exception> errorHandler) {
-        super(socket, peersCapability, peersNetworkLoadService, connectionMetrics, handler, errorHandler);
+                      BiConsumer<Connection, Exception> errorHandler,
+                      Optional<ConnectionMultiplexer> connectionMultiplexer) {
+        super(socket, peersCapability, peersFeatures, peersNetworkLoadService, connectionMetrics, handler, errorHandler, connectionMultiplexer);
         this.serverSocketResult = serverSocketResult;
         log.debug("Create inboundConnection from server: {}", serverSocketResult);
     }
@@ -30,6 +30,7 @@ import bisq.network.p2p.services.peergroup.BanList;
 import bisq.network.common.Address;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.channels.*;
 import java.util.Collection;
@@ -38,6 +39,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class InboundConnectionsManager {
@@ -144,14 +146,20 @@ public class InboundConnectionsManager {
 
             NetworkEnvelopeSocketChannel networkEnvelopeChannel = networkEnvelopeChannelBySocketChannel.get(socketChannel);
             try {
-                List<NetworkEnvelope> networkEnvelopes = networkEnvelopeChannel.receiveNetworkEnvelopes();
+                List<NetworkEnvelope> networkEnvelopes = networkEnvelopeChannel.receiveProtos().stream()
+                        .map(NetworkEnvelope::fromProto)
+                        .collect(Collectors.toList());
                 log.debug("Received {} messages from peer {}.", networkEnvelopes.size(), peerAddress.getFullAddress());
 
+                networkEnvelopes.forEach(NetworkEnvelope::verifyVersion);
                 networkEnvelopes.forEach(networkEnvelope -> node.handleNetworkMessage(
                         networkEnvelope.getEnvelopePayloadMessage(),
                         networkEnvelope.getAuthorizationToken(),
                         inboundConnection
                 ));
+            } catch (EOFException e) {
+                // Peer has closed the connection
+                closeChannel(networkEnvelopeChannel);
             } catch (IOException e) {
                 log.error("Couldn't receive messages from socketChannel", e);
             }
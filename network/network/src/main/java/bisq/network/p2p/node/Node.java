@@ -55,6 +55,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicReference;
@@ -154,6 +155,7 @@ public class Node implements Connection.Handler {
     public final Observable<State> observableState = new Observable<>(State.NEW);
     @Getter
     public final NetworkLoadService networkLoadService;
+    private final Optional<ConnectionMultiplexer> connectionMultiplexer;
 
     public Node(NetworkId networkId,
                 TorIdentity torIdentity,
@@ -173,6 +175,7 @@ public class Node implements Connection.Handler {
         this.transportService = transportService;
         this.authorizationService = authorizationService;
         this.networkLoadService = networkLoadService;
+        connectionMultiplexer = createConnectionMultiplexer(config.getTransportConfig());
 
         retryPolicy = RetryPolicy.<Boolean>builder()
                 .handle(IllegalStateException.class)
@@ -242,6 +245,7 @@ public class Node implements Connection.Handler {
                 banList,
                 socketTimeout,
                 myCapability,
+                Feature.getSupportedFeatures(),
                 authorizationService,
                 torIdentity);
         connectionHandshakes.put(connectionHandshake.getId(), connectionHandshake);
@@ -266,10 +270,12 @@ public class Node implements Connection.Handler {
             InboundConnection connection = new InboundConnection(socket,
                     serverSocketResult,
                     result.getCapability(),
+                    result.getPeersFeatures(),
                     new NetworkLoadService(result.getPeersNetworkLoad()),
                     result.getConnectionMetrics(),
                     this,
-                    this::handleException);
+                    this::handleException,
+                    connectionMultiplexer);
             inboundConnectionsByAddress.put(connection.getPeerAddress(), connection);
             DISPATCHER.submit(() -> listeners.forEach(listener -> listener.onConnection(connection)));
         } catch (Throwable throwable) {
@@ -309,22 +315,46 @@ public class Node implements Connection.Handler {
     }
 
     public Connection send(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+        // Failures are reported as ConnectionClosedException which is a CompletionException and thrown as is by join
+        return sendAsync(envelopePayloadMessage, connection).join();
+    }
+
+    /**
+     * Does not block while the AuthorizationToken gets minted. Messages to the same connection are queued and sent in
+     * the order of the sendAsync calls, messages to different connections are minted and sent in parallel.
+     * The returned future fails with a ConnectionClosedException if the message could not be sent.
+     */
+    public CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
         if (connection.isStopped()) {
-            throw new ConnectionClosedException(connection);
+            return CompletableFuture.failedFuture(new ConnectionClosedException(connection));
         }
+        long ts = System.currentTimeMillis();
+        CompletableFuture<Connection> future;
         try {
-            AuthorizationToken token = authorizationService.createToken(envelopePayloadMessage,
-                    connection.getPeersNetworkLoadService().getCurrentNetworkLoad(),
-                    connection.getPeerAddress().getFullAddress(),
-                    connection.getSentMessageCounter().incrementAndGet());
-            return connection.send(envelopePayloadMessage, token);
+            boolean usePayloadDigest = connection.isPeerSupporting(Feature.AUTHORIZATION_PAYLOAD_DIGEST);
+            future = connection.sendAsync(envelopePayloadMessage,
+                    messageCounter -> authorizationService.createTokenAsync(envelopePayloadMessage,
+                            connection.getPeersNetworkLoadService().getCurrentNetworkLoad(),
+                            connection.getPeerAddress().getFullAddress(),
+                            messageCounter,
+                            usePayloadDigest));
         } catch (Throwable throwable) {
+            future = CompletableFuture.failedFuture(throwable);
+        }
+        return future.handle((result, throwable) -> {
+            if (throwable == null) {
+                connection.getConnectionMetrics().addSendLatency(System.currentTimeMillis() - ts);
+                return result;
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable;
             if (connection.isRunning()) {
-                handleException(connection, throwable);
-                closeConnection(connection, CloseReason.EXCEPTION.exception(throwable));
+                handleException(connection, cause);
+                closeConnection(connection, CloseReason.EXCEPTION.exception(cause));
             }
             throw new ConnectionClosedException(connection);
-        }
+        });
     }
 
 
@@ -385,7 +415,13 @@ public class Node implements Connection.Handler {
             return outboundConnectionsByAddress.get(address);
         }
 
-        ConnectionHandshake connectionHandshake = new ConnectionHandshake(socket, banList, socketTimeout, myCapability, authorizationService, torIdentity);
+        ConnectionHandshake connectionHandshake = new ConnectionHandshake(socket,
+                banList,
+                socketTimeout,
+                myCapability,
+                Feature.getSupportedFeatures(),
+                authorizationService,
+                torIdentity);
         connectionHandshakes.put(connectionHandshake.getId(), connectionHandshake);
         log.debug("Outbound handshake started: Initiated by {} to {}", myCapability.getAddress(), address);
         try {
@@ -417,10 +453,12 @@ public class Node implements Connection.Handler {
             OutboundConnection connection = new OutboundConnection(socket,
                     address,
                     result.getCapability(),
+                    result.getPeersFeatures(),
                     new NetworkLoadService(result.getPeersNetworkLoad()),
                     result.getConnectionMetrics(),
                     this,
-                    this::handleException);
+                    this::handleException,
+                    connectionMultiplexer);
             outboundConnectionsByAddress.put(address, connection);
             DISPATCHER.submit(() -> listeners.forEach(listener -> listener.onConnection(connection)));
             return connection;
@@ -505,6 +543,7 @@ public class Node implements Connection.Handler {
     public void handleConnectionClosed(Connection connection, CloseReason closeReason) {
         Address peerAddress = connection.getPeerAddress();
         log.debug("Node {} got called onConnectionClosed. connection={}, peerAddress={}", this, connection, peerAddress);
+        authorizationService.onConnectionClosed(connection.getId());
         boolean wasRemoved = false;
         if (connection instanceof InboundConnection) {
             wasRemoved = inboundConnectionsByAddress.remove(peerAddress) != null;
@@ -566,6 +605,7 @@ public class Node implements Connection.Handler {
                     }
                     outboundConnectionsByAddress.clear();
                     inboundConnectionsByAddress.clear();
+                    connectionMultiplexer.ifPresent(ConnectionMultiplexer::shutdown);
                     listeners.forEach(listener -> listener.onShutdown(this));
                     listeners.clear();
                     setState(State.TERMINATED);
@@ -611,6 +651,18 @@ public class Node implements Connection.Handler {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
+    private Optional<ConnectionMultiplexer> createConnectionMultiplexer(TransportConfig transportConfig) {
+        if (transportConfig == null || !transportConfig.isNioTransport()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new ConnectionMultiplexer(networkId.getInfo() + "-" + transportType.name()));
+        } catch (IOException e) {
+            log.error("Could not create selector. We use blocking sockets instead.", e);
+            return Optional.empty();
+        }
+    }
+
     private void handleException(Connection connection, Throwable exception) {
         log.debug("Node {} got called handleException. connection={}, exception={}", this, connection, exception.getMessage());
         if (isShutdown()) {
@@ -24,6 +24,8 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.Socket;
+import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 
 @Slf4j
@@ -35,11 +37,13 @@ public class OutboundConnection extends Connection {
     OutboundConnection(Socket socket,
                        Address address,
                        Capability peersCapability,
+                       List<Feature> peersFeatures,
                        NetworkLoadService peersNetworkLoadService,
                        ConnectionMetrics connectionMetrics,
                        Handler handler,
-                       BiConsumer<Connection, Exception> errorHandler) {
-        super(socket, peersCapability, peersNetworkLoadService, connectionMetrics, handler, errorHandler);
+                       BiConsumer<Connection, Exception> errorHandler,
+                       Optional<ConnectionMultiplexer> connectionMultiplexer) {
+        super(socket, peersCapability, peersFeatures, peersNetworkLoadService, connectionMetrics, handler, errorHandler, connectionMultiplexer);
 
         this.address = address;
         log.debug("Create outboundConnection to {}", address);
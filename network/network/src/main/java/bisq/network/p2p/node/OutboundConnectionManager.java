@@ -31,6 +31,7 @@ import bisq.network.common.Address;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
@@ -40,12 +41,14 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class OutboundConnectionManager {
@@ -154,7 +157,7 @@ public class OutboundConnectionManager {
     public void handleReadableChannel(SocketChannel socketChannel) throws IOException {
         if (outboundHandshakeChannels.contains(socketChannel)) {
             NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
-            List<NetworkEnvelope> networkEnvelopeList = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+            List<NetworkEnvelope> networkEnvelopeList = receiveNetworkEnvelopes(networkEnvelopeSocketChannel);
 
             ConnectionHandshakeInitiator handshakeInitiator = handshakeInitiatorByChannel.get(socketChannel);
             ConnectionHandshake.Response handshakeResponse = handshakeInitiator.finish(networkEnvelopeList);
@@ -183,7 +186,7 @@ public class OutboundConnectionManager {
             OutboundConnectionChannel connectionChannel = connectionByChannel.get(socketChannel);
 
             NetworkEnvelopeSocketChannel envelopeSocketChannel = connectionChannel.getNetworkEnvelopeSocketChannel();
-            List<NetworkEnvelope> networkEnvelopes = envelopeSocketChannel.receiveNetworkEnvelopes();
+            List<NetworkEnvelope> networkEnvelopes = receiveNetworkEnvelopes(envelopeSocketChannel);
             log.debug("Received {} messages from peer {}.",
                     networkEnvelopes.size(), connectionChannel.getPeerAddress().getFullAddress());
 
@@ -245,4 +248,21 @@ public class OutboundConnectionManager {
         byteBuffer.flip();
         return byteBuffer;
     }
+
+    private List<NetworkEnvelope> receiveNetworkEnvelopes(NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel)
+            throws IOException {
+        List<bisq.network.protobuf.NetworkEnvelope> protos;
+        try {
+            protos = networkEnvelopeSocketChannel.receiveProtos();
+        } catch (EOFException e) {
+            // Peer has closed the connection
+            networkEnvelopeSocketChannel.getSocketChannel().close();
+            return Collections.emptyList();
+        }
+        List<NetworkEnvelope> networkEnvelopes = protos.stream()
+                .map(NetworkEnvelope::fromProto)
+                .collect(Collectors.toList());
+        networkEnvelopes.forEach(NetworkEnvelope::verifyVersion);
+        return networkEnvelopes;
+    }
 }
@@ -32,9 +32,8 @@ import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Nullable;
 import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
@@ -45,7 +44,7 @@ public class AuthorizationService {
 
     private final ProofOfWorkService proofOfWorkService;
     // Keep track of message counter per connection to avoid reuse of pow
-    private final Map<String, Set<Integer>> receivedMessageCountersByConnectionId = new ConcurrentHashMap<>();
+    private final Map<String, ReplayWindow> replayWindowByConnectionId = new ConcurrentHashMap<>();
 
     public AuthorizationService(ProofOfWorkService proofOfWorkService) {
         this.proofOfWorkService = proofOfWorkService;
@@ -55,51 +54,79 @@ public class AuthorizationService {
                                           NetworkLoad networkLoad,
                                           String peerAddress,
                                           int messageCounter) {
+        return createToken(message, networkLoad, peerAddress, messageCounter, false);
+    }
+
+    /**
+     * @param usePayloadDigest If true the proof of work commits to the hash of the serialized message instead of the
+     *                         serialized message itself. Must only be used if the peer supports
+     *                         Feature.AUTHORIZATION_PAYLOAD_DIGEST.
+     */
+    public AuthorizationToken createToken(EnvelopePayloadMessage message,
+                                          NetworkLoad networkLoad,
+                                          String peerAddress,
+                                          int messageCounter,
+                                          boolean usePayloadDigest) {
+        return createTokenAsync(message, networkLoad, peerAddress, messageCounter, usePayloadDigest).join();
+    }
+
+    /**
+     * Mints the proof of work on the pool of the ProofOfWorkService without blocking the caller.
+     */
+    public CompletableFuture<AuthorizationToken> createTokenAsync(EnvelopePayloadMessage message,
+                                                                  NetworkLoad networkLoad,
+                                                                  String peerAddress,
+                                                                  int messageCounter,
+                                                                  boolean usePayloadDigest) {
         long ts = System.currentTimeMillis();
         double difficulty = calculateDifficulty(message, networkLoad);
         byte[] challenge = getChallenge(peerAddress, messageCounter);
-        byte[] payload = getPayload(message);
-        AuthorizationToken token = proofOfWorkService.mint(payload, challenge, difficulty)
-                .thenApply(proofOfWork -> new AuthorizationToken(proofOfWork, messageCounter))
-                .join();
-        log.debug("Create token for {} took {} ms\n token={}, peersLoad={}, peerAddress={}",
-                message.getClass().getSimpleName(), System.currentTimeMillis() - ts, token, networkLoad, peerAddress);
-        return token;
+        byte[] payload = usePayloadDigest ? DigestUtil.sha256(getPayload(message)) : getPayload(message);
+        return proofOfWorkService.mint(payload, challenge, difficulty)
+                .thenApply(proofOfWork -> {
+                    AuthorizationToken token = new AuthorizationToken(proofOfWork, messageCounter, usePayloadDigest);
+                    log.debug("Create token for {} took {} ms\n token={}, peersLoad={}, peerAddress={}",
+                            message.getClass().getSimpleName(), System.currentTimeMillis() - ts, token, networkLoad, peerAddress);
+                    return token;
+                });
     }
 
     public boolean isAuthorized(EnvelopePayloadMessage message,
                                 AuthorizationToken authorizationToken,
                                 NetworkLoad currentNetworkLoad,
-                                String connectionId,
+                                @Nullable String connectionId,
                                 String myAddress) {
         return isAuthorized(message, authorizationToken, currentNetworkLoad, null, connectionId, myAddress);
     }
 
+    /**
+     * @param connectionId Used for tracking the message counters of the connection to detect reused tokens. Null if
+     *                     the message is not received over a connection (handshake), in which case no state is kept.
+     */
     public boolean isAuthorized(EnvelopePayloadMessage message,
                                 AuthorizationToken authorizationToken,
                                 NetworkLoad currentNetworkLoad,
                                 @Nullable NetworkLoad previousNetworkLoad,
-                                String connectionId,
+                                @Nullable String connectionId,
                                 String myAddress) {
         ProofOfWork proofOfWork = authorizationToken.getProofOfWork();
         int messageCounter = authorizationToken.getMessageCounter();
 
-        // Verify that pow is not reused
-        Set<Integer> receivedMessageCounters;
-        if (receivedMessageCountersByConnectionId.containsKey(connectionId)) {
-            receivedMessageCounters = receivedMessageCountersByConnectionId.get(connectionId);
-            if (receivedMessageCounters.contains(messageCounter)) {
-                log.warn("Invalid receivedMessageCounters. We received the proofOfWork for that message already.");
-                return false;
-            }
-        } else {
-            receivedMessageCounters = new HashSet<>();
-            receivedMessageCountersByConnectionId.put(connectionId, receivedMessageCounters);
+        // Verify that pow is not reused. We only mark the counter as received once the proof of work got verified,
+        // so that invalid tokens cannot move the window.
+        ReplayWindow replayWindow = connectionId == null
+                ? new ReplayWindow()
+                : replayWindowByConnectionId.computeIfAbsent(connectionId, key -> new ReplayWindow());
+        if (!replayWindow.isAcceptable(messageCounter)) {
+            log.warn("Invalid messageCounter. We received the proofOfWork for that message already or the " +
+                    "messageCounter is outside the replay window. messageCounter={}", messageCounter);
+            return false;
         }
-        receivedMessageCounters.add(messageCounter);
 
         // Verify payload
-        byte[] payload = getPayload(message);
+        byte[] payload = authorizationToken.isUsesPayloadDigest() ?
+                authorizationToken.getReceivedPayloadDigest().orElseGet(() -> DigestUtil.sha256(getPayload(message))) :
+                getPayload(message);
         if (!Arrays.equals(payload, proofOfWork.getPayload())) {
             log.warn("Message payload not matching proof of work payload. " +
                             "getPayload(message)={}; proofOfWork.getPayload()={}; " +
@@ -119,7 +146,37 @@ public class AuthorizationService {
         if (isDifficultyInvalid(message, proofOfWork.getDifficulty(), currentNetworkLoad, previousNetworkLoad)) {
             return false;
         }
-        return proofOfWorkService.verify(proofOfWork);
+
+        if (!proofOfWorkService.verify(proofOfWork)) {
+            return false;
+        }
+
+        // A concurrent message with the same counter might have been accepted in the meantime
+        if (!replayWindow.tryAccept(messageCounter)) {
+            log.warn("Invalid messageCounter. We received the proofOfWork for that message already.");
+            return false;
+        }
+        return true;
+    }
+
+    public void onConnectionClosed(String connectionId) {
+        replayWindowByConnectionId.remove(connectionId);
+    }
+
+    public int getNumReplayWindows() {
+        return replayWindowByConnectionId.size();
+    }
+
+    /**
+     * @return Memory used for replay protection per connection in bytes. It is constant as we only keep a fixed
+     * size window over the message counters.
+     */
+    public int getReplayProtectionMemoryPerConnection() {
+        return ReplayWindow.MEMORY_PER_WINDOW;
+    }
+
+    public long getReplayProtectionMemory() {
+        return (long) getNumReplayWindows() * ReplayWindow.MEMORY_PER_WINDOW;
     }
 
     // We check the difficulty used for the proof of work if it matches the current network load or if available the
@@ -18,17 +18,42 @@
 package bisq.network.p2p.node.authorization;
 
 import bisq.common.proto.Proto;
+import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Optional;
 
 @Data
 public final class AuthorizationToken implements Proto {
     private final ProofOfWork proofOfWork;
     private final int messageCounter;
+    // If true the proofOfWork payload is the hash of the serialized message (see Feature.AUTHORIZATION_PAYLOAD_DIGEST)
+    private final boolean usesPayloadDigest;
+    // Only set at the receiver. Hash of the received serialized message, so the receiver does not need to serialize
+    // the message again for verification.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Optional<byte[]> receivedPayloadDigest;
 
     public AuthorizationToken(ProofOfWork proofOfWork, int messageCounter) {
+        this(proofOfWork, messageCounter, false);
+    }
+
+    public AuthorizationToken(ProofOfWork proofOfWork, int messageCounter, boolean usesPayloadDigest) {
+        this(proofOfWork, messageCounter, usesPayloadDigest, Optional.empty());
+    }
+
+    private AuthorizationToken(ProofOfWork proofOfWork,
+                               int messageCounter,
+                               boolean usesPayloadDigest,
+                               Optional<byte[]> receivedPayloadDigest) {
         this.proofOfWork = proofOfWork;
         this.messageCounter = messageCounter;
+        this.usesPayloadDigest = usesPayloadDigest;
+        this.receivedPayloadDigest = receivedPayloadDigest;
     }
 
     @Override
@@ -36,10 +61,28 @@ public final class AuthorizationToken implements Proto {
         return bisq.network.protobuf.AuthorizationToken.newBuilder()
                 .setProofOfWork(proofOfWork.toProto())
                 .setMessageCounter(messageCounter)
+                .setUsesPayloadDigest(usesPayloadDigest)
                 .build();
     }
 
     public static AuthorizationToken fromProto(bisq.network.protobuf.AuthorizationToken proto) {
-        return new AuthorizationToken(ProofOfWork.fromProto(proto.getProofOfWork()), proto.getMessageCounter());
+        return new AuthorizationToken(ProofOfWork.fromProto(proto.getProofOfWork()),
+                proto.getMessageCounter(),
+                proto.getUsesPayloadDigest());
+    }
+
+    /**
+     * Used at the receiver. If the token uses the payload digest we hash the received message proto here (on the read
+     * thread) instead of serializing the resolved message again at verification.
+     */
+    public static AuthorizationToken fromProto(bisq.network.protobuf.AuthorizationToken proto,
+                                               bisq.network.protobuf.EnvelopePayloadMessage networkMessage) {
+        Optional<byte[]> receivedPayloadDigest = proto.getUsesPayloadDigest() ?
+                Optional.of(DigestUtil.sha256(networkMessage.toByteArray())) :
+                Optional.empty();
+        return new AuthorizationToken(ProofOfWork.fromProto(proto.getProofOfWork()),
+                proto.getMessageCounter(),
+                proto.getUsesPayloadDigest(),
+                receivedPayloadDigest);
     }
 }
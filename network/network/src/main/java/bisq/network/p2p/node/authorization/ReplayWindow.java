@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.authorization;
+
+import java.util.Arrays;
+
+/**
+ * Anti-replay window over the message counters of a connection (as used for IPsec, see RFC 4303 and RFC 6479).
+ * Only the highest accepted counter and a fixed size bitmap of the WINDOW_SIZE counters below it are kept, so the
+ * memory per connection is constant independent of the number of received messages.
+ * Counters which are older than the window are rejected as we cannot tell if they have been received already.
+ */
+final class ReplayWindow {
+    static final int WINDOW_SIZE = 1024;
+    private static final int NUM_WORDS = WINDOW_SIZE / Long.SIZE;
+    // Object header, array header and fields, rounded
+    static final int MEMORY_PER_WINDOW = NUM_WORDS * Long.BYTES + 48;
+
+    // Bit for counter c is at position c mod WINDOW_SIZE
+    private final long[] bitmap = new long[NUM_WORDS];
+    private long highestCounter;
+
+    /**
+     * @return True if the counter has not been accepted before and is inside the window. In that case the counter
+     * gets marked as received.
+     */
+    synchronized boolean tryAccept(long counter) {
+        if (counter <= highestCounter - WINDOW_SIZE) {
+            return false;
+        }
+        if (counter > highestCounter) {
+            if (counter - highestCounter >= WINDOW_SIZE) {
+                Arrays.fill(bitmap, 0);
+            } else {
+                // Slide the window: counters between the previous and the new highest counter have not been received
+                for (long c = highestCounter + 1; c < counter; c++) {
+                    clear(c);
+                }
+            }
+            highestCounter = counter;
+            set(counter);
+            return true;
+        }
+        if (isSet(counter)) {
+            return false;
+        }
+        set(counter);
+        return true;
+    }
+
+    /**
+     * @return True if tryAccept would currently accept the counter. Does not mark the counter.
+     */
+    synchronized boolean isAcceptable(long counter) {
+        if (counter > highestCounter) {
+            return true;
+        }
+        return counter > highestCounter - WINDOW_SIZE && !isSet(counter);
+    }
+
+    private boolean isSet(long counter) {
+        int bitIndex = bitIndex(counter);
+        return (bitmap[bitIndex >>> 6] & (1L << bitIndex)) != 0;
+    }
+
+    private void set(long counter) {
+        int bitIndex = bitIndex(counter);
+        bitmap[bitIndex >>> 6] |= 1L << bitIndex;
+    }
+
+    private void clear(long counter) {
+        int bitIndex = bitIndex(counter);
+        bitmap[bitIndex >>> 6] &= ~(1L << bitIndex);
+    }
+
+    private static int bitIndex(long counter) {
+        return (int) Math.floorMod(counter, (long) WINDOW_SIZE);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct byte buffers in power of two size classes.
+ * Channel writes from a heap buffer get copied by the JDK into a temporary direct buffer, and allocating direct buffers
+ * is expensive, so we keep a bounded number of them for reuse.
+ * Requests above the largest size class get a heap buffer which is not retained.
+ */
+public final class ByteBufferPool {
+    private static final int MIN_SIZE_CLASS = 10;  // 1 KB
+    private static final int MAX_SIZE_CLASS = 20;  // 1 MB
+
+    private final int maxBuffersPerSizeClass;
+    private final Queue<ByteBuffer>[] buffersBySizeClass;
+    private final AtomicInteger[] numBuffersBySizeClass;
+
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool(int maxBuffersPerSizeClass) {
+        this.maxBuffersPerSizeClass = maxBuffersPerSizeClass;
+        int numSizeClasses = MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1;
+        buffersBySizeClass = new Queue[numSizeClasses];
+        numBuffersBySizeClass = new AtomicInteger[numSizeClasses];
+        for (int i = 0; i < numSizeClasses; i++) {
+            buffersBySizeClass[i] = new ConcurrentLinkedQueue<>();
+            numBuffersBySizeClass[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * @return A cleared buffer with at least the given capacity
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int sizeClass = getSizeClass(minCapacity);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+        int index = sizeClass - MIN_SIZE_CLASS;
+        ByteBuffer buffer = buffersBySizeClass[index].poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(1 << sizeClass);
+        }
+        numBuffersBySizeClass[index].decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (!buffer.isDirect() || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int sizeClass = Integer.numberOfTrailingZeros(capacity);
+        if (sizeClass < MIN_SIZE_CLASS || sizeClass > MAX_SIZE_CLASS) {
+            return;
+        }
+        int index = sizeClass - MIN_SIZE_CLASS;
+        if (numBuffersBySizeClass[index].incrementAndGet() <= maxBuffersPerSizeClass) {
+            buffersBySizeClass[index].offer(buffer);
+        } else {
+            numBuffersBySizeClass[index].decrementAndGet();
+        }
+    }
+
+    private static int getSizeClass(int capacity) {
+        if (capacity <= 1 << MIN_SIZE_CLASS) {
+            return MIN_SIZE_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+}
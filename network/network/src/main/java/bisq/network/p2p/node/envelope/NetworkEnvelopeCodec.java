@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import bisq.network.protobuf.NetworkEnvelope;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Length delimited encoding of NetworkEnvelope protos, wire compatible with writeDelimitedTo and parseDelimitedFrom.
+ * The proto gets serialized once directly into the caller's buffer. Callers get the framed size returned, so that it
+ * can be used for metrics without serializing again.
+ */
+public final class NetworkEnvelopeCodec {
+    // Upper limit for the size of a received envelope (the historic default size limit of protobuf's CodedInputStream)
+    public static final int MAX_ENVELOPE_SIZE = 64 * 1024 * 1024;
+
+    private NetworkEnvelopeCodec() {
+    }
+
+    public static int getFramedSize(NetworkEnvelope proto) {
+        int serializedSize = proto.getSerializedSize();
+        return CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize;
+    }
+
+    /**
+     * Writes the length prefix and the proto to the start of the target array.
+     *
+     * @return The number of bytes written
+     */
+    public static int encode(NetworkEnvelope proto, byte[] target) throws IOException {
+        int framedSize = getFramedSize(proto);
+        CodedOutputStream outputStream = CodedOutputStream.newInstance(target, 0, framedSize);
+        outputStream.writeUInt32NoTag(proto.getSerializedSize());
+        proto.writeTo(outputStream);
+        outputStream.checkNoSpaceLeft();
+        return framedSize;
+    }
+
+    /**
+     * Writes the length prefix and the proto at the position of the target buffer and advances its position.
+     *
+     * @return The number of bytes written
+     */
+    public static int encode(NetworkEnvelope proto, ByteBuffer target) throws IOException {
+        int framedSize = getFramedSize(proto);
+        CodedOutputStream outputStream = CodedOutputStream.newInstance(target);
+        outputStream.writeUInt32NoTag(proto.getSerializedSize());
+        proto.writeTo(outputStream);
+        // Updates the position of the target buffer
+        outputStream.flush();
+        return framedSize;
+    }
+
+    /**
+     * Parses a proto without length prefix. Bytes fields are copied, so the source array can be reused afterwards.
+     */
+    public static NetworkEnvelope decode(byte[] source, int offset, int length) throws InvalidProtocolBufferException {
+        return NetworkEnvelope.parser().parseFrom(source, offset, length);
+    }
+
+    /**
+     * Parses a proto without length prefix from the next length bytes of the source buffer and advances its position.
+     * Bytes fields are copied, so the source buffer can be reused afterwards.
+     */
+    public static NetworkEnvelope decode(ByteBuffer source, int length) throws InvalidProtocolBufferException {
+        int position = source.position();
+        ByteBuffer slice = source.slice(position, length);
+        source.position(position + length);
+        return NetworkEnvelope.parser().parseFrom(slice);
+    }
+}
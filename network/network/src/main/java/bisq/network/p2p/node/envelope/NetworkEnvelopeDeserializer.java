@@ -26,6 +26,9 @@ import java.util.*;
 
 @Slf4j
 public class NetworkEnvelopeDeserializer {
+    // Buffer size for messages which are not completely in the byte buffer. The buffer grows with the received data,
+    // so we never allocate based on the unverified length prefix alone.
+    private static final int INITIAL_MESSAGE_BUFFER_SIZE = 64 * 1024;
 
     private final ByteBuffer byteBuffer;
     private final ProtoBufMessageLengthParser messageLengthParser;
@@ -34,14 +37,20 @@ public class NetworkEnvelopeDeserializer {
     private int parsedMessageLength = 0;
     private byte[] currentProtobufMessage;
 
-    private final Queue<bisq.network.p2p.message.NetworkEnvelope> parsedNetworkEnvelopes = new LinkedList<>();
+    // Complete messages without length prefix. They are only parsed at getAllProtos, so that the framing can be done
+    // on the selector thread and the parsing on another thread (see getAllFrames).
+    private final Queue<byte[]> frames = new LinkedList<>();
 
     public NetworkEnvelopeDeserializer(ByteBuffer byteBuffer) {
         this.byteBuffer = byteBuffer;
         this.messageLengthParser = new ProtoBufMessageLengthParser(byteBuffer);
     }
 
-    public void readFromByteBuffer() {
+    /**
+     * @throws InvalidProtocolBufferException If the length prefix is not inside the permitted range. The connection
+     *                                        must be closed then, as we cannot find the start of the next message.
+     */
+    public void readFromByteBuffer() throws InvalidProtocolBufferException {
         while (byteBuffer.hasRemaining()) {
             if (!parsingMessage) {
                 parseMessageLength();
@@ -51,7 +60,7 @@ public class NetworkEnvelopeDeserializer {
                     parsePartialMessage();
 
                     if (isMessageComplete()) {
-                        tryToParseProtoBufMessage();
+                        addCompletedFrame();
                     }
 
                 } else {
@@ -61,9 +70,13 @@ public class NetworkEnvelopeDeserializer {
         }
     }
 
-    private void parseMessageLength() {
+    private void parseMessageLength() throws InvalidProtocolBufferException {
         long messageLength = messageLengthParser.parseMessageLength();
         if (isMessageLengthParsed(messageLength)) {
+            if (messageLength <= 0 || messageLength > NetworkEnvelopeCodec.MAX_ENVELOPE_SIZE) {
+                resetState();
+                throw new InvalidProtocolBufferException("Invalid message length: " + messageLength);
+            }
             currentMessageLength = messageLength;
             parsedMessageLength = 0;
             parsingMessage = true;
@@ -89,39 +102,38 @@ public class NetworkEnvelopeDeserializer {
         return parsedMessageLength == currentMessageLength;
     }
 
-    private void tryToParseProtoBufMessage() {
-        try {
-            NetworkEnvelope message = NetworkEnvelope.parseFrom(currentProtobufMessage);
-            bisq.network.p2p.message.NetworkEnvelope
-                    networkEnvelope = bisq.network.p2p.message.NetworkEnvelope.fromProto(message);
-            parsedNetworkEnvelopes.add(networkEnvelope);
-
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Couldn't parse protocol buffer message.", e);
-        } finally {
-            resetState();
-        }
+    private void addCompletedFrame() {
+        // The buffer grows up to the message length at most, so it has exactly the message length once completed
+        frames.add(currentProtobufMessage);
+        resetState();
     }
 
     private void parseNewIncomingMessage() {
-        currentProtobufMessage = new byte[(int) currentMessageLength];
         parsedMessageLength = 0;
 
         if (isFullMessageInByteBuffer()) {
-            byteBuffer.get(currentProtobufMessage, parsedMessageLength, (int) currentMessageLength);
-            tryToParseProtoBufMessage();
+            byte[] frame = new byte[(int) currentMessageLength];
+            byteBuffer.get(frame);
+            frames.add(frame);
+            resetState();
 
         } else {
+            currentProtobufMessage = new byte[(int) Math.min(currentMessageLength, INITIAL_MESSAGE_BUFFER_SIZE)];
             int lengthOfMessageInBuffer = byteBuffer.remaining();
             parsePartialMessageFromByteBuffer(lengthOfMessageInBuffer);
 
             if (isMessageComplete()) {
-                tryToParseProtoBufMessage();
+                addCompletedFrame();
             }
         }
     }
 
     private void parsePartialMessageFromByteBuffer(int length) {
+        int minCapacity = parsedMessageLength + length;
+        if (currentProtobufMessage.length < minCapacity) {
+            int newCapacity = (int) Math.min(currentMessageLength, Math.max(minCapacity, 2L * currentProtobufMessage.length));
+            currentProtobufMessage = Arrays.copyOf(currentProtobufMessage, newCapacity);
+        }
         byteBuffer.get(currentProtobufMessage, parsedMessageLength, length);
         parsedMessageLength += length;
     }
@@ -133,17 +145,31 @@ public class NetworkEnvelopeDeserializer {
         currentProtobufMessage = null;
     }
 
-    public List<bisq.network.p2p.message.NetworkEnvelope> getAllNetworkEnvelopes() {
-        if (parsedNetworkEnvelopes.isEmpty()) {
+    /**
+     * @return The completely received messages without length prefix. Parse them with
+     * {@link NetworkEnvelopeCodec#decode(byte[], int, int)}.
+     */
+    public List<byte[]> getAllFrames() {
+        if (frames.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<bisq.network.p2p.message.NetworkEnvelope> networkEnvelopes = new ArrayList<>(parsedNetworkEnvelopes.size());
-        networkEnvelopes.addAll(parsedNetworkEnvelopes);
-
-        parsedNetworkEnvelopes.clear();
+        List<byte[]> result = new ArrayList<>(frames);
+        frames.clear();
+        return result;
+    }
 
-        return networkEnvelopes;
+    public List<NetworkEnvelope> getAllProtos() {
+        List<byte[]> allFrames = getAllFrames();
+        List<NetworkEnvelope> protos = new ArrayList<>(allFrames.size());
+        for (byte[] frame : allFrames) {
+            try {
+                protos.add(NetworkEnvelopeCodec.decode(frame, 0, frame.length));
+            } catch (InvalidProtocolBufferException e) {
+                log.error("Couldn't parse protocol buffer message.", e);
+            }
+        }
+        return protos;
     }
 
     private boolean isMessageLengthParsed(long messageLength) {
@@ -18,9 +18,13 @@
 package bisq.network.p2p.node.envelope;
 
 import bisq.network.p2p.message.NetworkEnvelope;
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -28,11 +32,21 @@ import java.net.Socket;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+/**
+ * Sends and receives length delimited NetworkEnvelope protos.
+ * Send and receive each reuse a buffer for messages up to MAX_RETAINED_BUFFER_SIZE. Callers must not call send or
+ * receiveNextEnvelope concurrently with itself.
+ */
 @Slf4j
 public class NetworkEnvelopeSocket implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
     private final Socket socket;
     private final InputStream inputStream;
     private final OutputStream outputStream;
+    private byte[] sendBuffer = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] receiveBuffer = new byte[INITIAL_BUFFER_SIZE];
 
     public NetworkEnvelopeSocket(Socket socket) throws IOException {
         this.socket = socket;
@@ -40,19 +54,54 @@ public class NetworkEnvelopeSocket implements Closeable {
         this.outputStream = socket.getOutputStream();
     }
 
-    public void send(NetworkEnvelope networkEnvelope) throws IOException {
+    /**
+     * @return The number of bytes sent
+     */
+    public int send(NetworkEnvelope networkEnvelope) throws IOException {
         bisq.network.protobuf.NetworkEnvelope proto = checkNotNull(networkEnvelope.toProto(),
                 "networkEnvelope.toProto() must not be null");
-        proto.writeDelimitedTo(outputStream);
+        int framedSize = NetworkEnvelopeCodec.getFramedSize(proto);
+        byte[] buffer = getBuffer(sendBuffer, framedSize);
+        if (buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+            sendBuffer = buffer;
+        }
+        NetworkEnvelopeCodec.encode(proto, buffer);
+        // We write the whole message at once instead of the small chunks used by writeDelimitedTo
+        outputStream.write(buffer, 0, framedSize);
         outputStream.flush();
+        return framedSize;
     }
 
+    /**
+     * @return The next proto or null if the end of the stream has been reached
+     */
     public bisq.network.protobuf.NetworkEnvelope receiveNextEnvelope() throws IOException {
-        return bisq.network.protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream);
+        int firstByte = inputStream.read();
+        if (firstByte == -1) {
+            return null;
+        }
+        int size = CodedInputStream.readRawVarint32(firstByte, inputStream);
+        if (size < 0 || size > NetworkEnvelopeCodec.MAX_ENVELOPE_SIZE) {
+            throw new InvalidProtocolBufferException("Invalid message size: " + size);
+        }
+        if (size > MAX_RETAINED_BUFFER_SIZE) {
+            // We don't allocate a buffer based on the unverified size, but let the parser read from the stream.
+            return bisq.network.protobuf.NetworkEnvelope.parseFrom(ByteStreams.limit(inputStream, size));
+        }
+
+        receiveBuffer = getBuffer(receiveBuffer, size);
+        if (inputStream.readNBytes(receiveBuffer, 0, size) < size) {
+            throw new EOFException("End of stream reached before message was completely read");
+        }
+        return NetworkEnvelopeCodec.decode(receiveBuffer, 0, size);
     }
 
     @Override
     public void close() throws IOException {
         socket.close();
     }
+
+    private static byte[] getBuffer(byte[] buffer, int minSize) {
+        return buffer.length >= minSize ? buffer : new byte[minSize];
+    }
 }
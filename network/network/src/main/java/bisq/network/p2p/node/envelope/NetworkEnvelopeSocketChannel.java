@@ -22,10 +22,16 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -33,6 +39,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 public class NetworkEnvelopeSocketChannel implements Closeable {
     public static final int BYTE_BUFFER_SIZE = 1024;
+    // If more bytes are queued for sending, enqueue blocks the caller until the peer has read enough data.
+    public static final int MAX_PENDING_SEND_BYTES = 4 * 1024 * 1024;
+    private static final ByteBufferPool SEND_BUFFER_POOL = new ByteBufferPool(16);
 
     private static final int END_OF_STREAM = -1;
 
@@ -41,6 +50,11 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
     private final ByteBuffer byteBuffer;
     private final NetworkEnvelopeDeserializer networkEnvelopeDeserializer;
 
+    // Guarded by sendQueue
+    private final Deque<ByteBuffer> sendQueue = new ArrayDeque<>();
+    private long numPendingSendBytes;
+    private SelectionKey selectionKey;
+
 
     public NetworkEnvelopeSocketChannel(SocketChannel socketChannel) {
         this(socketChannel, BYTE_BUFFER_SIZE);
@@ -48,46 +62,199 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
 
     public NetworkEnvelopeSocketChannel(SocketChannel socketChannel, int byteBufferSize) {
         this.socketChannel = socketChannel;
-        this.byteBuffer = ByteBuffer.allocate(byteBufferSize);
+        this.byteBuffer = ByteBuffer.allocateDirect(byteBufferSize);
         this.networkEnvelopeDeserializer = new NetworkEnvelopeDeserializer(byteBuffer);
     }
 
-    public void send(NetworkEnvelope networkEnvelope) throws IOException {
+    /**
+     * @return The number of bytes sent
+     */
+    public int send(NetworkEnvelope networkEnvelope) throws IOException {
         bisq.network.protobuf.NetworkEnvelope proto = checkNotNull(networkEnvelope.toProto(),
                 "networkEnvelope.toProto() must not be null");
-        byte[] protoInBytes = proto.toByteArray();
-        int messageLength = protoInBytes.length;
+        int framedSize = NetworkEnvelopeCodec.getFramedSize(proto);
+        ByteBuffer sendBuffer = SEND_BUFFER_POOL.acquire(framedSize);
+        try {
+            NetworkEnvelopeCodec.encode(proto, sendBuffer);
+            sendBuffer.flip();
+            // A non-blocking channel might accept only a part of the buffer
+            while (sendBuffer.hasRemaining()) {
+                socketChannel.write(sendBuffer);
+            }
+        } finally {
+            SEND_BUFFER_POOL.release(sendBuffer);
+        }
+        return framedSize;
+    }
 
-        ByteBuffer byteBuffer1 = ByteBuffer.allocate(messageLength + 10);
-        ProtoBufMessageLengthWriter.writeToBuffer(messageLength, byteBuffer1);
+    /**
+     * Queues the envelope for sending on a non-blocking channel and writes as much as the channel accepts.
+     * If more than MAX_PENDING_SEND_BYTES are queued already, the caller gets blocked until the queue got drained by
+     * flushSendQueue or until the timeout is reached.
+     *
+     * @return The number of bytes queued
+     */
+    public int enqueue(NetworkEnvelope networkEnvelope, long timeoutMs) throws IOException {
+        bisq.network.protobuf.NetworkEnvelope proto = checkNotNull(networkEnvelope.toProto(),
+                "networkEnvelope.toProto() must not be null");
+        int framedSize = NetworkEnvelopeCodec.getFramedSize(proto);
+        ByteBuffer sendBuffer = SEND_BUFFER_POOL.acquire(framedSize);
+        NetworkEnvelopeCodec.encode(proto, sendBuffer);
+        sendBuffer.flip();
 
-        byteBuffer1.put(protoInBytes);
-        byteBuffer1.flip();
+        synchronized (sendQueue) {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            // We always accept a message if the queue is empty, even if it is larger than MAX_PENDING_SEND_BYTES.
+            while (numPendingSendBytes > 0 && numPendingSendBytes + framedSize > MAX_PENDING_SEND_BYTES) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (!socketChannel.isOpen()) {
+                    SEND_BUFFER_POOL.release(sendBuffer);
+                    throw new ClosedChannelException();
+                }
+                if (remaining <= 0) {
+                    SEND_BUFFER_POOL.release(sendBuffer);
+                    throw new IOException("Send queue did not get drained within " + timeoutMs + " ms. " +
+                            "numPendingSendBytes=" + numPendingSendBytes);
+                }
+                try {
+                    sendQueue.wait(remaining);
+                } catch (InterruptedException e) {
+                    SEND_BUFFER_POOL.release(sendBuffer);
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for send queue");
+                }
+            }
+            sendQueue.add(sendBuffer);
+            numPendingSendBytes += framedSize;
+            flushSendQueue();
+        }
+        return framedSize;
+    }
 
-        socketChannel.write(byteBuffer1);
+    /**
+     * Writes queued data until the queue is empty or the channel does not accept more data.
+     * Registers interest in OP_WRITE at the selection key as long data are pending.
+     *
+     * @return True if all queued data have been written
+     */
+    public boolean flushSendQueue() throws IOException {
+        synchronized (sendQueue) {
+            long previousNumPendingSendBytes = numPendingSendBytes;
+            try {
+                ByteBuffer sendBuffer;
+                while ((sendBuffer = sendQueue.peek()) != null) {
+                    numPendingSendBytes -= socketChannel.write(sendBuffer);
+                    if (sendBuffer.hasRemaining()) {
+                        break;
+                    }
+                    sendQueue.poll();
+                    SEND_BUFFER_POOL.release(sendBuffer);
+                }
+            } finally {
+                if (numPendingSendBytes < previousNumPendingSendBytes) {
+                    sendQueue.notifyAll();
+                }
+                updateWriteInterest();
+            }
+            return sendQueue.isEmpty();
+        }
     }
 
-    public List<NetworkEnvelope> receiveNetworkEnvelopes() throws IOException {
-        byteBuffer.clear();
+    public void setSelectionKey(SelectionKey selectionKey) {
+        synchronized (sendQueue) {
+            this.selectionKey = selectionKey;
+            updateWriteInterest();
+        }
+    }
 
-        int numberOfReadBytes = socketChannel.read(byteBuffer);
-        if (numberOfReadBytes == END_OF_STREAM) {
-            socketChannel.close();
-            return Collections.emptyList();
+    public long getNumPendingSendBytes() {
+        synchronized (sendQueue) {
+            return numPendingSendBytes;
         }
+    }
 
-        byteBuffer.flip();
-        networkEnvelopeDeserializer.readFromByteBuffer();
+    /**
+     * Reads the available data from a non-blocking channel.
+     *
+     * @return The completely received protos
+     * @throws EOFException If the peer has closed the connection
+     */
+    public List<bisq.network.protobuf.NetworkEnvelope> receiveProtos() throws IOException {
+        read();
+        return networkEnvelopeDeserializer.getAllProtos();
+    }
 
-        List<NetworkEnvelope>
-                allNetworkEnvelopes = networkEnvelopeDeserializer.getAllNetworkEnvelopes();
-        allNetworkEnvelopes.forEach(NetworkEnvelope::verifyVersion);
+    /**
+     * Reads the available data from a non-blocking channel without parsing the received messages, so that it can be
+     * called on the selector thread.
+     *
+     * @return The completely received messages without length prefix
+     * @throws EOFException If the peer has closed the connection
+     */
+    public List<byte[]> receiveFrames() throws IOException {
+        read();
+        return networkEnvelopeDeserializer.getAllFrames();
+    }
 
-        return allNetworkEnvelopes;
+    /**
+     * Registers or removes the interest in OP_READ at the selection key. Can be called from any thread.
+     */
+    public void setReadInterest(boolean isReadInterested) {
+        synchronized (sendQueue) {
+            if (selectionKey == null || !selectionKey.isValid()) {
+                return;
+            }
+            try {
+                if (isReadInterested) {
+                    selectionKey.interestOpsOr(SelectionKey.OP_READ);
+                    selectionKey.selector().wakeup();
+                } else {
+                    selectionKey.interestOpsAnd(~SelectionKey.OP_READ);
+                }
+            } catch (CancelledKeyException ignore) {
+                // Channel got closed concurrently
+            }
+        }
     }
 
     @Override
     public void close() throws IOException {
-        socketChannel.close();
+        try {
+            socketChannel.close();
+        } finally {
+            synchronized (sendQueue) {
+                sendQueue.forEach(SEND_BUFFER_POOL::release);
+                sendQueue.clear();
+                numPendingSendBytes = 0;
+                sendQueue.notifyAll();
+            }
+        }
+    }
+
+    private void read() throws IOException {
+        byteBuffer.clear();
+        if (socketChannel.read(byteBuffer) == END_OF_STREAM) {
+            throw new EOFException("End of stream reached");
+        }
+
+        byteBuffer.flip();
+        networkEnvelopeDeserializer.readFromByteBuffer();
+    }
+
+    private void updateWriteInterest() {
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+        try {
+            if (sendQueue.isEmpty()) {
+                selectionKey.interestOpsAnd(~SelectionKey.OP_WRITE);
+            } else if ((selectionKey.interestOps() & SelectionKey.OP_WRITE) == 0) {
+                selectionKey.interestOpsOr(SelectionKey.OP_WRITE);
+                // Changes of the interest set take effect at the next select call
+                selectionKey.selector().wakeup();
+            }
+        } catch (CancelledKeyException ignore) {
+            // Channel got closed concurrently
+        }
     }
 }
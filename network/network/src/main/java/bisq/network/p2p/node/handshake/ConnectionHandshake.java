@@ -24,8 +24,10 @@ import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.Capability;
 import bisq.network.p2p.node.ConnectionException;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeCodec;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoad;
@@ -38,12 +40,16 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * At initial connection we exchange capabilities and require a valid AuthorizationToken (e.g. PoW).
  * The Client sends a Request and awaits for the servers Response.
  * The server awaits the Request and sends the Response.
+ * Features are sent in the NetworkEnvelope, not in the Request or Response (see Feature). The server only sends its
+ * features if the client has sent features.
  */
 @Slf4j
 public final class ConnectionHandshake {
@@ -51,6 +57,7 @@ public final class ConnectionHandshake {
     private final String id = StringUtils.createUid();
     private final BanList banList;
     private final Capability capability;
+    private final List<Feature> myFeatures;
     private final AuthorizationService authorizationService;
     private final TorIdentity myTorIdentity;
 
@@ -136,11 +143,16 @@ public final class ConnectionHandshake {
     @EqualsAndHashCode
     public static final class Result {
         private final Capability capability;
+        private final List<Feature> peersFeatures;
         private final NetworkLoad peersNetworkLoad;
         private final ConnectionMetrics connectionMetrics;
 
-        Result(Capability capability, NetworkLoad peersNetworkLoad, ConnectionMetrics connectionMetrics) {
+        Result(Capability capability,
+               List<Feature> peersFeatures,
+               NetworkLoad peersNetworkLoad,
+               ConnectionMetrics connectionMetrics) {
             this.capability = capability;
+            this.peersFeatures = peersFeatures;
             this.peersNetworkLoad = peersNetworkLoad;
             this.connectionMetrics = connectionMetrics;
         }
@@ -150,10 +162,12 @@ public final class ConnectionHandshake {
                                BanList banList,
                                int socketTimeout,
                                Capability capability,
+                               List<Feature> myFeatures,
                                AuthorizationService authorizationService,
                                TorIdentity myTorIdentity) {
         this.banList = banList;
         this.capability = capability;
+        this.myFeatures = myFeatures;
         this.authorizationService = authorizationService;
         this.myTorIdentity = myTorIdentity;
 
@@ -186,10 +200,10 @@ public final class ConnectionHandshake {
                     NetworkLoad.INITIAL_LOAD,
                     peerAddress.getFullAddress(),
                     0);
-            NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(token, request);
+            NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(token, request, myFeatures);
             long ts = System.currentTimeMillis();
-            networkEnvelopeSocket.send(requestNetworkEnvelope);
-            connectionMetrics.onSent(requestNetworkEnvelope, System.currentTimeMillis() - ts);
+            int numSentBytes = networkEnvelopeSocket.send(requestNetworkEnvelope);
+            connectionMetrics.onSent(numSentBytes, System.currentTimeMillis() - ts);
 
             bisq.network.protobuf.NetworkEnvelope responseProto = networkEnvelopeSocket.receiveNextEnvelope();
             if (responseProto == null) {
@@ -213,20 +227,23 @@ public final class ConnectionHandshake {
             boolean isAuthorized = authorizationService.isAuthorized(response,
                     responseNetworkEnvelope.getAuthorizationToken(),
                     myNetworkLoad,
-                    StringUtils.createUid(),
+                    null,
                     myAddress.getFullAddress());
 
             if (!isAuthorized) {
                 throw new ConnectionException("Request authorization failed. request=" + request);
             }
 
-            connectionMetrics.onReceived(responseNetworkEnvelope, deserializeTime);
+            connectionMetrics.onReceived(NetworkEnvelopeCodec.getFramedSize(responseProto), deserializeTime);
 
             long rrt = System.currentTimeMillis() - ts;
             connectionMetrics.addRtt(rrt);
 
             log.debug("Servers capability {}, load={}", response.getCapability(), response.getNetworkLoad());
-            return new Result(response.getCapability(), response.getNetworkLoad(), connectionMetrics);
+            return new Result(response.getCapability(),
+                    responseNetworkEnvelope.getFeatures(),
+                    response.getNetworkLoad(),
+                    connectionMetrics);
         } catch (Exception e) {
             try {
                 networkEnvelopeSocket.close();
@@ -270,7 +287,7 @@ public final class ConnectionHandshake {
             boolean isAuthorized = authorizationService.isAuthorized(request,
                     requestNetworkEnvelope.getAuthorizationToken(),
                     NetworkLoad.INITIAL_LOAD,
-                    StringUtils.createUid(),
+                    null,
                     myAddress);
             if (isAuthorized) {
                 log.info("Peer {} proofed ownership of its onion address successfully.", peerAddress.getFullAddress());
@@ -291,16 +308,19 @@ public final class ConnectionHandshake {
             }
 
             log.debug("Clients capability {}, load={}", request.getCapability(), request.getNetworkLoad());
-            connectionMetrics.onReceived(requestNetworkEnvelope, deserializeTime);
+            connectionMetrics.onReceived(NetworkEnvelopeCodec.getFramedSize(requestProto), deserializeTime);
 
             Response response = new Response(capability, myNetworkLoad);
             AuthorizationToken token = authorizationService.createToken(response, request.getNetworkLoad(), peerAddress.getFullAddress(), 0);
-            NetworkEnvelope responseNetworkEnvelope = new NetworkEnvelope(token, response);
+            // Old peers do not send features. We do not send ours to them, even though they would ignore them.
+            List<Feature> peersFeatures = requestNetworkEnvelope.getFeatures();
+            List<Feature> featuresToSend = peersFeatures.isEmpty() ? new ArrayList<>() : myFeatures;
+            NetworkEnvelope responseNetworkEnvelope = new NetworkEnvelope(token, response, featuresToSend);
             long startSendTs = System.currentTimeMillis();
-            networkEnvelopeSocket.send(responseNetworkEnvelope);
-            connectionMetrics.onSent(responseNetworkEnvelope, System.currentTimeMillis() - startSendTs);
+            int numSentBytes = networkEnvelopeSocket.send(responseNetworkEnvelope);
+            connectionMetrics.onSent(numSentBytes, System.currentTimeMillis() - startSendTs);
             connectionMetrics.addRtt(System.currentTimeMillis() - ts);
-            return new Result(request.getCapability(), request.getNetworkLoad(), connectionMetrics);
+            return new Result(request.getCapability(), peersFeatures, request.getNetworkLoad(), connectionMetrics);
         } catch (Exception e) {
             try {
                 networkEnvelopeSocket.close();
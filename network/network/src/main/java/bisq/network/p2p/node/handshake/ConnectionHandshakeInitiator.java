@@ -17,7 +17,6 @@
 
 package bisq.network.p2p.node.handshake;
 
-import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.Capability;
 import bisq.network.p2p.node.ConnectionException;
@@ -88,7 +87,7 @@ public class ConnectionHandshakeInitiator {
         boolean isAuthorized = authorizationService.isAuthorized(response,
                 responseNetworkEnvelope.getAuthorizationToken(),
                 myNetworkLoad,
-                StringUtils.createUid(),
+                null,
                 myAddress);
 
         if (isAuthorized) {
@@ -18,7 +18,6 @@
 package bisq.network.p2p.node.handshake;
 
 import bisq.common.data.Pair;
-import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.Capability;
 import bisq.network.p2p.node.ConnectionException;
@@ -55,10 +54,10 @@ public class ConnectionHandshakeResponder {
     }
 
     public Pair<ConnectionHandshake.Request, NetworkEnvelope> verifyAndBuildRespond() throws IOException {
-        List<NetworkEnvelope> requestEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-        validateRequestEnvelopes(requestEnvelopes);
+        List<bisq.network.protobuf.NetworkEnvelope> requestProtos = networkEnvelopeSocketChannel.receiveProtos();
+        validateRequestEnvelopes(requestProtos);
 
-        NetworkEnvelope requestProto = requestEnvelopes.get(0);
+        bisq.network.protobuf.NetworkEnvelope requestProto = requestProtos.get(0);
         NetworkEnvelope requestNetworkEnvelope = parseAndValidateRequest(requestProto);
 
         ConnectionHandshake.Request request = (ConnectionHandshake.Request) requestNetworkEnvelope.getEnvelopePayloadMessage();
@@ -71,7 +70,7 @@ public class ConnectionHandshakeResponder {
         return new Pair<>(request, responseEnvelope);
     }
 
-    private void validateRequestEnvelopes(List<NetworkEnvelope> requestEnvelopes) {
+    private void validateRequestEnvelopes(List<bisq.network.protobuf.NetworkEnvelope> requestEnvelopes) {
         if (requestEnvelopes.isEmpty()) {
             throw new ConnectionException("Received empty requests.");
         }
@@ -90,7 +89,7 @@ public class ConnectionHandshakeResponder {
                 request,
                 requestNetworkEnvelope.getAuthorizationToken(),
                 NetworkLoad.INITIAL_LOAD,
-                StringUtils.createUid(),
+                null,
                 myAddress
         );
 
@@ -104,7 +103,8 @@ public class ConnectionHandshakeResponder {
         log.debug("Clients capability {}, load={}", request.getCapability(), request.getNetworkLoad());
     }
 
-    private NetworkEnvelope parseAndValidateRequest(NetworkEnvelope requestNetworkEnvelope) {
+    private NetworkEnvelope parseAndValidateRequest(bisq.network.protobuf.NetworkEnvelope requestProto) {
+        NetworkEnvelope requestNetworkEnvelope = NetworkEnvelope.fromProto(requestProto);
         requestNetworkEnvelope.verifyVersion();
 
         validateNetworkMessage(requestNetworkEnvelope);
@@ -17,12 +17,13 @@
 
 package bisq.network.p2p.node.network_load;
 
-import bisq.network.p2p.message.NetworkEnvelope;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.TreeMap;
@@ -33,6 +34,8 @@ import java.util.concurrent.atomic.AtomicLong;
 @Getter
 @ToString
 public class ConnectionMetrics {
+    private static final int MAX_SEND_LATENCY_SAMPLES = 1000;
+
     private final long created;
     private final AtomicLong lastUpdate = new AtomicLong();
     private final TreeMap<Integer, AtomicLong> numMessagesSentPerMinute = new TreeMap<>();
@@ -44,6 +47,14 @@ public class ConnectionMetrics {
 
     private final AtomicLong numMessagesReceived = new AtomicLong();
     private final List<Long> rrtList = new CopyOnWriteArrayList<>();
+    // Ring buffer of the latest send latencies (from the send request until the message got written, including
+    // the time for minting the AuthorizationToken and waiting in the send queue of the connection)
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final long[] sendLatencies = new long[MAX_SEND_LATENCY_SAMPLES];
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private int numSendLatencies;
 
     public ConnectionMetrics() {
         created = new Date().getTime();
@@ -57,13 +68,13 @@ public class ConnectionMetrics {
         return System.currentTimeMillis() - created;
     }
 
-    public void onSent(NetworkEnvelope networkEnvelope, long spentTime) {
+    public void onSent(int numBytes, long spentTime) {
         long now = System.currentTimeMillis();
         lastUpdate.set(now);
 
         int ageInMinutes = getAgeInMinutes(now);
         sentBytesPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        sentBytesPerMinute.get(ageInMinutes).getAndAdd(networkEnvelope.toProto().getSerializedSize());
+        sentBytesPerMinute.get(ageInMinutes).getAndAdd(numBytes);
 
         numMessagesSentPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
         numMessagesSentPerMinute.get(ageInMinutes).incrementAndGet();
@@ -72,13 +83,13 @@ public class ConnectionMetrics {
         spentSendMessageTimePerMinute.get(ageInMinutes).getAndAdd(spentTime);
     }
 
-    public void onReceived(NetworkEnvelope networkEnvelope, long deserializeTime) {
+    public void onReceived(int numBytes, long deserializeTime) {
         long now = System.currentTimeMillis();
         lastUpdate.set(now);
 
         int ageInMinutes = getAgeInMinutes(now);
         receivedBytesPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        receivedBytesPerMinute.get(ageInMinutes).getAndAdd(networkEnvelope.toProto().getSerializedSize());
+        receivedBytesPerMinute.get(ageInMinutes).getAndAdd(numBytes);
 
         numMessagesReceivedPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
         numMessagesReceivedPerMinute.get(ageInMinutes).incrementAndGet();
@@ -95,6 +106,43 @@ public class ConnectionMetrics {
         return rrtList.stream().mapToLong(e -> e).average().orElse(0d);
     }
 
+    public void addSendLatency(long value) {
+        synchronized (sendLatencies) {
+            sendLatencies[numSendLatencies % MAX_SEND_LATENCY_SAMPLES] = value;
+            numSendLatencies++;
+        }
+    }
+
+    /**
+     * @param percentile Value between 0 and 100
+     * @return The send latency in ms at the given percentile of the latest MAX_SEND_LATENCY_SAMPLES sends or 0 if
+     * nothing was sent yet.
+     */
+    public long getSendLatencyPercentile(double percentile) {
+        long[] samples;
+        synchronized (sendLatencies) {
+            samples = Arrays.copyOf(sendLatencies, Math.min(numSendLatencies, MAX_SEND_LATENCY_SAMPLES));
+        }
+        if (samples.length == 0) {
+            return 0;
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+        return samples[Math.max(0, Math.min(samples.length - 1, index))];
+    }
+
+    public long getMedianSendLatency() {
+        return getSendLatencyPercentile(50);
+    }
+
+    public long getSendLatencyP90() {
+        return getSendLatencyPercentile(90);
+    }
+
+    public long getSendLatencyP99() {
+        return getSendLatencyPercentile(99);
+    }
+
     public long getSentBytes() {
         return sumOf(sentBytesPerMinute);
     }
@@ -12,8 +12,11 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -32,22 +35,34 @@ public class ClearNetTransportService implements TransportService {
             return new Config(dataDir,
                     config.hasPath("defaultNodePort") ? config.getInt("defaultNodePort") : -1,
                     (int) TimeUnit.SECONDS.toMillis(config.getInt("defaultNodeSocketTimeout")),
-                    (int) TimeUnit.SECONDS.toMillis(config.getInt("userNodeSocketTimeout")));
+                    (int) TimeUnit.SECONDS.toMillis(config.getInt("userNodeSocketTimeout")),
+                    config.hasPath("nioTransport") && config.getBoolean("nioTransport"));
         }
 
         private final int defaultNodePort;
         private final int defaultNodeSocketTimeout;
         private final int userNodeSocketTimeout;
         private final Path dataDir;
+        private final boolean nioTransport;
 
         public Config(Path dataDir, int defaultNodePort, int defaultNodeSocketTimeout, int userNodeSocketTimeout) {
+            this(dataDir, defaultNodePort, defaultNodeSocketTimeout, userNodeSocketTimeout, false);
+        }
+
+        public Config(Path dataDir,
+                      int defaultNodePort,
+                      int defaultNodeSocketTimeout,
+                      int userNodeSocketTimeout,
+                      boolean nioTransport) {
             this.dataDir = dataDir;
             this.defaultNodePort = defaultNodePort;
             this.defaultNodeSocketTimeout = defaultNodeSocketTimeout;
             this.userNodeSocketTimeout = userNodeSocketTimeout;
+            this.nioTransport = nioTransport;
         }
     }
 
+    private final boolean nioTransport;
     private int numSocketsCreated = 0;
     @Getter
     private final BootstrapInfo bootstrapInfo = new BootstrapInfo();
@@ -55,6 +70,7 @@ public class ClearNetTransportService implements TransportService {
     private Scheduler startBootstrapProgressUpdater;
 
     public ClearNetTransportService(TransportConfig config) {
+        nioTransport = config.isNioTransport();
     }
 
     @Override
@@ -92,7 +108,10 @@ public class ClearNetTransportService implements TransportService {
         bootstrapInfo.getBootstrapDetails().set("Start creating server");
 
         try {
-            ServerSocket serverSocket = new ServerSocket(port);
+            // Sockets created from channels can be switched to non-blocking mode after the handshake
+            ServerSocket serverSocket = nioTransport ?
+                    ServerSocketChannel.open().bind(new InetSocketAddress(port)).socket() :
+                    new ServerSocket(port);
             Address address = Address.localHost(port);
             log.debug("ServerSocket created at port {}", port);
 
@@ -110,7 +129,9 @@ public class ClearNetTransportService implements TransportService {
     @Override
     public Socket getSocket(Address address) throws IOException {
         log.debug("Create new Socket to {}", address);
-        Socket socket = new Socket(address.getHost(), address.getPort());
+        Socket socket = nioTransport ?
+                SocketChannel.open(new InetSocketAddress(address.getHost(), address.getPort())).socket() :
+                new Socket(address.getHost(), address.getPort());
         numSocketsCreated++;
 
         bootstrapInfo.getBootstrapState().set(BootstrapState.CONNECTED_TO_PEERS);
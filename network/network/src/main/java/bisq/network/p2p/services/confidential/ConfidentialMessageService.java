@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.services.confidential;
 
+import bisq.common.encoding.Hex;
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.ExceptionUtil;
 import bisq.network.common.Address;
@@ -37,15 +38,16 @@ import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxMessage;
 import bisq.security.*;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static bisq.network.NetworkService.DISPATCHER;
 import static java.util.concurrent.CompletableFuture.*;
@@ -58,6 +60,15 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     private final Optional<MessageDeliveryStatusService> messageDeliveryStatusService;
     private final Set<MessageListener> listeners = new CopyOnWriteArraySet<>();
     private final Set<ConfidentialMessageListener> confidentialMessageListeners = new CopyOnWriteArraySet<>();
+    // We use a set as the same mailbox data might get queued by processMailboxBacklog and onMailboxDataAdded
+    private final Set<MailboxData> pendingMailboxData = new LinkedHashSet<>();
+    private long pendingMailboxDataSince;
+    @Getter
+    private final AtomicLong numProcessedMailboxMessages = new AtomicLong();
+    @Getter
+    private final AtomicLong maxMailboxBatchLatencyInMs = new AtomicLong();
+    @Getter
+    private volatile long lastMailboxBatchLatencyInMs;
 
     public ConfidentialMessageService(NodesById nodesById,
                                       KeyPairService keyPairService,
@@ -112,22 +123,14 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     @Override
     public void onMailboxDataAdded(MailboxData mailboxData) {
         ConfidentialMessage confidentialMessage = mailboxData.getConfidentialMessage();
-        processConfidentialMessage(confidentialMessage)
-                .whenComplete((result, throwable) -> {
-                    if (throwable == null) {
-                        if (result) {
-                            dataService.ifPresent(service -> {
-                                // If we are successful the msg must be for us, so we have the key
-                                KeyPair myKeyPair = keyPairService.findKeyPair(confidentialMessage.getReceiverKeyId()).orElseThrow();
-                                service.removeMailboxData(mailboxData, myKeyPair);
-                            });
-                        } else {
-                            log.debug("We are not the receiver of that mailbox message");
-                        }
-                    } else {
-                        throwable.printStackTrace();
-                    }
-                });
+        if (keyPairService.findKeyPair(confidentialMessage.getReceiverKeyId()).isEmpty()) {
+            log.debug("We are not the receiver of that mailbox message");
+            return;
+        }
+
+        // At startup, we receive the mailbox messages from the inventory in a burst. We collect them and process
+        // them as a batch after the already queued tasks on the dispatcher have been executed.
+        enqueueMailboxData(List.of(mailboxData));
     }
 
 
@@ -195,6 +198,29 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
         }
     }
 
+    /**
+     * Processes the mailbox messages addressed to our keys which are already in the mailbox stores (e.g. received
+     * while the application was not yet fully initialized). Uses the receiver key id index, so the costs do not depend
+     * on the number of all mailbox messages in the network. Should be called after the listeners have been added.
+     */
+    public void processMailboxBacklog() {
+        dataService.ifPresent(service -> {
+            List<MailboxData> backlog = service.getMailboxData(keyPairService.getKeyIds());
+            log.info("We have {} mailbox messages addressed to us in the mailbox stores", backlog.size());
+            if (!backlog.isEmpty()) {
+                enqueueMailboxData(backlog);
+            }
+        });
+    }
+
+    /**
+     * @return Number of mailbox messages addressed to us in the mailbox stores. Processed messages get removed from
+     * the stores.
+     */
+    public int getMailboxBacklogSize() {
+        return dataService.map(service -> service.getNumMailboxData(keyPairService.getKeyIds())).orElse(0);
+    }
+
     public void addMessageListener(MessageListener messageListener) {
         listeners.add(messageListener);
     }
@@ -257,25 +283,127 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     private CompletableFuture<Boolean> processConfidentialMessage(ConfidentialMessage confidentialMessage) {
         return keyPairService.findKeyPair(confidentialMessage.getReceiverKeyId())
                 .map(receiversKeyPair -> supplyAsync(() -> {
-                    try {
-                        log.info("Found a matching key for processing confidentialMessage");
-                        ConfidentialData confidentialData = confidentialMessage.getConfidentialData();
-                        byte[] decryptedBytes = HybridEncryption.decryptAndVerify(confidentialData, receiversKeyPair);
-                        bisq.network.protobuf.EnvelopePayloadMessage decryptedProto = bisq.network.protobuf.EnvelopePayloadMessage.parseFrom(decryptedBytes);
-                        EnvelopePayloadMessage decryptedEnvelopePayloadMessage = EnvelopePayloadMessage.fromProto(decryptedProto);
-                        PublicKey senderPublicKey = KeyGeneration.generatePublic(confidentialData.getSenderPublicKey());
-                        log.info("Decrypted confidentialMessage");
-                        runAsync(() -> {
-                            listeners.forEach(l -> l.onMessage(decryptedEnvelopePayloadMessage));
-                            confidentialMessageListeners.forEach(l -> l.onMessage(decryptedEnvelopePayloadMessage, senderPublicKey));
-                        }, DISPATCHER);
-                        return true;
-                    } catch (Exception e) {
-                        log.error("Error at decryption using receiversKeyId={}", confidentialMessage.getReceiverKeyId());
-                        log.error(ExceptionUtil.print(e));
-                        throw new RuntimeException(e);
-                    }
+                    DecryptedMessage decryptedMessage = decrypt(confidentialMessage, receiversKeyPair);
+                    runAsync(() -> notifyListeners(decryptedMessage), DISPATCHER);
+                    return true;
                 }, ExecutorFactory.WORKER_POOL))
                 .orElse(CompletableFuture.completedFuture(false)); // We don't have a key for that receiverKeyId
     }
+
+    private void enqueueMailboxData(List<MailboxData> mailboxDataList) {
+        synchronized (pendingMailboxData) {
+            boolean wasEmpty = pendingMailboxData.isEmpty();
+            pendingMailboxData.addAll(mailboxDataList);
+            if (wasEmpty && !pendingMailboxData.isEmpty()) {
+                pendingMailboxDataSince = System.currentTimeMillis();
+                DISPATCHER.execute(this::processPendingMailboxData);
+            }
+        }
+    }
+
+    private void processPendingMailboxData() {
+        List<MailboxData> batch;
+        long since;
+        synchronized (pendingMailboxData) {
+            batch = new ArrayList<>(pendingMailboxData);
+            pendingMailboxData.clear();
+            since = pendingMailboxDataSince;
+        }
+        processMailboxData(batch).whenComplete((nil, throwable) -> {
+            long latency = System.currentTimeMillis() - since;
+            numProcessedMailboxMessages.addAndGet(batch.size());
+            lastMailboxBatchLatencyInMs = latency;
+            maxMailboxBatchLatencyInMs.accumulateAndGet(latency, Math::max);
+            log.info("Processed {} mailbox messages. Latency since first message was queued: {} ms", batch.size(), latency);
+        });
+    }
+
+    /**
+     * Decrypts the mailbox messages grouped by receiver key and sender, so that the shared secret of each group is
+     * derived only once and the groups are processed in parallel on the worker pool. Listeners get notified on the
+     * dispatcher thread in the order of the given list.
+     */
+    private CompletableFuture<Void> processMailboxData(List<MailboxData> batch) {
+        Map<String, List<Integer>> indicesByGroup = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            ConfidentialMessage confidentialMessage = batch.get(i).getConfidentialMessage();
+            String groupKey = confidentialMessage.getReceiverKeyId() + "." +
+                    Hex.encode(confidentialMessage.getConfidentialData().getSenderPublicKey());
+            indicesByGroup.computeIfAbsent(groupKey, key -> new ArrayList<>()).add(i);
+        }
+        log.info("Processing {} mailbox messages from {} senders", batch.size(), indicesByGroup.size());
+
+        DecryptedMessage[] decryptedMessages = new DecryptedMessage[batch.size()];
+        CompletableFuture<?>[] futures = indicesByGroup.values().stream()
+                .map(indices -> runAsync(() -> indices.forEach(index -> {
+                    ConfidentialMessage confidentialMessage = batch.get(index).getConfidentialMessage();
+                    keyPairService.findKeyPair(confidentialMessage.getReceiverKeyId()).ifPresent(receiversKeyPair -> {
+                        try {
+                            decryptedMessages[index] = decrypt(confidentialMessage, receiversKeyPair);
+                        } catch (Exception ignore) {
+                            // Error is logged at decrypt. We continue with the other messages of the group.
+                        }
+                    });
+                }), ExecutorFactory.WORKER_POOL))
+                .toArray(CompletableFuture[]::new);
+
+        // allOf establishes the happens-before relation for the writes to the array
+        return allOf(futures).thenRunAsync(() -> {
+            for (int i = 0; i < batch.size(); i++) {
+                DecryptedMessage decryptedMessage = decryptedMessages[i];
+                if (decryptedMessage == null) {
+                    continue;
+                }
+                // A failing listener or removal must not prevent the remaining messages of the batch from being processed
+                try {
+                    notifyListeners(decryptedMessage);
+                } catch (Exception e) {
+                    log.error("Error at notifying listeners about mailbox message {}", decryptedMessage.envelopePayloadMessage, e);
+                }
+                MailboxData mailboxData = batch.get(i);
+                try {
+                    dataService.ifPresent(service -> {
+                        // If we are successful the msg must be for us, so we have the key
+                        KeyPair myKeyPair = keyPairService.findKeyPair(mailboxData.getConfidentialMessage().getReceiverKeyId()).orElseThrow();
+                        service.removeMailboxData(mailboxData, myKeyPair);
+                    });
+                } catch (Exception e) {
+                    log.error("Error at removing mailbox data {}", mailboxData, e);
+                }
+            }
+        }, DISPATCHER);
+    }
+
+    private DecryptedMessage decrypt(ConfidentialMessage confidentialMessage, KeyPair receiversKeyPair) {
+        try {
+            log.info("Found a matching key for processing confidentialMessage");
+            ConfidentialData confidentialData = confidentialMessage.getConfidentialData();
+            byte[] decryptedBytes = HybridEncryption.decryptAndVerify(confidentialData, receiversKeyPair);
+            bisq.network.protobuf.EnvelopePayloadMessage decryptedProto = bisq.network.protobuf.EnvelopePayloadMessage.parseFrom(decryptedBytes);
+            EnvelopePayloadMessage decryptedEnvelopePayloadMessage = EnvelopePayloadMessage.fromProto(decryptedProto);
+            PublicKey senderPublicKey = HybridEncryption.getSenderPublicKey(confidentialData, receiversKeyPair);
+            log.info("Decrypted confidentialMessage");
+            return new DecryptedMessage(decryptedEnvelopePayloadMessage, senderPublicKey);
+        } catch (Exception e) {
+            log.error("Error at decryption using receiversKeyId={}", confidentialMessage.getReceiverKeyId());
+            log.error(ExceptionUtil.print(e));
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void notifyListeners(DecryptedMessage decryptedMessage) {
+        EnvelopePayloadMessage envelopePayloadMessage = decryptedMessage.envelopePayloadMessage;
+        listeners.forEach(l -> l.onMessage(envelopePayloadMessage));
+        confidentialMessageListeners.forEach(l -> l.onMessage(envelopePayloadMessage, decryptedMessage.senderPublicKey));
+    }
+
+    private static final class DecryptedMessage {
+        private final EnvelopePayloadMessage envelopePayloadMessage;
+        private final PublicKey senderPublicKey;
+
+        private DecryptedMessage(EnvelopePayloadMessage envelopePayloadMessage, PublicKey senderPublicKey) {
+            this.envelopePayloadMessage = envelopePayloadMessage;
+            this.senderPublicKey = senderPublicKey;
+        }
+    }
 }
@@ -27,6 +27,7 @@ import bisq.network.p2p.services.data.broadcast.BroadcastResult;
 import bisq.network.p2p.services.data.broadcast.Broadcaster;
 import bisq.network.p2p.services.data.filter.DataFilter;
 import bisq.network.p2p.services.data.inventory.Inventory;
+import bisq.network.p2p.services.data.inventory.InventoryRequest;
 import bisq.network.p2p.services.data.inventory.InventoryService;
 import bisq.network.p2p.services.peergroup.PeerGroupManager;
 import bisq.network.p2p.services.peergroup.PeerGroupService;
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -62,7 +64,7 @@ public class DataNetworkService implements PeerGroupManager.Listener, Node.Liste
 
     public DataNetworkService(Node node,
                               PeerGroupManager peerGroupManager,
-                              Function<DataFilter, Inventory> inventoryProvider) {
+                              Function<InventoryRequest, Inventory> inventoryProvider) {
         this.node = node;
         peerGroupService = peerGroupManager.getPeerGroupService();
         this.peerGroupManager = peerGroupManager;
@@ -122,8 +124,8 @@ public class DataNetworkService implements PeerGroupManager.Listener, Node.Liste
         return broadcaster.reBroadcast(broadcastMessage);
     }
 
-    List<CompletableFuture<Inventory>> requestInventory(DataFilter dataFilter) {
-        return inventoryService.request(dataFilter);
+    List<CompletableFuture<Void>> requestInventory(DataFilter dataFilter, Consumer<Inventory> inventoryPageHandler) {
+        return inventoryService.request(dataFilter, inventoryPageHandler);
     }
 
     void addListener(DataNetworkService.Listener listener) {
@@ -58,7 +58,15 @@ public interface DataRequest extends BroadcastMessage {
         throw new UnresolvableProtobufMessageException(proto);
     }
 
-    boolean isExpired();
+    default boolean isExpired() {
+        return System.currentTimeMillis() > getExpirationDate();
+    }
+
+    /**
+     * @return The time after which the request is expired, or Long.MAX_VALUE if it never expires. Allows checking
+     * the expiry of a stored request without accessing it (see DataStore).
+     */
+    long getExpirationDate();
 
     long getCreated();
 
@@ -44,6 +44,8 @@ import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -180,6 +182,15 @@ public class DataService implements DataNetworkService.Listener {
     }
 
 
+    public List<MailboxData> getMailboxData(Collection<String> receiverKeyIds) {
+        return storageService.getMailboxData(receiverKeyIds);
+    }
+
+    public int getNumMailboxData(Collection<String> receiverKeyIds) {
+        return storageService.getNumMailboxData(receiverKeyIds);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Add data
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -325,17 +336,15 @@ public class DataService implements DataNetworkService.Listener {
     }
 
     public void requestInventory(DataFilter dataFilter, DataNetworkService dataNetworkService) {
-        dataNetworkService.requestInventory(dataFilter).forEach(future -> {
-            future.whenComplete(((inventory, throwable) -> {
+        // Inventory pages are applied as they arrive
+        dataNetworkService.requestInventory(dataFilter, inventory ->
                 inventory.getEntries().forEach(dataRequest -> {
                     if (dataRequest instanceof AddDataRequest) {
                         processAddDataRequest((AddDataRequest) dataRequest, false);
                     } else if (dataRequest instanceof RemoveDataRequest) {
                         processRemoveDataRequest((RemoveDataRequest) dataRequest, false);
                     }
-                });
-            }));
-        });
+                }));
     }
 
 
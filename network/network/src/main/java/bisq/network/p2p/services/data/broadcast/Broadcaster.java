@@ -89,22 +89,25 @@ public class Broadcaster {
                 broadcastMessage.getClass().getSimpleName(), numBroadcasts, numConnections, distributionFactor);
         List<Connection> allConnections = peerGroupService.getAllConnections().collect(Collectors.toList());
         Collections.shuffle(allConnections);
+        // The proof of work for the peers is minted in parallel, so we do not wait for one send before starting the next
         NetworkService.NETWORK_IO_POOL.submit(() -> {
             allConnections.stream()
                     .limit(numBroadcasts)
                     .forEach(connection -> {
                         log.debug("Node {} broadcast to {}", node, connection.getPeerAddress());
-                        try {
-                            node.send(broadcastMessage, connection);
-                            numSuccess.incrementAndGet();
-                        } catch (Throwable throwable) {
-                            numFaults.incrementAndGet();
-                        }
-                        if (numSuccess.get() + numFaults.get() == numBroadcasts) {
-                            future.complete(new BroadcastResult(numSuccess.get(),
-                                    numFaults.get(),
-                                    System.currentTimeMillis() - ts));
-                        }
+                        node.sendAsync(broadcastMessage, connection)
+                                .whenComplete((result, throwable) -> {
+                                    if (throwable == null) {
+                                        numSuccess.incrementAndGet();
+                                    } else {
+                                        numFaults.incrementAndGet();
+                                    }
+                                    if (numSuccess.get() + numFaults.get() == numBroadcasts) {
+                                        future.complete(new BroadcastResult(numSuccess.get(),
+                                                numFaults.get(),
+                                                System.currentTimeMillis() - ts));
+                                    }
+                                });
                     });
         });
         return future;
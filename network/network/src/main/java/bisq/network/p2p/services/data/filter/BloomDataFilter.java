@@ -0,0 +1,134 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.filter;
+
+import bisq.common.proto.Proto;
+import com.google.protobuf.ByteString;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Random;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compact probabilistic alternative to the DataFilter used for inventory requests with peers supporting
+ * Feature.INVENTORY_BLOOM_FILTER. It uses about 2 bytes per entry instead of 20 bytes hash plus sequence number.
+ * <p>
+ * A false positive causes the responder to assume we have an entry which we are missing. As we use a random tweak
+ * per request, a missing entry will be delivered by other peers or at the next inventory request.
+ * <p>
+ * The entry hashes are already uniformly distributed, so we derive the bit indices by double hashing of the first
+ * 16 bytes of the hash mixed with the sequence number and the tweak.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class BloomDataFilter implements Proto {
+    public static final double FALSE_POSITIVE_RATE = 0.001;
+    public static final int MAX_NUM_BYTES = 4 * 1024 * 1024;
+    public static final int MAX_NUM_HASH_FUNCTIONS = 16;
+
+    @ToString.Exclude
+    private final byte[] bits;
+    private final int numHashFunctions;
+    private final long tweak;
+
+    public static BloomDataFilter from(Collection<FilterEntry> filterEntries) {
+        int numEntries = Math.max(1, filterEntries.size());
+        double ln2 = Math.log(2);
+        long numBits = (long) Math.ceil(-numEntries * Math.log(FALSE_POSITIVE_RATE) / (ln2 * ln2));
+        int numBytes = (int) Math.min(MAX_NUM_BYTES, Math.max(8, (numBits + 7) / 8));
+        int numHashFunctions = (int) Math.round((double) numBytes * 8 / numEntries * ln2);
+        numHashFunctions = Math.max(1, Math.min(MAX_NUM_HASH_FUNCTIONS, numHashFunctions));
+
+        BloomDataFilter bloomDataFilter = new BloomDataFilter(new byte[numBytes], numHashFunctions, new Random().nextLong());
+        filterEntries.forEach(bloomDataFilter::add);
+        return bloomDataFilter;
+    }
+
+    private BloomDataFilter(byte[] bits, int numHashFunctions, long tweak) {
+        this.bits = bits;
+        this.numHashFunctions = numHashFunctions;
+        this.tweak = tweak;
+
+        checkArgument(bits.length > 0 && bits.length <= MAX_NUM_BYTES,
+                "Invalid size of bits. bits.length=" + bits.length);
+        checkArgument(numHashFunctions > 0 && numHashFunctions <= MAX_NUM_HASH_FUNCTIONS,
+                "Invalid numHashFunctions. numHashFunctions=" + numHashFunctions);
+    }
+
+    public bisq.network.protobuf.BloomDataFilter toProto() {
+        return bisq.network.protobuf.BloomDataFilter.newBuilder()
+                .setBits(ByteString.copyFrom(bits))
+                .setNumHashFunctions(numHashFunctions)
+                .setTweak(tweak)
+                .build();
+    }
+
+    public static BloomDataFilter fromProto(bisq.network.protobuf.BloomDataFilter proto) {
+        return new BloomDataFilter(proto.getBits().toByteArray(), proto.getNumHashFunctions(), proto.getTweak());
+    }
+
+    public boolean mightContain(FilterEntry filterEntry) {
+        long numBits = (long) bits.length * 8;
+        long h1 = getHash1(filterEntry);
+        long h2 = getHash2(filterEntry);
+        for (int i = 0; i < numHashFunctions; i++) {
+            int index = (int) Math.floorMod(h1 + i * h2, numBits);
+            if ((bits[index >>> 3] & (1 << (index & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(FilterEntry filterEntry) {
+        long numBits = (long) bits.length * 8;
+        long h1 = getHash1(filterEntry);
+        long h2 = getHash2(filterEntry);
+        for (int i = 0; i < numHashFunctions; i++) {
+            int index = (int) Math.floorMod(h1 + i * h2, numBits);
+            bits[index >>> 3] |= (byte) (1 << (index & 7));
+        }
+    }
+
+    private long getHash1(FilterEntry filterEntry) {
+        long value = ByteBuffer.wrap(filterEntry.getHash()).getLong(0);
+        return mix(value ^ tweak ^ ((long) filterEntry.getSequenceNumber() << 32));
+    }
+
+    private long getHash2(FilterEntry filterEntry) {
+        long value = ByteBuffer.wrap(filterEntry.getHash()).getLong(8);
+        // Must be odd to not get stuck at a subset of the bits
+        return mix(value ^ Long.rotateLeft(tweak, 31) ^ filterEntry.getSequenceNumber()) | 1;
+    }
+
+    // Finalization step of MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
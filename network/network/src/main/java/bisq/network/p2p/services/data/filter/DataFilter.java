@@ -23,6 +23,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -47,6 +48,29 @@ public final class DataFilter implements Proto {
                 .build();
     }
 
+    /**
+     * Binary search over the sorted filterEntries. As the list is sorted by hash we only need to check the
+     * sequence number of the entries with the same hash (usually just one).
+     */
+    public boolean contains(FilterEntry filterEntry) {
+        int index = Collections.binarySearch(filterEntries, filterEntry);
+        if (index < 0) {
+            return false;
+        }
+        byte[] hash = filterEntry.getHash();
+        for (int i = index; i >= 0 && Arrays.equals(hash, filterEntries.get(i).getHash()); i--) {
+            if (filterEntries.get(i).getSequenceNumber() == filterEntry.getSequenceNumber()) {
+                return true;
+            }
+        }
+        for (int i = index + 1; i < filterEntries.size() && Arrays.equals(hash, filterEntries.get(i).getHash()); i++) {
+            if (filterEntries.get(i).getSequenceNumber() == filterEntry.getSequenceNumber()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static DataFilter fromProto(bisq.network.protobuf.DataFilter proto) {
         return new DataFilter(proto.getFilterEntriesList().stream()
                 .map(FilterEntry::fromProto)
@@ -20,6 +20,7 @@ package bisq.network.p2p.services.data.inventory;
 import bisq.common.data.ByteArray;
 import bisq.common.proto.Proto;
 import bisq.network.p2p.services.data.DataRequest;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -27,8 +28,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Getter
@@ -38,10 +41,23 @@ import java.util.stream.Collectors;
 public final class Inventory implements Proto {
     private final List<? extends DataRequest> entries;
     private final int peersNumEntries;
+    // Only set at the sender if the serialized size of the entries is known (e.g. by the DataStore). Keyed by the
+    // identity of the entry.
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Map<DataRequest, Integer> serializedSizeByEntry;
 
     public Inventory(Collection<? extends DataRequest> entries, int peersNumEntries) {
+        this(entries, peersNumEntries, Collections.emptyMap());
+    }
+
+    public Inventory(Collection<? extends DataRequest> entries,
+                     int peersNumEntries,
+                     Map<DataRequest, Integer> serializedSizeByEntry) {
         this.entries = new ArrayList<>(entries);
         this.peersNumEntries = peersNumEntries;
+        this.serializedSizeByEntry = serializedSizeByEntry;
 
         // We need to sort deterministically as the data is used in the proof of work check
         // todo find cheaper solution or cache serialized result to avoid that its done repeatedly 
@@ -55,6 +71,14 @@ public final class Inventory implements Proto {
                 .build();
     }
 
+    /**
+     * @return The size of the serialized DataRequest proto of the entry
+     */
+    public int getSerializedSize(DataRequest entry) {
+        Integer serializedSize = serializedSizeByEntry.get(entry);
+        return serializedSize != null ? serializedSize : entry.toProto().getDataRequest().getSerializedSize();
+    }
+
     public static Inventory fromProto(bisq.network.protobuf.Inventory proto) {
         List<bisq.network.protobuf.DataRequest> entriesList = proto.getEntriesList();
         List<DataRequest> entries = entriesList.stream()
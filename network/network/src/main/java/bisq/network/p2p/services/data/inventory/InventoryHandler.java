@@ -22,7 +22,9 @@ import bisq.network.NetworkService;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.CloseReason;
 import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.Node;
+import bisq.network.p2p.services.data.filter.BloomDataFilter;
 import bisq.network.p2p.services.data.filter.DataFilter;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
@@ -34,6 +36,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.concurrent.CompletableFuture.supplyAsync;
@@ -43,23 +46,25 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 class InventoryHandler implements Connection.Listener {
     private final Node node;
     private final Connection connection;
-    private final CompletableFuture<Inventory> future = new CompletableFuture<>();
+    private final Consumer<Inventory> inventoryPageHandler;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
     private final int nonce;
     private long ts;
 
-    InventoryHandler(Node node, Connection connection) {
+    InventoryHandler(Node node, Connection connection, Consumer<Inventory> inventoryPageHandler) {
         this.node = node;
         this.connection = connection;
+        this.inventoryPageHandler = inventoryPageHandler;
 
         nonce = new Random().nextInt();
         connection.addListener(this);
     }
 
-    CompletableFuture<Inventory> request(DataFilter dataFilter) {
+    CompletableFuture<Void> request(DataFilter dataFilter) {
         // log.debug("Node {} send GetInventoryRequest to {} with dataFilter {} and nonce {}. Connection={}",
         //        node, connection.getPeerAddress(), dataFilter, nonce, connection.getId());
         ts = System.currentTimeMillis();
-        supplyAsync(() -> node.send(new InventoryRequest(dataFilter, nonce), connection), NetworkService.NETWORK_IO_POOL)
+        supplyAsync(() -> node.send(createInventoryRequest(dataFilter), connection), NetworkService.NETWORK_IO_POOL)
                 .whenComplete((c, throwable) -> {
                     if (throwable != null) {
                         future.completeExceptionally(throwable);
@@ -69,6 +74,15 @@ class InventoryHandler implements Connection.Listener {
         return future;
     }
 
+    private InventoryRequest createInventoryRequest(DataFilter dataFilter) {
+        // Old peers do not support the bloom filter, so we fall back to the DataFilter
+        if (connection.isPeerSupporting(Feature.INVENTORY_BLOOM_FILTER)) {
+            return new InventoryRequest(BloomDataFilter.from(dataFilter.getFilterEntries()), nonce);
+        } else {
+            return new InventoryRequest(dataFilter, nonce);
+        }
+    }
+
     @Override
     public void onNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage) {
         if (envelopePayloadMessage instanceof InventoryResponse) {
@@ -112,12 +126,15 @@ class InventoryHandler implements Connection.Listener {
                     report = "No items received";
                 }
                 log.info("\n##########################################################################################\n" +
-                        "Inventory from: " + connection.getPeerAddress() + "\n" +
+                        "Inventory from: " + connection.getPeerAddress() + (response.isHasMorePages() ? " (more pages follow)" : "") + "\n" +
                         report +
                         "\n##########################################################################################");
-                removeListeners();
-                connection.getConnectionMetrics().addRtt(System.currentTimeMillis() - ts);
-                future.complete(response.getInventory());
+                inventoryPageHandler.accept(response.getInventory());
+                if (!response.isHasMorePages()) {
+                    removeListeners();
+                    connection.getConnectionMetrics().addRtt(System.currentTimeMillis() - ts);
+                    future.complete(null);
+                }
             } else {
                 log.warn("Node {} received Pong from {} with invalid nonce {}. Request nonce was {}. Connection={}",
                         node, connection.getPeerAddress(), response.getRequestNonce(), nonce, connection.getId());
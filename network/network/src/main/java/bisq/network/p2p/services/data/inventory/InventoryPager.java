@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory;
+
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
+import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits an inventory into pages with a max. serialized size (see Inventory.getSerializedSize), so that a large inventory is not sent as one huge
+ * message. The entries are ordered by priority: authorized data first, then authenticated data, then append-only
+ * data and mailbox data last. Thus, if the connection gets closed before all pages have been received, the most
+ * important data has already been applied.
+ * <p>
+ * The pages are applied by the requester as they arrive. As the next inventory request uses a filter containing
+ * the already received entries, the filter acts as resume cursor and a new request only delivers the missing data.
+ */
+class InventoryPager {
+    static List<Inventory> getPages(Inventory inventory, int maxPageSize) {
+        List<DataRequest> entries = new ArrayList<>(inventory.getEntries());
+        entries.sort(Comparator.comparingInt(InventoryPager::getPriority));
+
+        List<Inventory> pages = new ArrayList<>();
+        List<DataRequest> page = new ArrayList<>();
+        int pageSize = 0;
+        for (DataRequest entry : entries) {
+            int entrySize = inventory.getSerializedSize(entry);
+            if (!page.isEmpty() && pageSize + entrySize > maxPageSize) {
+                pages.add(new Inventory(page, inventory.getPeersNumEntries()));
+                page = new ArrayList<>();
+                pageSize = 0;
+            }
+            page.add(entry);
+            pageSize += entrySize;
+        }
+        if (!page.isEmpty() || pages.isEmpty()) {
+            pages.add(new Inventory(page, inventory.getPeersNumEntries()));
+        }
+        return pages;
+    }
+
+    private static int getPriority(DataRequest dataRequest) {
+        if (dataRequest instanceof MailboxRequest) {
+            return 3;
+        } else if (dataRequest instanceof AddAppendOnlyDataRequest) {
+            return 2;
+        } else if (dataRequest instanceof AddAuthenticatedDataRequest &&
+                ((AddAuthenticatedDataRequest) dataRequest).getAuthenticatedSequentialData().getAuthenticatedData() instanceof AuthorizedData) {
+            return 0;
+        } else {
+            return 1;
+        }
+    }
+}
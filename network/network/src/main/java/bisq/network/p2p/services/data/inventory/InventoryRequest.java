@@ -18,34 +18,52 @@
 package bisq.network.p2p.services.data.inventory;
 
 import bisq.network.p2p.services.data.broadcast.BroadcastMessage;
+import bisq.network.p2p.services.data.filter.BloomDataFilter;
 import bisq.network.p2p.services.data.filter.DataFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.util.ArrayList;
+import java.util.Optional;
+
 @Getter
 @ToString
 @EqualsAndHashCode
 public final class InventoryRequest implements BroadcastMessage {
     private final DataFilter dataFilter;
     private final int nonce;
+    // Only used with peers supporting Feature.INVENTORY_BLOOM_FILTER. In that case the dataFilter is empty.
+    private final Optional<BloomDataFilter> bloomDataFilter;
 
     public InventoryRequest(DataFilter dataFilter, int nonce) {
+        this(dataFilter, nonce, Optional.empty());
+    }
+
+    public InventoryRequest(BloomDataFilter bloomDataFilter, int nonce) {
+        this(new DataFilter(new ArrayList<>()), nonce, Optional.of(bloomDataFilter));
+    }
+
+    private InventoryRequest(DataFilter dataFilter, int nonce, Optional<BloomDataFilter> bloomDataFilter) {
         this.dataFilter = dataFilter;
         this.nonce = nonce;
+        this.bloomDataFilter = bloomDataFilter;
     }
 
     @Override
     public bisq.network.protobuf.EnvelopePayloadMessage toProto() {
-        return getNetworkMessageBuilder().setInventoryRequest(
-                        bisq.network.protobuf.InventoryRequest.newBuilder()
-                                .setDataFilter(dataFilter.toProto())
-                                .setNonce(nonce))
-                .build();
+        bisq.network.protobuf.InventoryRequest.Builder builder = bisq.network.protobuf.InventoryRequest.newBuilder()
+                .setDataFilter(dataFilter.toProto())
+                .setNonce(nonce);
+        bloomDataFilter.ifPresent(e -> builder.setBloomDataFilter(e.toProto()));
+        return getNetworkMessageBuilder().setInventoryRequest(builder).build();
     }
 
     public static InventoryRequest fromProto(bisq.network.protobuf.InventoryRequest proto) {
-        return new InventoryRequest(DataFilter.fromProto(proto.getDataFilter()), proto.getNonce());
+        Optional<BloomDataFilter> bloomDataFilter = proto.hasBloomDataFilter() ?
+                Optional.of(BloomDataFilter.fromProto(proto.getBloomDataFilter())) :
+                Optional.empty();
+        return new InventoryRequest(DataFilter.fromProto(proto.getDataFilter()), proto.getNonce(), bloomDataFilter);
     }
 
     @Override
@@ -28,10 +28,18 @@ import lombok.ToString;
 public final class InventoryResponse implements BroadcastMessage {
     private final Inventory inventory;
     private final int requestNonce;
+    // Only used with peers supporting Feature.INVENTORY_PAGING. Old peers always send a single response with
+    // hasMorePages=false.
+    private final boolean hasMorePages;
 
     public InventoryResponse(Inventory inventory, int requestNonce) {
+        this(inventory, requestNonce, false);
+    }
+
+    public InventoryResponse(Inventory inventory, int requestNonce, boolean hasMorePages) {
         this.inventory = inventory;
         this.requestNonce = requestNonce;
+        this.hasMorePages = hasMorePages;
     }
 
     @Override
@@ -39,12 +47,15 @@ public final class InventoryResponse implements BroadcastMessage {
         return getNetworkMessageBuilder().setInventoryResponse(
                         bisq.network.protobuf.InventoryResponse.newBuilder()
                                 .setInventory(inventory.toProto())
-                                .setRequestNonce(requestNonce))
+                                .setRequestNonce(requestNonce)
+                                .setHasMorePages(hasMorePages))
                 .build();
     }
 
     public static InventoryResponse fromProto(bisq.network.protobuf.InventoryResponse proto) {
-        return new InventoryResponse(Inventory.fromProto(proto.getInventory()), proto.getRequestNonce());
+        return new InventoryResponse(Inventory.fromProto(proto.getInventory()),
+                proto.getRequestNonce(),
+                proto.getHasMorePages());
     }
 
 
@@ -17,11 +17,13 @@
 
 package bisq.network.p2p.services.data.inventory;
 
+import bisq.common.util.ByteUnit;
 import bisq.network.NetworkService;
 import bisq.network.identity.NetworkId;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.CloseReason;
 import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Feature;
 import bisq.network.p2p.node.Node;
 import bisq.network.p2p.services.data.filter.DataFilter;
 import bisq.network.p2p.services.peergroup.PeerGroupService;
@@ -32,19 +34,21 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class InventoryService implements Node.Listener {
     private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+    private static final int MAX_PAGE_SIZE = (int) ByteUnit.MB.toBytes(1);
 
     private final Node node;
     private final PeerGroupService peerGroupService;
     private final Map<String, InventoryHandler> requestHandlerMap = new ConcurrentHashMap<>();
-    private final Function<DataFilter, Inventory> inventoryProvider;
+    private final Function<InventoryRequest, Inventory> inventoryProvider;
 
-    public InventoryService(Node node, PeerGroupService peerGroupService, Function<DataFilter, Inventory> inventoryProvider) {
+    public InventoryService(Node node, PeerGroupService peerGroupService, Function<InventoryRequest, Inventory> inventoryProvider) {
         this.node = node;
         this.peerGroupService = peerGroupService;
         this.inventoryProvider = inventoryProvider;
@@ -54,14 +58,19 @@ public class InventoryService implements Node.Listener {
     public void initialize() {
     }
 
-    public List<CompletableFuture<Inventory>> request(DataFilter dataFilter) {
+    /**
+     * @param inventoryPageHandler Gets called for each received inventory page. Peers not supporting
+     *                             Feature.INVENTORY_PAGING deliver the inventory in one page.
+     * @return Futures which complete after the last page has been received.
+     */
+    public List<CompletableFuture<Void>> request(DataFilter dataFilter, Consumer<Inventory> inventoryPageHandler) {
         int maxRequests = 400;
         return peerGroupService.getAllConnections()
                 .filter(connection -> !requestHandlerMap.containsKey(connection.getId()))
                 .limit(maxRequests)
                 .map(connection -> {
                     String key = connection.getId();
-                    InventoryHandler handler = new InventoryHandler(node, connection);
+                    InventoryHandler handler = new InventoryHandler(node, connection, inventoryPageHandler);
                     requestHandlerMap.put(key, handler);
                     return handler.request(dataFilter)
                             .orTimeout(TIMEOUT, TimeUnit.SECONDS)
@@ -80,8 +89,19 @@ public class InventoryService implements Node.Listener {
         if (envelopePayloadMessage instanceof InventoryRequest) {
             InventoryRequest request = (InventoryRequest) envelopePayloadMessage;
             log.debug("Node {} received GetInventoryRequest with nonce {} from {}", node, request.getNonce(), connection.getPeerAddress());
-            Inventory inventory = inventoryProvider.apply(request.getDataFilter());
-            NetworkService.NETWORK_IO_POOL.submit(() -> node.send(new InventoryResponse(inventory, request.getNonce()), connection));
+            Inventory inventory = inventoryProvider.apply(request);
+            if (connection.isPeerSupporting(Feature.INVENTORY_PAGING)) {
+                List<Inventory> pages = InventoryPager.getPages(inventory, MAX_PAGE_SIZE);
+                // We send the pages in sequence, so that the write lock at Connection.send is only held for one page.
+                NetworkService.NETWORK_IO_POOL.submit(() -> {
+                    for (int i = 0; i < pages.size(); i++) {
+                        boolean hasMorePages = i < pages.size() - 1;
+                        node.send(new InventoryResponse(pages.get(i), request.getNonce(), hasMorePages), connection);
+                    }
+                });
+            } else {
+                NetworkService.NETWORK_IO_POOL.submit(() -> node.send(new InventoryResponse(inventory, request.getNonce()), connection));
+            }
             log.debug("Node {} sent GetInventoryResponse with inventory {} and nonce {} to {}. Connection={}",
                     node, inventory, request.getNonce(), connection.getPeerAddress(), connection.getId());
         }
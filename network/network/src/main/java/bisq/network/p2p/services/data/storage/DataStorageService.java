@@ -22,19 +22,23 @@ import bisq.common.util.StringUtils;
 import bisq.network.NetworkService;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.persistence.Persistence;
+import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
-import bisq.persistence.RateLimitedPersistenceClient;
+import bisq.persistence.ReadPriority;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
-public abstract class DataStorageService<T extends DataRequest> extends RateLimitedPersistenceClient<DataStore<T>> {
+public abstract class DataStorageService<T extends DataRequest> implements PersistenceClient<DataStore<T>> {
     public static final String STORE_POST_FIX = "Store";
+    private static final int MIN_MAX_JOURNAL_SIZE = 1000;
+    private static final int NUM_LOCK_STRIPES = 64;
 
     @Getter
     protected final Persistence<DataStore<T>> persistence;
@@ -45,45 +49,125 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
     @Getter
     protected final String subDirectory;
     protected Optional<Integer> maxMapSize = Optional.empty();
+    private final DataStoreJournal<T> journal;
+    // Keys of the entries which have been added, updated or removed since the last journal write
+    private final Set<ByteArray> changedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean journalWriteScheduled = new AtomicBoolean();
+    // Guards the check-and-set of map entries. Entries with different keys do not need to be mutually exclusive,
+    // so we use striped locks instead of a single lock for the whole map.
+    private final Object[] lockStripes = new Object[NUM_LOCK_STRIPES];
 
     public DataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
-        super();
         this.storeKey = storeKey;
         String storageFileName = StringUtils.camelCaseToSnakeCase(storeKey + STORE_POST_FIX);
         subDirectory = NetworkService.NETWORK_DB_PATH + File.separator + storeName;
         persistence = persistenceService.getOrCreatePersistence(this, subDirectory, storageFileName, persistableStore);
+        journal = new DataStoreJournal<>(persistence.getStorePath());
+        for (int i = 0; i < NUM_LOCK_STRIPES; i++) {
+            lockStripes[i] = new Object();
+        }
     }
 
     public void shutdown() {
+        // Write pending changes to the journal
+        persistence.runAsync(this::writeJournal).join();
     }
 
+    /**
+     * Instead of writing the whole store we append the changed entries to the journal. Multiple calls are coalesced
+     * into one journal write. If the journal has grown too large, we write a new snapshot and start a new journal.
+     */
     @Override
-    protected long getMaxWriteRateInMs() {
-        return 1000;
+    public CompletableFuture<Boolean> persist() {
+        if (journalWriteScheduled.compareAndSet(false, true)) {
+            return persistence.runAsync(this::writeJournal)
+                    .handle((nil, throwable) -> throwable == null);
+        } else {
+            // The scheduled journal write will include our changes
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
+    protected void persist(ByteArray changedKey) {
+        changedKeys.add(changedKey);
+        persist();
+    }
+
+    @Override
+    public ReadPriority getReadPriority() {
+        // Network data stores are large, and we want to read the other stores first
+        return ReadPriority.LOW;
+    }
+
+    @Override
+    public CompletableFuture<Optional<DataStore<T>>> readPersisted() {
+        return persistence.readAsync(persisted -> {
+            // Called on the persistence read thread after the snapshot has been read
+            journal.replay(persisted, persisted.getSnapshotGeneration());
+            persisted = prunePersisted(persisted);
+            persistableStore.applyPersisted(persisted);
+            onPersistedApplied(persisted);
+        });
     }
 
     @Override
     public DataStore<T> prunePersisted(DataStore<T> persisted) {
-        Map<ByteArray, T> map = persisted.getMap();
-        if (map.isEmpty()) {
+        if (persisted.isEmpty()) {
             return persisted;
         }
 
-        Map<ByteArray, T> pruned = map.entrySet().stream()
-                .filter(entry -> !entry.getValue().isExpired())
-                .sorted((o1, o2) -> Long.compare(o2.getValue().getCreated(), o1.getValue().getCreated()))
-                .limit(getMaxMapSize())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        map.clear();
-        map.putAll(pruned);
+        persisted.prune(getMaxMapSize());
         return persisted;
     }
 
+    // Runs on the persistence IO thread
+    private void writeJournal() {
+        journalWriteScheduled.set(false);
+        boolean hasSnapshot = persistence.getStorePath().toFile().exists();
+        int maxJournalSize = Math.max(MIN_MAX_JOURNAL_SIZE, persistableStore.size() / 2);
+        List<ByteArray> keys = new ArrayList<>(changedKeys);
+        changedKeys.removeAll(keys);
+        if (!hasSnapshot || journal.isCorrupted() || journal.getNumEntries() >= maxJournalSize) {
+            // We remove the changed keys before taking the snapshot. Changes after removing are either in the
+            // snapshot or will be written to the journal (or both, which is fine as replay is idempotent).
+            // The DataStore can be serialized while getting modified (see DataStore), so we do not need to clone it.
+            long previousGeneration = persistableStore.getSnapshotGeneration();
+            long newGeneration = journal.getNextGeneration();
+            persistableStore.setSnapshotGeneration(newGeneration);
+            if (persistence.persist(persistableStore)) {
+                journal.startGeneration(newGeneration);
+                return;
+            }
+            persistableStore.setSnapshotGeneration(previousGeneration);
+            if (!hasSnapshot) {
+                // A journal is only replayed on top of a snapshot (see readPersisted), so we must not append to it.
+                // The snapshot contains all entries, so the next write (at the latest at shutdown) retries it.
+                log.warn("Writing the first snapshot failed. We retry it at the next write.");
+                return;
+            }
+            // The snapshot on disk is still the previous one, so we keep its journal up to date
+            log.warn("Writing the snapshot of generation {} failed. We append the changes to the journal instead.",
+                    newGeneration);
+        }
+
+        if (keys.isEmpty()) {
+            return;
+        }
+        journal.append(keys, persistableStore);
+    }
+
+    protected Object getLock(ByteArray key) {
+        return lockStripes[Math.floorMod(key.hashCode(), NUM_LOCK_STRIPES)];
+    }
+
     protected int getMaxMapSize() {
         if (maxMapSize.isPresent()) {
             return maxMapSize.get();
         }
-        maxMapSize = persistableStore.getMap().values().stream().map(DataRequest::getMaxMapSize).findFirst();
+        // All entries of a store have the same MetaData, so we only need to look at one of them
+        maxMapSize = persistableStore.getKeys().stream().findFirst()
+                .map(persistableStore::get)
+                .map(DataRequest::getMaxMapSize);
         return maxMapSize.orElse(MetaData.MAX_MAP_SIZE_10_000);
     }
 }
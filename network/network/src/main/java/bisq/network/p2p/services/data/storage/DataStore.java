@@ -21,47 +21,152 @@ import bisq.common.data.ByteArray;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.filter.FilterEntry;
+import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
 import bisq.persistence.PersistableStore;
+import com.google.protobuf.Any;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
-import java.util.Map;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Network stores can contain many thousand entries. Besides the decoded request we keep the serialized form of each
+ * entry, so that the store and its journal can be written without encoding or parsing the entries again, and the data
+ * needed for pruning and for the inventory filter, so that those do not require to access the request.
+ * <p>
+ * The entries are in a ConcurrentHashMap and are immutable, so iterating the store or serializing it while it gets
+ * modified is safe. Iteration reflects the state at some point at or since the creation of the iterator.
+ * Compound check-and-set operations need to be guarded by the caller (see DataStorageService.getLock).
+ */
 @Slf4j
-@ToString
+@ToString(onlyExplicitlyIncluded = true)
 public final class DataStore<T extends DataRequest> implements PersistableStore<DataStore<T>> {
+    private static final String TYPE_URL = "type.googleapis.com/" + bisq.network.protobuf.DataStore.getDescriptor().getFullName();
+
+    private static final class Entry {
+        private final DataRequest request;
+        private final byte[] serialized;
+        private final long created;
+        private final long expirationDate;
+        // Sequence number used for the inventory filter
+        private final int sequenceNumber;
+
+        private Entry(DataRequest request, byte[] serialized) {
+            this.request = request;
+            this.serialized = serialized;
+            created = request.getCreated();
+            expirationDate = request.getExpirationDate();
+            sequenceNumber = getSequenceNumber(request);
+        }
+    }
+
+    private final Map<ByteArray, Entry> entries;
+    // See DataStoreJournal
+    @ToString.Include
     @Getter
-    private final Map<ByteArray, T> map = new ConcurrentHashMap<>();
+    @Setter
+    private volatile long snapshotGeneration;
 
     public DataStore() {
+        entries = new ConcurrentHashMap<>();
     }
 
-    public DataStore(Map<ByteArray, T> map) {
-        this.map.putAll(map);
+    private DataStore(int initialCapacity) {
+        entries = new ConcurrentHashMap<>(initialCapacity);
     }
 
     @Override
     public bisq.network.protobuf.DataStore toProto() {
         // Protobuf map do not support bytes as key
-        List<bisq.network.protobuf.DataStore.MapEntry> mapEntries = map.entrySet().stream()
+        List<bisq.network.protobuf.DataStore.MapEntry> mapEntries = entries.entrySet().stream()
                 .map(e -> bisq.network.protobuf.DataStore.MapEntry.newBuilder()
                         .setKey(e.getKey().toProto())
-                        .setValue(e.getValue().toProto().getDataRequest())
+                        .setValue(parse(e.getValue().serialized))
                         .build())
                 .collect(Collectors.toList());
         return bisq.network.protobuf.DataStore.newBuilder()
                 .addAllMapEntries(mapEntries)
+                .setSnapshotGeneration(snapshotGeneration)
+                .build();
+    }
+
+    /**
+     * Writes the same bytes as toProto().toByteArray() but uses the serialized entries instead of parsing them
+     * into a proto, which would be serialized again.
+     */
+    @Override
+    public byte[] serialize() {
+        List<Map.Entry<ByteArray, Entry>> entryList = new ArrayList<>(entries.entrySet());
+        int[] mapEntrySizes = new int[entryList.size()];
+        int size = 0;
+        for (int i = 0; i < entryList.size(); i++) {
+            Map.Entry<ByteArray, Entry> e = entryList.get(i);
+            mapEntrySizes[i] = CodedOutputStream.computeMessageSize(1, e.getKey().toProto()) +
+                    CodedOutputStream.computeByteArraySize(2, e.getValue().serialized);
+            size += CodedOutputStream.computeTagSize(1) +
+                    CodedOutputStream.computeUInt32SizeNoTag(mapEntrySizes[i]) +
+                    mapEntrySizes[i];
+        }
+        if (snapshotGeneration != 0) {
+            size += CodedOutputStream.computeInt64Size(2, snapshotGeneration);
+        }
+
+        byte[] bytes = new byte[size];
+        CodedOutputStream outputStream = CodedOutputStream.newInstance(bytes);
+        try {
+            for (int i = 0; i < entryList.size(); i++) {
+                Map.Entry<ByteArray, Entry> e = entryList.get(i);
+                outputStream.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                outputStream.writeUInt32NoTag(mapEntrySizes[i]);
+                outputStream.writeMessage(1, e.getKey().toProto());
+                // The DataRequest field has the same wire format as a bytes field with its serialized form
+                outputStream.writeByteArray(2, e.getValue().serialized);
+            }
+            if (snapshotGeneration != 0) {
+                outputStream.writeInt64(2, snapshotGeneration);
+            }
+            outputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Cannot happen as we write into an array of the computed size
+            throw new IllegalStateException(e);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Any toAny() {
+        return Any.newBuilder()
+                .setTypeUrl(TYPE_URL)
+                .setValue(UnsafeByteOperations.unsafeWrap(serialize()))
                 .build();
     }
 
     public static PersistableStore<?> fromProto(bisq.network.protobuf.DataStore proto) {
-        return new DataStore<>(proto.getMapEntriesList().stream()
-                .collect(Collectors.toMap(e -> ByteArray.fromProto(e.getKey()), e -> DataRequest.fromProto(e.getValue()))));
+        // Decoding is the main cost at reading the persisted network data, so we do it in parallel.
+        List<bisq.network.protobuf.DataStore.MapEntry> mapEntries = proto.getMapEntriesList();
+        DataStore<DataRequest> dataStore = new DataStore<>(mapEntries.size());
+        mapEntries.parallelStream()
+                .forEach(e -> dataStore.entries.put(ByteArray.fromProto(e.getKey()),
+                        new Entry(DataRequest.fromProto(e.getValue()), e.getValue().toByteArray())));
+        dataStore.setSnapshotGeneration(proto.getSnapshotGeneration());
+        return dataStore;
     }
 
     @Override
@@ -77,12 +182,137 @@ public final class DataStore<T extends DataRequest> implements PersistableStore<
 
     @Override
     public void applyPersisted(DataStore<T> persisted) {
-        map.clear();
-        map.putAll(persisted.getMap());
+        entries.clear();
+        entries.putAll(persisted.entries);
+        snapshotGeneration = persisted.getSnapshotGeneration();
     }
 
     @Override
     public DataStore<T> getClone() {
-        return new DataStore<>(map);
+        DataStore<T> clone = new DataStore<>(entries.size());
+        clone.entries.putAll(entries);
+        clone.setSnapshotGeneration(snapshotGeneration);
+        return clone;
+    }
+
+    @ToString.Include
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public boolean containsKey(ByteArray key) {
+        return entries.containsKey(key);
+    }
+
+    @Nullable
+    public T get(ByteArray key) {
+        Entry entry = entries.get(key);
+        return entry != null ? getRequest(entry) : null;
+    }
+
+    public void put(ByteArray key, T request) {
+        put(key, request, request.toProto().getDataRequest().toByteArray());
+    }
+
+    public void remove(ByteArray key) {
+        entries.remove(key);
+    }
+
+    public Set<ByteArray> getKeys() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public void forEach(BiConsumer<ByteArray, T> consumer) {
+        entries.forEach((key, entry) -> consumer.accept(key, getRequest(entry)));
+    }
+
+    public Stream<T> getRequests() {
+        return entries.values().stream().map(this::getRequest);
+    }
+
+    /**
+     * Passes the request and its serialized size of each entry whose filter entry matches the predicate to the
+     * consumer.
+     */
+    public void forEachRequest(Predicate<FilterEntry> predicate, ObjIntConsumer<? super T> consumer) {
+        entries.forEach((key, entry) -> {
+            if (predicate.test(toFilterEntry(key, entry))) {
+                consumer.accept(getRequest(entry), entry.serialized.length);
+            }
+        });
+    }
+
+    public Stream<FilterEntry> getFilterEntries() {
+        return entries.entrySet().stream().map(e -> toFilterEntry(e.getKey(), e.getValue()));
+    }
+
+    public List<ByteArray> getExpiredKeys() {
+        long now = System.currentTimeMillis();
+        return entries.entrySet().stream()
+                .filter(e -> now > e.getValue().expirationDate)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes the expired entries and, if more than maxSize entries are left, the oldest ones.
+     */
+    public void prune(int maxSize) {
+        long now = System.currentTimeMillis();
+        Set<ByteArray> retained = entries.entrySet().stream()
+                .filter(e -> now <= e.getValue().expirationDate)
+                .sorted((o1, o2) -> Long.compare(o2.getValue().created, o1.getValue().created))
+                .limit(maxSize)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        entries.keySet().stream()
+                .filter(key -> !retained.contains(key))
+                .collect(Collectors.toList())
+                .forEach(this::remove);
+    }
+
+    // Also used by DataStoreJournal with the serialized form read from the journal, to avoid re-encoding it
+    void put(ByteArray key, T request, byte[] serialized) {
+        entries.put(key, new Entry(request, serialized));
+    }
+
+    Optional<byte[]> findSerialized(ByteArray key) {
+        return Optional.ofNullable(entries.get(key)).map(entry -> entry.serialized);
+    }
+
+    private T getRequest(Entry entry) {
+        //noinspection unchecked
+        return (T) entry.request;
+    }
+
+    private static bisq.network.protobuf.DataRequest parse(byte[] serialized) {
+        try {
+            return bisq.network.protobuf.DataRequest.parseFrom(serialized);
+        } catch (InvalidProtocolBufferException e) {
+            // Cannot happen as we have created the bytes from a valid proto
+            throw new UnresolvableProtobufMessageException(e);
+        }
+    }
+
+    private static FilterEntry toFilterEntry(ByteArray key, Entry entry) {
+        return new FilterEntry(key.getBytes(), entry.sequenceNumber);
+    }
+
+    private static int getSequenceNumber(DataRequest dataRequest) {
+        if (dataRequest instanceof AddAppendOnlyDataRequest) {
+            // AddAppendOnlyDataRequest does not use a seq nr.
+            return 0;
+        } else if (dataRequest instanceof AddAuthenticatedDataRequest) {
+            // AddMailboxRequest extends AddAuthenticatedDataRequest so its covered here as well
+            return ((AddAuthenticatedDataRequest) dataRequest).getAuthenticatedSequentialData().getSequenceNumber();
+        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest) {
+            // RemoveMailboxRequest extends RemoveAuthenticatedDataRequest so its covered here as well
+            return ((RemoveAuthenticatedDataRequest) dataRequest).getSequenceNumber();
+        }
+        return 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.persistence.Persistence;
+import com.google.protobuf.CodedOutputStream;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Append-only log of the changes of a DataStore since the last snapshot written to the store file.
+ * Instead of rewriting the whole store at each change we only append the changed entries. At startup the journal
+ * gets replayed on top of the snapshot. If the journal gets too large, the client writes a new snapshot and starts a
+ * new journal.
+ * <p>
+ * Each entry contains the new value for the key, or no value if the entry was removed. Replaying an entry is
+ * therefore idempotent. A truncated last entry (e.g. after a crash while writing) is ignored.
+ * <p>
+ * Each snapshot has a generation and the journal file name contains the generation of the snapshot it is based on.
+ * A journal of an older generation than the snapshot is already contained in the snapshot. It can be left over if we
+ * crashed or failed to delete it after writing the snapshot, and must not be replayed as it would roll back newer
+ * values of the snapshot.
+ * <p>
+ * Not thread safe. Replay is done by the persistence read thread before any change can be written, all other access
+ * must happen on the persistence IO thread.
+ */
+@Slf4j
+class DataStoreJournal<T extends DataRequest> {
+    public static final String EXTENSION = ".journal";
+
+    private final Path directory;
+    private final String fileNamePrefix;
+    @Getter
+    private long generation;
+    @Getter
+    private int numEntries;
+    // If the journal could not be read completely we must not append to it anymore
+    @Getter
+    private boolean corrupted;
+
+    DataStoreJournal(Path storePath) {
+        directory = storePath.getParent();
+        fileNamePrefix = storePath.getFileName().toString().replace(Persistence.EXTENSION, "") + "_";
+    }
+
+    void append(List<ByteArray> keys, DataStore<T> store) {
+        Path journalPath = getJournalPath(generation);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(journalPath.toFile(), true)) {
+            // We write the DataStoreJournalEntry from the serialized form of the entry, so we do not need to parse it.
+            // The DataRequest field has the same wire format as a bytes field with its serialized form.
+            CodedOutputStream outputStream = CodedOutputStream.newInstance(fileOutputStream);
+            for (ByteArray key : keys) {
+                bisq.common.protobuf.ByteArray keyProto = key.toProto();
+                Optional<byte[]> serialized = store.findSerialized(key);
+                int size = CodedOutputStream.computeMessageSize(1, keyProto) +
+                        serialized.map(bytes -> CodedOutputStream.computeByteArraySize(2, bytes)).orElse(0);
+                outputStream.writeUInt32NoTag(size);
+                outputStream.writeMessage(1, keyProto);
+                if (serialized.isPresent()) {
+                    outputStream.writeByteArray(2, serialized.get());
+                }
+                numEntries++;
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            log.error("Could not append to journal {}", journalPath, e);
+        }
+    }
+
+    /**
+     * Applies the journal entries to the given store of the persisted snapshot. Journals of older generations than the
+     * snapshot are deleted without being applied.
+     */
+    void replay(DataStore<T> store, long snapshotGeneration) {
+        generation = snapshotGeneration;
+        numEntries = 0;
+        corrupted = false;
+        getJournalPathByGeneration().forEach((journalGeneration, journalPath) -> {
+            if (journalGeneration < snapshotGeneration) {
+                log.info("Journal {} is older than the snapshot of generation {}. We delete it.",
+                        journalPath, snapshotGeneration);
+                delete(journalPath);
+                return;
+            }
+            // Only if writing a snapshot failed silently we could have a journal newer than the snapshot.
+            // Its base is then the snapshot we have, and we continue appending to it.
+            generation = journalGeneration;
+            numEntries = 0;
+            corrupted = false;
+            replay(store, journalPath);
+        });
+    }
+
+    /**
+     * @return The generation for the next snapshot. It is higher than the generation of any journal file, so that a
+     * left over journal will be recognized as outdated.
+     */
+    long getNextGeneration() {
+        return Math.max(generation, getJournalPathByGeneration().keySet().stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0)) + 1;
+    }
+
+    /**
+     * Called after the snapshot of the given generation has been written successfully. Further entries are appended
+     * to the journal of that generation and the journals of other generations get deleted.
+     */
+    void startGeneration(long newGeneration) {
+        generation = newGeneration;
+        numEntries = 0;
+        corrupted = false;
+        getJournalPathByGeneration().forEach((journalGeneration, journalPath) -> {
+            if (journalGeneration != newGeneration) {
+                delete(journalPath);
+            }
+        });
+    }
+
+    private void replay(DataStore<T> store, Path journalPath) {
+        try (FileInputStream inputStream = new FileInputStream(journalPath.toFile())) {
+            bisq.network.protobuf.DataStoreJournalEntry proto;
+            while ((proto = bisq.network.protobuf.DataStoreJournalEntry.parseDelimitedFrom(inputStream)) != null) {
+                ByteArray key = ByteArray.fromProto(proto.getKey());
+                if (proto.hasValue()) {
+                    //noinspection unchecked
+                    store.put(key, (T) DataRequest.fromProto(proto.getValue()), proto.getValue().toByteArray());
+                } else {
+                    store.remove(key);
+                }
+                numEntries++;
+            }
+        } catch (Exception e) {
+            corrupted = true;
+            log.warn("Could not read all entries of journal {}. We use the {} entries read so far.",
+                    journalPath, numEntries, e);
+        }
+        log.info("Replayed {} journal entries from {}", numEntries, journalPath);
+    }
+
+    private Map<Long, Path> getJournalPathByGeneration() {
+        Map<Long, Path> journalPathByGeneration = new TreeMap<>();
+        File[] files = directory.toFile().listFiles();
+        if (files == null) {
+            return journalPathByGeneration;
+        }
+        for (File file : files) {
+            parseGeneration(file.getName()).ifPresent(journalGeneration ->
+                    journalPathByGeneration.put(journalGeneration, file.toPath()));
+        }
+        return journalPathByGeneration;
+    }
+
+    private Optional<Long> parseGeneration(String fileName) {
+        if (!fileName.startsWith(fileNamePrefix) || !fileName.endsWith(EXTENSION)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(fileName.substring(fileNamePrefix.length(), fileName.length() - EXTENSION.length())));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Path getJournalPath(long generation) {
+        return directory.resolve(fileNamePrefix + generation + EXTENSION);
+    }
+
+    private void delete(Path journalPath) {
+        try {
+            Files.deleteIfExists(journalPath);
+        } catch (IOException e) {
+            // Not critical, as an outdated journal is ignored at replay
+            log.error("Could not delete journal {}", journalPath, e);
+        }
+    }
+}
@@ -18,16 +18,18 @@
 package bisq.network.p2p.services.data.storage;
 
 
-import bisq.common.data.ByteArray;
 import bisq.common.proto.NetworkStorageWhiteList;
+import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.StringUtils;
 import bisq.network.NetworkService;
 import bisq.network.p2p.services.data.AddDataRequest;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.RemoveDataRequest;
+import bisq.network.p2p.services.data.filter.BloomDataFilter;
 import bisq.network.p2p.services.data.filter.DataFilter;
 import bisq.network.p2p.services.data.filter.FilterEntry;
 import bisq.network.p2p.services.data.inventory.Inventory;
+import bisq.network.p2p.services.data.inventory.InventoryRequest;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.append.AppendOnlyData;
 import bisq.network.p2p.services.data.storage.append.AppendOnlyDataStorageService;
@@ -50,6 +52,9 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -77,11 +82,17 @@ public class StorageService {
         void onRemoved(StorageData storageData);
     }
 
+    // Stateless validation of received requests (mainly the signature verification) is done in parallel.
+    private static final ExecutorService VALIDATION_POOL = ExecutorFactory.newFixedThreadPool("StorageService.validation-pool");
+
     final Map<String, AuthenticatedDataStorageService> authenticatedDataStores = new ConcurrentHashMap<>();
     final Map<String, MailboxDataStorageService> mailboxStores = new ConcurrentHashMap<>();
     final Map<String, AppendOnlyDataStorageService> appendOnlyDataStores = new ConcurrentHashMap<>();
     private final PersistenceService persistenceService;
     private final Set<StorageService.Listener> listeners = new CopyOnWriteArraySet<>();
+    private final Object pipelineLock = new Object();
+    // Last stage of the validation pipeline. Used to apply the validated requests in the order they have been received.
+    private CompletableFuture<?> pipelineTail = CompletableFuture.completedFuture(null);
 
     public StorageService(PersistenceService persistenceService) {
         this.persistenceService = persistenceService;
@@ -178,13 +189,30 @@ public class StorageService {
     }
 
     private Stream<AuthenticatedData> getAuthenticatedData(DataStorageService<? extends DataRequest> store) {
-        return store.getPersistableStore().getClone().getMap().values().stream()
+        return store.getPersistableStore().getRequests()
                 .filter(e -> e instanceof AddAuthenticatedDataRequest)
                 .map(e -> (AddAuthenticatedDataRequest) e)
                 .map(e -> e.getAuthenticatedSequentialData().getAuthenticatedData());
     }
 
 
+    /**
+     * Uses the receiver key id index of the mailbox stores, so the costs are proportional to the number of mailbox
+     * messages addressed to the given keys and not to the number of all mailbox messages.
+     */
+    public List<MailboxData> getMailboxData(Collection<String> receiverKeyIds) {
+        return mailboxStores.values().stream()
+                .flatMap(store -> receiverKeyIds.stream().flatMap(receiverKeyId -> store.getMailboxData(receiverKeyId).stream()))
+                .collect(Collectors.toList());
+    }
+
+    public int getNumMailboxData(Collection<String> receiverKeyIds) {
+        return mailboxStores.values().stream()
+                .mapToInt(store -> receiverKeyIds.stream().mapToInt(store::getNumMailboxData).sum())
+                .sum();
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Add data
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -206,8 +234,8 @@ public class StorageService {
     private CompletableFuture<Optional<StorageData>> onAddMailboxRequest(AddMailboxRequest request) {
         MailboxData mailboxData = request.getMailboxSequentialData().getMailboxData();
         return getOrCreateMailboxDataStore(mailboxData.getClassName())
-                .thenApply(store -> {
-                    DataStorageResult dataStorageResult = store.add(request);
+                .thenCompose(store -> validateAndApply(() -> store.validateAdd(request), () -> store.addValidated(request)))
+                .thenApply(dataStorageResult -> {
                     if (dataStorageResult.isSuccess()) {
                         return Optional.of(mailboxData);
                     } else {
@@ -222,8 +250,8 @@ public class StorageService {
     private CompletableFuture<Optional<StorageData>> onAddAuthenticatedDataRequest(AddAuthenticatedDataRequest request) {
         AuthenticatedData authenticatedData = request.getAuthenticatedSequentialData().getAuthenticatedData();
         return getOrCreateAuthenticatedDataStore(authenticatedData.getClassName())
-                .thenApply(store -> {
-                    DataStorageResult dataStorageResult = store.add(request);
+                .thenCompose(store -> validateAndApply(() -> store.validateAdd(request), () -> store.addValidated(request)))
+                .thenApply(dataStorageResult -> {
                     if (dataStorageResult.isSuccess()) {
                         return Optional.of(authenticatedData);
                     } else {
@@ -270,8 +298,8 @@ public class StorageService {
 
     private CompletableFuture<Optional<StorageData>> onRemoveMailboxRequest(RemoveMailboxRequest request) {
         return getOrCreateMailboxDataStore(request.getClassName())
-                .thenApply(store -> {
-                    DataStorageResult dataStorageResult = store.remove(request);
+                .thenCompose(store -> validateAndApply(() -> store.validateRemove(request), () -> store.removeValidated(request)))
+                .thenApply(dataStorageResult -> {
                     if (dataStorageResult.isSuccess()) {
                         return Optional.of(dataStorageResult.getRemovedData());
                     } else {
@@ -285,8 +313,8 @@ public class StorageService {
 
     private CompletableFuture<Optional<StorageData>> onRemoveAuthenticatedDataRequest(RemoveAuthenticatedDataRequest request) {
         return getOrCreateAuthenticatedDataStore(request.getClassName())
-                .thenApply(store -> {
-                    DataStorageResult dataStorageResult = store.remove(request);
+                .thenCompose(store -> validateAndApply(() -> store.validateRemove(request), () -> store.removeValidated(request)))
+                .thenApply(dataStorageResult -> {
                     if (dataStorageResult.isSuccess()) {
                         return Optional.of(dataStorageResult.getRemovedData());
                     } else {
@@ -299,26 +327,71 @@ public class StorageService {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Validation pipeline
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The validator runs on the validation pool, so multiple requests get validated in parallel. The validated
+     * requests are applied on the dispatcher thread in the order they have been received, so the order for requests
+     * with the same hash is preserved. Applying a request only requires the check-and-set of the map entry under the
+     * lock for its key and is cheap compared to the validation.
+     */
+    private CompletableFuture<DataStorageResult> validateAndApply(Supplier<Optional<DataStorageResult>> validator,
+                                                                  Supplier<DataStorageResult> applier) {
+        CompletableFuture<Optional<DataStorageResult>> validated = CompletableFuture.supplyAsync(validator, VALIDATION_POOL);
+        synchronized (pipelineLock) {
+            CompletableFuture<DataStorageResult> applied = pipelineTail.thenCombineAsync(validated,
+                    (nil, failedResult) -> failedResult.orElseGet(applier),
+                    NetworkService.DISPATCHER);
+            // A failure must not break the pipeline for the following requests
+            pipelineTail = applied.handle((result, throwable) -> null);
+            return applied;
+        }
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Inventory
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
+    public Inventory getInventoryOfAllStores(InventoryRequest inventoryRequest) {
+        return inventoryRequest.getBloomDataFilter()
+                .map(bloomDataFilter -> getInventoryOfAllStores(bloomDataFilter))
+                .orElseGet(() -> getInventoryOfAllStores(inventoryRequest.getDataFilter()));
+    }
+
     public Inventory getInventoryOfAllStores(DataFilter dataFilter) {
-        return getInventory(dataFilter, getAllStores()
-                .flatMap(store -> store.getPersistableStore().getClone().getMap().entrySet().stream()).collect(Collectors.toSet()));
+        // DataFilter.contains uses a binary search over the sorted filter entries, so the costs are
+        // O(entries * log(filterEntries)) instead of O(entries * filterEntries).
+        return getInventory(dataFilter::contains, getAllStores());
+    }
+
+    public Inventory getInventoryOfAllStores(BloomDataFilter bloomDataFilter) {
+        return getInventory(bloomDataFilter::mightContain, getAllStores());
     }
 
     public Inventory getInventoryFromStore(DataFilter dataFilter, DataStorageService<? extends DataRequest> store) {
-        return getInventory(dataFilter, store.getPersistableStore().getClone().getMap().entrySet());
+        return getInventory(dataFilter::contains, Stream.of(store));
     }
 
-    private Inventory getInventory(DataFilter dataFilter,
-                                   Set<? extends Map.Entry<ByteArray, ? extends DataRequest>> entrySet) {
-        Set<? extends DataRequest> result = entrySet.stream()
-                .filter(mapEntry -> !dataFilter.getFilterEntries().contains(getFilterEntry(mapEntry)))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return new Inventory(result, entrySet.size());
+    private Inventory getInventory(Predicate<FilterEntry> isKnownByRequester,
+                                   Stream<DataStorageService<? extends DataRequest>> stores) {
+        // The filter entries are stored next to the requests, so only the requests which are not known by the
+        // requester get accessed.
+        List<DataRequest> result = new ArrayList<>();
+        // The store knows the serialized size of the requests, which is used for splitting the inventory into pages
+        Map<DataRequest, Integer> serializedSizeByEntry = new IdentityHashMap<>();
+        int numEntries = 0;
+        for (DataStorageService<? extends DataRequest> store : stores.collect(Collectors.toList())) {
+            DataStore<? extends DataRequest> dataStore = store.getPersistableStore();
+            numEntries += dataStore.size();
+            dataStore.forEachRequest(filterEntry -> !isKnownByRequester.test(filterEntry), (request, serializedSize) -> {
+                result.add(request);
+                serializedSizeByEntry.put(request, serializedSize);
+            });
+        }
+        return new Inventory(result, numEntries, serializedSizeByEntry);
     }
 
 
@@ -335,28 +408,10 @@ public class StorageService {
     }
 
     private Set<FilterEntry> getFilterEntries(Stream<DataStorageService<? extends DataRequest>> stores) {
-        return stores.flatMap(store -> new HashMap<>(store.getPersistableStore().getMap()).entrySet().stream())
-                .map(this::getFilterEntry)
+        return stores.flatMap(store -> store.getPersistableStore().getFilterEntries())
                 .collect(Collectors.toSet());
     }
 
-    private FilterEntry getFilterEntry(Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
-        DataRequest dataRequest = mapEntry.getValue();
-        int sequenceNumber = 0;
-        byte[] hash = mapEntry.getKey().getBytes();
-        if (dataRequest instanceof AddAppendOnlyDataRequest) {
-            // AddAppendOnlyDataRequest does not use a seq nr.
-            return new FilterEntry(hash, 0);
-        } else if (dataRequest instanceof AddAuthenticatedDataRequest) {
-            // AddMailboxRequest extends AddAuthenticatedDataRequest so its covered here as well
-            sequenceNumber = ((AddAuthenticatedDataRequest) dataRequest).getAuthenticatedSequentialData().getSequenceNumber();
-        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest) {
-            // RemoveMailboxRequest extends RemoveAuthenticatedDataRequest so its covered here as well
-            sequenceNumber = ((RemoveAuthenticatedDataRequest) dataRequest).getSequenceNumber();
-        }
-        return new FilterEntry(hash, sequenceNumber);
-    }
-
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Get or create stores
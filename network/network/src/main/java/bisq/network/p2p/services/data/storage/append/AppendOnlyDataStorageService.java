@@ -25,7 +25,6 @@ import bisq.persistence.PersistenceService;
 import bisq.security.DigestUtil;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 
@@ -40,7 +39,6 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
     }
 
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
 
     public AppendOnlyDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
         super(persistenceService, storeName, storeKey);
@@ -52,28 +50,22 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
         return persisted;
     }
 
-    @Override
-    protected long getMaxWriteRateInMs() {
-        return 1000;
-    }
-
     public DataStorageResult add(AddAppendOnlyDataRequest addAppendOnlyDataRequest) {
         AppendOnlyData appendOnlyData = addAppendOnlyDataRequest.getAppendOnlyData();
-        Map<ByteArray, AddAppendOnlyDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.size() > getMaxMapSize()) {
+        byte[] hash = DigestUtil.hash(appendOnlyData.serialize());
+        ByteArray byteArray = new ByteArray(hash);
+        synchronized (getLock(byteArray)) {
+            if (persistableStore.size() > getMaxMapSize()) {
                 return new DataStorageResult(false).maxMapSizeReached();
             }
 
-            byte[] hash = DigestUtil.hash(appendOnlyData.serialize());
-            ByteArray byteArray = new ByteArray(hash);
-            if (map.containsKey(byteArray)) {
+            if (persistableStore.containsKey(byteArray)) {
                 return new DataStorageResult(false).payloadAlreadyStored();
             }
 
-            map.put(byteArray, addAppendOnlyDataRequest);
+            persistableStore.put(byteArray, addAppendOnlyDataRequest);
         }
-        persist();
+        persist(byteArray);
         listeners.forEach(listener -> listener.onAppended(appendOnlyData));
         return new DataStorageResult(true);
     }
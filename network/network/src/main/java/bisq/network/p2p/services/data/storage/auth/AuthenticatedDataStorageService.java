@@ -28,11 +28,11 @@ import bisq.security.DigestUtil;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -48,7 +48,6 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     }
 
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
     private final Scheduler scheduler;
 
     public AuthenticatedDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
@@ -63,17 +62,71 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     }
 
     public DataStorageResult add(AddAuthenticatedDataRequest request) {
+        return validateAdd(request).orElseGet(() -> addValidated(request));
+    }
+
+    /**
+     * Runs the checks which do not depend on the state of the map, like the expensive signature verification.
+     * Does not require a lock, thus it can be called in parallel for multiple requests.
+     *
+     * @return The failed result or empty if the request is valid.
+     */
+    public Optional<DataStorageResult> validateAdd(AddAuthenticatedDataRequest request) {
+        AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
+        AuthenticatedData authenticatedData = authenticatedSequentialData.getAuthenticatedData();
+        ByteArray byteArray = new ByteArray(DigestUtil.hash(authenticatedData.serialize()));
+
+        // Cheap check to avoid the signature verification for requests we have already received (e.g. re-broadcasts).
+        if (request.equals(persistableStore.get(byteArray))) {
+            return Optional.of(new DataStorageResult(false).requestAlreadyReceived());
+        }
+
+        if (authenticatedSequentialData.isExpired()) {
+            log.info("Data is expired at add. request object={}",
+                    request.getAuthenticatedSequentialData().getAuthenticatedData().distributedData.getClass().getSimpleName());
+            log.debug("Data is expired at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).expired());
+        }
+
+        if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
+            log.warn("AuthenticatedData is invalid at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).dataInvalid());
+        }
+
+        if (authenticatedData instanceof AuthorizedData) {
+            AuthorizedData authorizedData = (AuthorizedData) authenticatedData;
+            if (authorizedData.isNotAuthorized()) {
+                log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 500));
+                return Optional.of(new DataStorageResult(false).isNotAuthorized());
+            }
+        }
+
+        if (request.isPublicKeyInvalid()) {
+            log.warn("PublicKey is invalid at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).publicKeyHashInvalid());
+        }
+
+        if (request.isSignatureInvalid()) {
+            log.warn("Signature is invalid at add. request={}", request);
+            return Optional.of(new DataStorageResult(false).signatureInvalid());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds a request which has passed {@link #validateAdd}. Only the checks depending on the state of the map are
+     * done here while holding the lock for the key.
+     */
+    public DataStorageResult addValidated(AddAuthenticatedDataRequest request) {
         AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
         AuthenticatedData authenticatedData = authenticatedSequentialData.getAuthenticatedData();
         byte[] hash = DigestUtil.hash(authenticatedData.serialize());
         ByteArray byteArray = new ByteArray(hash);
-        AuthenticatedDataRequest requestFromMap;
-        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.size() > getMaxMapSize()) {
+        synchronized (getLock(byteArray)) {
+            if (persistableStore.size() > getMaxMapSize()) {
                 return new DataStorageResult(false).maxMapSizeReached();
             }
-            requestFromMap = map.get(byteArray);
+            AuthenticatedDataRequest requestFromMap = persistableStore.get(byteArray);
             if (request.equals(requestFromMap)) {
                 return new DataStorageResult(false).requestAlreadyReceived();
             }
@@ -81,40 +134,10 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
             if (requestFromMap != null && authenticatedSequentialData.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                 return new DataStorageResult(false).sequenceNrInvalid();
             }
-
-            if (authenticatedSequentialData.isExpired()) {
-                log.info("Data is expired at add. request object={}",
-                        request.getAuthenticatedSequentialData().getAuthenticatedData().distributedData.getClass().getSimpleName());
-                log.debug("Data is expired at add. request={}", request);
-                return new DataStorageResult(false).expired();
-            }
-
-            if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
-                log.warn("AuthenticatedData is invalid at add. request={}", request);
-                return new DataStorageResult(false).dataInvalid();
-            }
-
-            if (authenticatedData instanceof AuthorizedData) {
-                AuthorizedData authorizedData = (AuthorizedData) authenticatedData;
-                if (authorizedData.isNotAuthorized()) {
-                    log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 500));
-                    return new DataStorageResult(false).isNotAuthorized();
-                }
-            }
-
-            if (request.isPublicKeyInvalid()) {
-                log.warn("PublicKey is invalid at add. request={}", request);
-                return new DataStorageResult(false).publicKeyHashInvalid();
-            }
-
-            if (request.isSignatureInvalid()) {
-                log.warn("Signature is invalid at add. request={}", request);
-                return new DataStorageResult(false).signatureInvalid();
-            }
-            map.put(byteArray, request);
+            persistableStore.put(byteArray, request);
         }
 
-        persist();
+        persist(byteArray);
 
         // If we had already the data (only updated seq nr) we return false as well and do not notify listeners.
        /* if (requestFromMap != null) {
@@ -127,17 +150,36 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     }
 
     public DataStorageResult remove(RemoveAuthenticatedDataRequest request) {
+        return validateRemove(request).orElseGet(() -> removeValidated(request));
+    }
+
+    /**
+     * Verifies the signature. Does not require a lock, thus it can be called in parallel for multiple requests.
+     *
+     * @return The failed result or empty if the request is valid.
+     */
+    public Optional<DataStorageResult> validateRemove(RemoveAuthenticatedDataRequest request) {
+        if (request.isSignatureInvalid()) {
+            log.warn("Signature is invalid at remove. request={}", request);
+            return Optional.of(new DataStorageResult(false).signatureInvalid());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the data for a request which has passed {@link #validateRemove}.
+     */
+    public DataStorageResult removeValidated(RemoveAuthenticatedDataRequest request) {
         ByteArray byteArray = new ByteArray(request.getHash());
         AuthenticatedData authenticatedDataFromMap;
-        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            AuthenticatedDataRequest requestFromMap = map.get(byteArray);
+        synchronized (getLock(byteArray)) {
+            AuthenticatedDataRequest requestFromMap = persistableStore.get(byteArray);
             if (requestFromMap == null) {
                 log.debug("No entry at remove. hash={}", byteArray);
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
-                map.put(byteArray, request);
-                persist();
+                persistableStore.put(byteArray, request);
+                persist(byteArray);
                 return new DataStorageResult(false).noEntry();
             }
 
@@ -146,8 +188,8 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 // We have had the entry already removed.
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the map with the new request with the fresh sequence number.
-                    map.put(byteArray, request);
-                    persist();
+                    persistableStore.put(byteArray, request);
+                    persist(byteArray);
                 }
                 return new DataStorageResult(false).alreadyRemoved();
             }
@@ -178,14 +220,9 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 log.warn("PublicKey hash is invalid at remove. request={}", request);
                 return new DataStorageResult(false).publicKeyHashInvalid();
             }
-
-            if (request.isSignatureInvalid()) {
-                log.warn("Signature is invalid at remove. request={}", request);
-                return new DataStorageResult(false).signatureInvalid();
-            }
-            map.put(byteArray, request);
+            persistableStore.put(byteArray, request);
         }
-        persist();
+        persist(byteArray);
         listeners.forEach(listener -> listener.onRemoved(authenticatedDataFromMap));
         return new DataStorageResult(true).removedData(authenticatedDataFromMap);
     }
@@ -193,9 +230,13 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     public DataStorageResult refresh(RefreshAuthenticatedDataRequest request) {
         ByteArray byteArray = new ByteArray(request.getHash());
         AddAuthenticatedDataRequest updatedRequest;
-        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            AuthenticatedDataRequest requestFromMap = map.get(byteArray);
+        if (request.isSignatureInvalid()) {
+            log.warn("Signature is invalid at refresh. request={}", request);
+            return new DataStorageResult(false).signatureInvalid();
+        }
+
+        synchronized (getLock(byteArray)) {
+            AuthenticatedDataRequest requestFromMap = persistableStore.get(byteArray);
 
             if (requestFromMap == null) {
                 return new DataStorageResult(false).noEntry();
@@ -223,19 +264,14 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 return new DataStorageResult(false).publicKeyHashInvalid();
             }
 
-            if (request.isSignatureInvalid()) {
-                log.warn("Signature is invalid at refresh. request={}", request);
-                return new DataStorageResult(false).signatureInvalid();
-            }
-
             AuthenticatedSequentialData updatedData = AuthenticatedSequentialData.from(dataFromMap, request.getSequenceNumber());
             updatedRequest = new AddAuthenticatedDataRequest(updatedData,
                     addRequestFromMap.getSignature(),
                     addRequestFromMap.getOwnerPublicKey());
 
-            map.put(byteArray, updatedRequest);
+            persistableStore.put(byteArray, updatedRequest);
         }
-        persist();
+        persist(byteArray);
         listeners.forEach(listener -> listener.onRefreshed(updatedRequest.getAuthenticatedSequentialData().getAuthenticatedData()));
         return new DataStorageResult(true);
     }
@@ -252,25 +288,24 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
     public int getSequenceNumber(byte[] hash) {
         ByteArray byteArray = new ByteArray(hash);
         int sequenceNumber = 0;
-        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.containsKey(byteArray)) {
-                sequenceNumber = map.get(byteArray).getSequenceNumber();
+        synchronized (getLock(byteArray)) {
+            if (persistableStore.containsKey(byteArray)) {
+                sequenceNumber = persistableStore.get(byteArray).getSequenceNumber();
             }
         }
         return sequenceNumber;
     }
 
     private void pruneExpired() {
-        Set<Map.Entry<ByteArray, AuthenticatedDataRequest>> expiredEntries = persistableStore.getMap().entrySet().stream()
-                .filter(entry -> entry.getValue().isExpired())
-                .collect(Collectors.toSet());
-        if (!expiredEntries.isEmpty()) {
-            log.info("We remove {} expired entries from our map", expiredEntries.size());
-            expiredEntries.forEach(entry -> {
-                persistableStore.getMap().remove(entry.getKey());
-                if (entry.getValue() instanceof AddAuthenticatedDataRequest) {
-                    AuthenticatedData data = ((AddAuthenticatedDataRequest) entry.getValue()).getAuthenticatedSequentialData().getAuthenticatedData();
+        List<ByteArray> expiredKeys = persistableStore.getExpiredKeys();
+        if (!expiredKeys.isEmpty()) {
+            log.info("We remove {} expired entries from our map", expiredKeys.size());
+            expiredKeys.forEach(key -> {
+                AuthenticatedDataRequest request = persistableStore.get(key);
+                persistableStore.remove(key);
+                persist(key);
+                if (request instanceof AddAuthenticatedDataRequest) {
+                    AuthenticatedData data = ((AddAuthenticatedDataRequest) request).getAuthenticatedSequentialData().getAuthenticatedData();
                     listeners.forEach(listener -> listener.onRemoved(data));
                 }
             });
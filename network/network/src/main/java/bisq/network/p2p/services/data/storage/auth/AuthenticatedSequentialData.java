@@ -20,6 +20,7 @@ package bisq.network.p2p.services.data.storage.auth;
 import bisq.common.encoding.Hex;
 import bisq.common.proto.Proto;
 import bisq.common.validation.NetworkDataValidation;
+import com.google.common.math.LongMath;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -75,7 +76,11 @@ public final class AuthenticatedSequentialData implements Proto {
     }
 
     public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > authenticatedData.getMetaData().getTtl();
+        return System.currentTimeMillis() > getExpirationDate();
+    }
+
+    public long getExpirationDate() {
+        return LongMath.saturatedAdd(created, authenticatedData.getMetaData().getTtl());
     }
 
     public boolean isSequenceNrInvalid(long seqNumberFromMap) {
@@ -147,10 +147,10 @@ public final class RefreshAuthenticatedDataRequest implements DataRequest {
     }
 
     @Override
-    public boolean isExpired() {
+    public long getExpirationDate() {
         // Not used as we do not persist RefreshAuthenticatedDataRequest but use it to recreate a new 
         // AddAuthenticatedDataRequest with the updated sequenceNumber
-        return false;
+        return Long.MAX_VALUE;
     }
 
     @Override
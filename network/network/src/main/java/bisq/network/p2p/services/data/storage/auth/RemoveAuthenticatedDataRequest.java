@@ -25,6 +25,7 @@ import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.KeyGeneration;
 import bisq.security.SignatureUtil;
+import com.google.common.math.LongMath;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -171,8 +172,8 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
     }
 
     @Override
-    public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > metaData.getTtl();
+    public long getExpirationDate() {
+        return LongMath.saturatedAdd(created, metaData.getTtl());
     }
 
     @Override
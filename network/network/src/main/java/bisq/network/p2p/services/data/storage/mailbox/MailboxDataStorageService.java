@@ -21,12 +21,14 @@ import bisq.common.data.ByteArray;
 import bisq.common.timer.Scheduler;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
 import bisq.network.p2p.services.data.storage.DataStorageService;
+import bisq.network.p2p.services.data.storage.DataStore;
 import bisq.persistence.PersistenceService;
 import bisq.security.DigestUtil;
+import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -40,7 +42,9 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     }
 
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
+    // Keys of the stored mailbox data by the receiver key id, so a node can look up the mailbox data addressed to its
+    // keys without scanning all entries.
+    private final Map<String, Set<ByteArray>> keysByReceiverKeyId = new ConcurrentHashMap<>();
     private final Scheduler scheduler;
 
     public MailboxDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
@@ -55,17 +59,58 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     }
 
     public DataStorageResult add(AddMailboxRequest request) {
+        return validateAdd(request).orElseGet(() -> addValidated(request));
+    }
+
+    /**
+     * Runs the checks which do not depend on the state of the map, like the expensive signature verification.
+     * Does not require a lock, thus it can be called in parallel for multiple requests.
+     *
+     * @return The failed result or empty if the request is valid.
+     */
+    public Optional<DataStorageResult> validateAdd(AddMailboxRequest request) {
+        MailboxSequentialData mailboxSequentialData = request.getMailboxSequentialData();
+        MailboxData mailboxData = mailboxSequentialData.getMailboxData();
+        ByteArray byteArray = new ByteArray(DigestUtil.hash(mailboxData.serialize()));
+
+        // Cheap check to avoid the signature verification for requests we have already received (e.g. re-broadcasts).
+        if (request.equals(persistableStore.get(byteArray))) {
+            return Optional.of(new DataStorageResult(false).requestAlreadyReceived());
+        }
+
+        if (mailboxSequentialData.isExpired()) {
+            return Optional.of(new DataStorageResult(false).expired());
+        }
+
+        if (mailboxData.isDataInvalid(mailboxSequentialData.getSenderPublicKeyHash())) {
+            return Optional.of(new DataStorageResult(false).dataInvalid());
+        }
+
+        if (request.isPublicKeyInvalid()) {
+            return Optional.of(new DataStorageResult(false).publicKeyHashInvalid());
+        }
+
+        if (request.isSignatureInvalid()) {
+            return Optional.of(new DataStorageResult(false).signatureInvalid());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds a request which has passed {@link #validateAdd}. Only the checks depending on the state of the map are
+     * done here while holding the lock for the key.
+     */
+    public DataStorageResult addValidated(AddMailboxRequest request) {
         MailboxSequentialData mailboxSequentialData = request.getMailboxSequentialData();
         MailboxData mailboxData = mailboxSequentialData.getMailboxData();
         byte[] hash = DigestUtil.hash(mailboxData.serialize());
         ByteArray byteArray = new ByteArray(hash);
         MailboxRequest requestFromMap;
-        Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.size() > getMaxMapSize()) {
+        synchronized (getLock(byteArray)) {
+            if (persistableStore.size() > getMaxMapSize()) {
                 return new DataStorageResult(false).maxMapSizeReached();
             }
-            requestFromMap = map.get(byteArray);
+            requestFromMap = persistableStore.get(byteArray);
             int sequenceNumberFromMap = requestFromMap != null ? requestFromMap.getSequenceNumber() : 0;
 
             if (request.equals(requestFromMap)) {
@@ -75,25 +120,10 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
             if (requestFromMap != null && mailboxSequentialData.isSequenceNrInvalid(sequenceNumberFromMap)) {
                 return new DataStorageResult(false).sequenceNrInvalid();
             }
-
-            if (mailboxSequentialData.isExpired()) {
-                return new DataStorageResult(false).expired();
-            }
-
-            if (mailboxData.isDataInvalid(mailboxSequentialData.getSenderPublicKeyHash())) {
-                return new DataStorageResult(false).dataInvalid();
-            }
-
-            if (request.isPublicKeyInvalid()) {
-                return new DataStorageResult(false).publicKeyHashInvalid();
-            }
-
-            if (request.isSignatureInvalid()) {
-                return new DataStorageResult(false).signatureInvalid();
-            }
-            map.put(byteArray, request);
+            persistableStore.put(byteArray, request);
+            addToIndex(byteArray, mailboxData);
         }
-        persist();
+        persist(byteArray);
 
         // If we had already the data (only updated seq nr) we return false as well and do not notify listeners.
         // This should only happen if client re-publishes mailbox data 
@@ -106,16 +136,34 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     }
 
     public DataStorageResult remove(RemoveMailboxRequest request) {
+        return validateRemove(request).orElseGet(() -> removeValidated(request));
+    }
+
+    /**
+     * Verifies the signature. Does not require a lock, thus it can be called in parallel for multiple requests.
+     *
+     * @return The failed result or empty if the request is valid.
+     */
+    public Optional<DataStorageResult> validateRemove(RemoveMailboxRequest request) {
+        if (request.isSignatureInvalid()) {
+            return Optional.of(new DataStorageResult(false).signatureInvalid());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the data for a request which has passed {@link #validateRemove}.
+     */
+    public DataStorageResult removeValidated(RemoveMailboxRequest request) {
         ByteArray byteArray = new ByteArray(request.getHash());
-        Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        MailboxRequest requestFromMap = map.get(byteArray);
         MailboxSequentialData sequentialDataFromMap;
-        synchronized (mapAccessLock) {
+        synchronized (getLock(byteArray)) {
+            MailboxRequest requestFromMap = persistableStore.get(byteArray);
             if (requestFromMap == null) {
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
-                map.put(byteArray, request);
-                persist();
+                persistableStore.put(byteArray, request);
+                persist(byteArray);
                 return new DataStorageResult(false).noEntry();
             }
 
@@ -123,8 +171,8 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
                 // We have had the entry already removed.
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the request, so we have the latest sequence number.
-                    map.put(byteArray, request);
-                    persist();
+                    persistableStore.put(byteArray, request);
+                    persist(byteArray);
                 }
                 return new DataStorageResult(false).alreadyRemoved();
             }
@@ -143,18 +191,42 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
                 return new DataStorageResult(false).publicKeyHashInvalid();
             }
 
-            if (request.isSignatureInvalid()) {
-                return new DataStorageResult(false).signatureInvalid();
-            }
-
-            map.put(byteArray, request);
+            persistableStore.put(byteArray, request);
+            removeFromIndex(byteArray, sequentialDataFromMap.getMailboxData());
             listeners.forEach(listener -> listener.onRemoved(sequentialDataFromMap.getMailboxData()));
         }
 
-        persist();
+        persist(byteArray);
         return new DataStorageResult(true).removedData(sequentialDataFromMap.getMailboxData());
     }
 
+    @Override
+    public void onPersistedApplied(DataStore<MailboxRequest> persisted) {
+        keysByReceiverKeyId.clear();
+        persistableStore.forEach((key, request) -> {
+            if (request instanceof AddMailboxRequest) {
+                addToIndex(key, ((AddMailboxRequest) request).getMailboxSequentialData().getMailboxData());
+            }
+        });
+    }
+
+    public List<MailboxData> getMailboxData(String receiverKeyId) {
+        Set<ByteArray> keys = keysByReceiverKeyId.get(receiverKeyId);
+        if (keys == null) {
+            return new ArrayList<>();
+        }
+        return keys.stream()
+                .map(persistableStore::get)
+                .filter(request -> request instanceof AddMailboxRequest)
+                .map(request -> ((AddMailboxRequest) request).getMailboxSequentialData().getMailboxData())
+                .collect(Collectors.toList());
+    }
+
+    public int getNumMailboxData(String receiverKeyId) {
+        Set<ByteArray> keys = keysByReceiverKeyId.get(receiverKeyId);
+        return keys == null ? 0 : keys.size();
+    }
+
     public void addListener(Listener listener) {
         listeners.add(listener);
     }
@@ -171,20 +243,16 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     int getSequenceNumber(byte[] hash) {
         ByteArray byteArray = new ByteArray(hash);
         int sequenceNumber = 0;
-        Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.containsKey(byteArray)) {
-                sequenceNumber = map.get(byteArray).getSequenceNumber();
+        synchronized (getLock(byteArray)) {
+            if (persistableStore.containsKey(byteArray)) {
+                sequenceNumber = persistableStore.get(byteArray).getSequenceNumber();
             }
         }
         return sequenceNumber;
     }
 
     boolean contains(byte[] hash) {
-        Map<ByteArray, MailboxRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            return map.containsKey(new ByteArray(hash));
-        }
+        return persistableStore.containsKey(new ByteArray(hash));
     }
 
     boolean canAddMailboxMessage(MailboxData mailboxData) {
@@ -192,13 +260,37 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
         return getSequenceNumber(hash) < Integer.MAX_VALUE;
     }
 
-    private void pruneExpired() {
-        Set<Map.Entry<ByteArray, MailboxRequest>> expiredEntries = persistableStore.getMap().entrySet().stream()
-                .filter(entry -> entry.getValue().isExpired())
-                .collect(Collectors.toSet());
-        if (!expiredEntries.isEmpty()) {
-            log.info("We remove {} expired entries from our map", expiredEntries.size());
-            expiredEntries.forEach(entry -> persistableStore.getMap().remove(entry.getKey()));
+    private void addToIndex(ByteArray key, MailboxData mailboxData) {
+        // We use compute to be atomic with the removal of empty sets in removeFromIndex
+        keysByReceiverKeyId.compute(mailboxData.getConfidentialMessage().getReceiverKeyId(),
+                (receiverKeyId, keys) -> {
+                    Set<ByteArray> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                    result.add(key);
+                    return result;
+                });
+    }
+
+    private void removeFromIndex(ByteArray key, MailboxData mailboxData) {
+        keysByReceiverKeyId.computeIfPresent(mailboxData.getConfidentialMessage().getReceiverKeyId(),
+                (receiverKeyId, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+    }
+
+    @VisibleForTesting
+    void pruneExpired() {
+        List<ByteArray> expiredKeys = persistableStore.getExpiredKeys();
+        if (!expiredKeys.isEmpty()) {
+            log.info("We remove {} expired entries from our map", expiredKeys.size());
+            expiredKeys.forEach(key -> {
+                MailboxRequest request = persistableStore.get(key);
+                persistableStore.remove(key);
+                if (request instanceof AddMailboxRequest) {
+                    removeFromIndex(key, ((AddMailboxRequest) request).getMailboxSequentialData().getMailboxData());
+                }
+                persist(key);
+            });
         }
     }
 }
@@ -20,6 +20,7 @@ package bisq.network.p2p.services.data.storage.mailbox;
 import bisq.common.proto.Proto;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.security.KeyGeneration;
+import com.google.common.math.LongMath;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -125,6 +126,10 @@ public final class MailboxSequentialData implements Proto {
     }
 
     public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > Math.min(MailboxData.MAX_TLL, mailboxData.getMetaData().getTtl());
+        return System.currentTimeMillis() > getExpirationDate();
+    }
+
+    public long getExpirationDate() {
+        return LongMath.saturatedAdd(created, Math.min(MailboxData.MAX_TLL, mailboxData.getMetaData().getTtl()));
     }
 }
@@ -24,6 +24,7 @@ import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.KeyGeneration;
 import bisq.security.SignatureUtil;
+import com.google.common.math.LongMath;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -154,8 +155,8 @@ public final class RemoveMailboxRequest implements MailboxRequest, RemoveDataReq
     }
 
     @Override
-    public boolean isExpired() {
-        return (System.currentTimeMillis() - created) > Math.min(MailboxData.MAX_TLL, metaData.getTtl());
+    public long getExpirationDate() {
+        return LongMath.saturatedAdd(created, Math.min(MailboxData.MAX_TLL, metaData.getTtl()));
     }
 
     @Override
@@ -25,8 +25,8 @@ import bisq.network.p2p.node.InboundConnection;
 import bisq.network.p2p.node.Node;
 import bisq.network.p2p.node.OutboundConnection;
 import bisq.persistence.Persistence;
-import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
+import bisq.persistence.RateLimitedPersistenceClient;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,7 +40,7 @@ import java.util.stream.Stream;
  * Maintains different collections of peers and connections
  */
 @Slf4j
-public class PeerGroupService implements PersistenceClient<PeerGroupStore> {
+public class PeerGroupService extends RateLimitedPersistenceClient<PeerGroupStore> {
 
     @Getter
     public static class Config {
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.common.util.FileUtils;
+import bisq.network.common.Address;
+import bisq.network.common.TransportType;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.persistence.PersistenceService;
+import bisq.security.SecurityService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuthorizationTokenTests {
+    private final Path tmpDir = FileUtils.createTempDir();
+    private final AuthorizationService authorizationService;
+    private final ConnectionHandshake.Request message;
+    private final String peerAddress = Address.localHost(1234).getFullAddress();
+
+    public AuthorizationTokenTests() throws Exception {
+        PersistenceService persistenceService = new PersistenceService(tmpDir.toAbsolutePath().toString());
+        SecurityService securityService = new SecurityService(persistenceService);
+        securityService.initialize();
+        authorizationService = new AuthorizationService(securityService.getProofOfWorkService());
+
+        Capability capability = new Capability(Address.localHost(2345), List.of(TransportType.CLEAR));
+        message = new ConnectionHandshake.Request(capability, null, new NetworkLoad());
+    }
+
+    @Test
+    void payloadDigestTokenIsAuthorized() {
+        AuthorizationToken token = authorizationService.createToken(message, new NetworkLoad(), peerAddress, 1, true);
+        assertThat(token.getProofOfWork().getPayload()).hasSize(32);
+
+        NetworkEnvelope received = NetworkEnvelope.fromProto(new NetworkEnvelope(token, message).toProto());
+        AuthorizationToken receivedToken = received.getAuthorizationToken();
+        assertThat(receivedToken.isUsesPayloadDigest()).isTrue();
+        assertThat(receivedToken.getReceivedPayloadDigest()).isPresent();
+        assertThat(authorizationService.isAuthorized(received.getEnvelopePayloadMessage(),
+                receivedToken,
+                new NetworkLoad(),
+                "connectionId",
+                peerAddress)).isTrue();
+    }
+
+    @Test
+    void payloadDigestTokenIsSmallerThanLegacyToken() {
+        AuthorizationToken legacyToken = authorizationService.createToken(message, new NetworkLoad(), peerAddress, 1);
+        AuthorizationToken digestToken = authorizationService.createToken(message, new NetworkLoad(), peerAddress, 1, true);
+        assertThat(legacyToken.isUsesPayloadDigest()).isFalse();
+
+        int messageSize = message.toProto().getSerializedSize();
+        int legacySize = new NetworkEnvelope(legacyToken, message).toProto().getSerializedSize();
+        int digestSize = new NetworkEnvelope(digestToken, message).toProto().getSerializedSize();
+        assertThat(legacySize - digestSize).isGreaterThanOrEqualTo(messageSize - 32);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.common.Address;
+import bisq.network.common.TransportType;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.services.peergroup.BanList;
+import bisq.security.pow.HashCashService;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ConnectionHandshakeFeaturesTest {
+    private final AuthorizationService authorizationService = new AuthorizationService(new HashCashService());
+    private final Address peerAddress = Address.localHost(1234);
+
+    @Test
+    void oldPeerVerifiesFeaturesBearingHandshake() throws Exception {
+        Capability capability = new Capability(Address.localHost(2345), new ArrayList<>(List.of(TransportType.CLEAR)));
+        ConnectionHandshake.Request request = new ConnectionHandshake.Request(capability, null, new NetworkLoad());
+        AuthorizationToken token = authorizationService.createToken(request,
+                NetworkLoad.INITIAL_LOAD,
+                peerAddress.getFullAddress(),
+                0);
+        byte[] serialized = new NetworkEnvelope(token, request, Feature.getSupportedFeatures()).toProto().toByteArray();
+
+        // An old peer drops the unknown features field of the envelope
+        bisq.network.protobuf.NetworkEnvelope oldPeersProto = bisq.network.protobuf.NetworkEnvelope.parseFrom(serialized)
+                .toBuilder()
+                .clearFeatures()
+                .build();
+
+        // The capability does not contain any field unknown to the baseline Capability proto
+        byte[] capabilityBytes = oldPeersProto.getNetworkMessage().getConnectionHandshakeRequest().getCapability().toByteArray();
+        DynamicMessage baselineCapability = DynamicMessage.parseFrom(createBaselineCapabilityDescriptor(), capabilityBytes);
+        assertThat(baselineCapability.getUnknownFields().asMap()).isEmpty();
+
+        // The old peer serializes the resolved message again for the proof of work check
+        ConnectionHandshake.Request oldPeersRequest = ConnectionHandshake.Request.fromProto(
+                oldPeersProto.getNetworkMessage().getConnectionHandshakeRequest());
+        AuthorizationToken oldPeersToken = AuthorizationToken.fromProto(oldPeersProto.getAuthorizationToken());
+        assertThat(authorizationService.isAuthorized(oldPeersRequest,
+                oldPeersToken,
+                NetworkLoad.INITIAL_LOAD,
+                null,
+                peerAddress.getFullAddress())).isTrue();
+    }
+
+    @Test
+    void featuresAreExchangedBetweenNewPeers() throws Exception {
+        List<ConnectionHandshake.Result> results = runHandshake(Feature.getSupportedFeatures());
+        assertThat(results.get(0).getPeersFeatures()).containsExactlyElementsOf(Feature.getSupportedFeatures());
+        assertThat(results.get(1).getPeersFeatures()).containsExactlyElementsOf(Feature.getSupportedFeatures());
+    }
+
+    @Test
+    void featuresAreNotSentToOldPeers() throws Exception {
+        List<ConnectionHandshake.Result> results = runHandshake(new ArrayList<>());
+        assertThat(results.get(0).getPeersFeatures()).isEmpty();
+        assertThat(results.get(1).getPeersFeatures()).isEmpty();
+    }
+
+    // Returns the result of the client and the result of the server
+    private List<ConnectionHandshake.Result> runHandshake(List<Feature> clientFeatures) throws Exception {
+        BanList banList = mock(BanList.class);
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            Address serverAddress = Address.localHost(serverSocket.getLocalPort());
+            CompletableFuture<ConnectionHandshake.Result> serverResult = CompletableFuture.supplyAsync(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    Capability serverCapability = new Capability(serverAddress, new ArrayList<>(List.of(TransportType.CLEAR)));
+                    return new ConnectionHandshake(socket,
+                            banList,
+                            10_000,
+                            serverCapability,
+                            Feature.getSupportedFeatures(),
+                            authorizationService,
+                            null).onSocket(new NetworkLoad());
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            try (Socket socket = new Socket(serverAddress.getHost(), serverAddress.getPort())) {
+                Capability clientCapability = new Capability(Address.localHost(2345), new ArrayList<>(List.of(TransportType.CLEAR)));
+                ConnectionHandshake.Result clientResult = new ConnectionHandshake(socket,
+                        banList,
+                        10_000,
+                        clientCapability,
+                        clientFeatures,
+                        authorizationService,
+                        null).start(new NetworkLoad(), serverAddress);
+                return List.of(clientResult, serverResult.join());
+            }
+        }
+    }
+
+    // Capability as defined before features got introduced
+    private static Descriptors.Descriptor createBaselineCapabilityDescriptor() throws Descriptors.DescriptorValidationException {
+        DescriptorProtos.DescriptorProto capability = DescriptorProtos.DescriptorProto.newBuilder()
+                .setName("Capability")
+                // The address is a message, but as we do not inspect it we can treat it as bytes
+                .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("address")
+                        .setNumber(1)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_BYTES)
+                        .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL))
+                .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("supportedTransportTypes")
+                        .setNumber(2)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING)
+                        .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_REPEATED))
+                .build();
+        DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("baseline_capability.proto")
+                .setSyntax("proto3")
+                .addMessageType(capability)
+                .build();
+        return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0])
+                .findMessageTypeByName("Capability");
+    }
+}
@@ -40,6 +40,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -80,7 +81,7 @@ public class ConnectionHandshakeResponderTest {
 
     @Test
     void emptyInitialEnvelopes() throws IOException {
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(Collections.emptyList());
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(Collections.emptyList());
         Exception exception = assertThrows(ConnectionException.class, handshakeResponder::verifyAndBuildRespond);
         assertThat(exception.getMessage()).contains("empty");
     }
@@ -89,7 +90,7 @@ public class ConnectionHandshakeResponderTest {
     void tooManyInitialEnvelopes() throws IOException {
         NetworkEnvelope requestNetworkEnvelope = createValidRequest();
         List<NetworkEnvelope> initialMessages = List.of(requestNetworkEnvelope, requestNetworkEnvelope);
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(initialMessages);
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(toProtos(initialMessages));
 
         Exception exception = assertThrows(ConnectionException.class, handshakeResponder::verifyAndBuildRespond);
         assertThat(exception.getMessage())
@@ -106,7 +107,7 @@ public class ConnectionHandshakeResponderTest {
                 0);
         NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(NetworkEnvelope.VERSION + 1000, token, request);
         List<NetworkEnvelope> allEnvelopesToReceive = List.of(requestNetworkEnvelope);
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(allEnvelopesToReceive);
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(toProtos(allEnvelopesToReceive));
 
         assertThrows(ConnectionException.class, handshakeResponder::verifyAndBuildRespond);
     }
@@ -121,7 +122,7 @@ public class ConnectionHandshakeResponderTest {
                 0);
         NetworkEnvelope responseEnvelope = new NetworkEnvelope(token, response);
         List<NetworkEnvelope> allEnvelopesToReceive = List.of(responseEnvelope);
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(allEnvelopesToReceive);
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(toProtos(allEnvelopesToReceive));
 
         Exception exception = assertThrows(ConnectionException.class, handshakeResponder::verifyAndBuildRespond);
 
@@ -139,7 +140,7 @@ public class ConnectionHandshakeResponderTest {
                 0);
         NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(token, request);
         List<NetworkEnvelope> allEnvelopesToReceive = List.of(requestNetworkEnvelope);
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(allEnvelopesToReceive);
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(toProtos(allEnvelopesToReceive));
 
         when(banList.isBanned(Address.localHost(1234))).thenReturn(true);
 
@@ -159,7 +160,7 @@ public class ConnectionHandshakeResponderTest {
                 5);
         NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(token, request);
         List<NetworkEnvelope> allEnvelopesToReceive = List.of(requestNetworkEnvelope);
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(allEnvelopesToReceive);
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(toProtos(allEnvelopesToReceive));
 
         Exception exception = assertThrows(ConnectionException.class, handshakeResponder::verifyAndBuildRespond);
 
@@ -178,7 +179,7 @@ public class ConnectionHandshakeResponderTest {
                 0);
         NetworkEnvelope requestNetworkEnvelope = new NetworkEnvelope(token, request);
         List<NetworkEnvelope> allEnvelopesToReceive = List.of(requestNetworkEnvelope);
-        when(networkEnvelopeSocketChannel.receiveNetworkEnvelopes()).thenReturn(allEnvelopesToReceive);
+        when(networkEnvelopeSocketChannel.receiveProtos()).thenReturn(toProtos(allEnvelopesToReceive));
 
         NetworkEnvelope responseNetworkEnvelope = handshakeResponder.verifyAndBuildRespond().getSecond();
 
@@ -196,4 +197,10 @@ public class ConnectionHandshakeResponderTest {
                 0);
         return new NetworkEnvelope(token, request);
     }
+
+    private static List<bisq.network.protobuf.NetworkEnvelope> toProtos(List<NetworkEnvelope> networkEnvelopes) {
+        return networkEnvelopes.stream()
+                .map(NetworkEnvelope::toProto)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.p2p.node.network_load.ConnectionMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionMetricsTests {
+    @Test
+    void sendLatencyPercentiles() {
+        ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+        assertThat(connectionMetrics.getMedianSendLatency()).isEqualTo(0);
+
+        for (int i = 100; i >= 1; i--) {
+            connectionMetrics.addSendLatency(i);
+        }
+        assertThat(connectionMetrics.getMedianSendLatency()).isEqualTo(50);
+        assertThat(connectionMetrics.getSendLatencyP90()).isEqualTo(90);
+        assertThat(connectionMetrics.getSendLatencyP99()).isEqualTo(99);
+        assertThat(connectionMetrics.getSendLatencyPercentile(100)).isEqualTo(100);
+
+        // Only the latest 1000 samples are considered
+        for (int i = 0; i < 1000; i++) {
+            connectionMetrics.addSendLatency(5);
+        }
+        assertThat(connectionMetrics.getSendLatencyPercentile(100)).isEqualTo(5);
+    }
+}
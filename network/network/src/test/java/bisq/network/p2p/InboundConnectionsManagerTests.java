@@ -38,6 +38,7 @@ import bisq.security.pow.ProofOfWorkService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -54,6 +55,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
 @Slf4j
@@ -146,7 +148,7 @@ public class InboundConnectionsManagerTests {
         int receivedReplies = 0;
         for (SocketChannel socketChannel : clientConnections) {
             NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
-            List<NetworkEnvelope> initialMessages = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+            List<bisq.network.protobuf.NetworkEnvelope> initialMessages = networkEnvelopeSocketChannel.receiveProtos();
 
             assertThat(initialMessages).isNotEmpty();
             receivedReplies++;
@@ -236,9 +238,8 @@ public class InboundConnectionsManagerTests {
         int receivedReplies = 0;
         for (SocketChannel socketChannel : clientConnections) {
             NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
-            List<NetworkEnvelope> initialMessages = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
-
-            assertThat(initialMessages).isEmpty();
+            // The peer closes the connection without a reply
+            assertThrows(EOFException.class, networkEnvelopeSocketChannel::receiveProtos);
             receivedReplies++;
         }
 
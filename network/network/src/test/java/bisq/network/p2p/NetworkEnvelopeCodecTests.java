@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.p2p.node.envelope.ByteBufferPool;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeCodec;
+import bisq.network.protobuf.AuthorizationToken;
+import bisq.network.protobuf.NetworkEnvelope;
+import bisq.security.protobuf.ProofOfWork;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NetworkEnvelopeCodecTests {
+
+    @Test
+    void encodeIsCompatibleWithWriteDelimitedTo() throws IOException {
+        for (NetworkEnvelope proto : new NetworkEnvelope[]{createProto(0), createProto(100), createProto(300_000)}) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            proto.writeDelimitedTo(outputStream);
+            byte[] expected = outputStream.toByteArray();
+
+            byte[] array = new byte[NetworkEnvelopeCodec.getFramedSize(proto)];
+            assertThat(NetworkEnvelopeCodec.encode(proto, array)).isEqualTo(expected.length);
+            assertThat(array).isEqualTo(expected);
+
+            ByteBuffer byteBuffer = ByteBuffer.allocateDirect(expected.length + 10);
+            assertThat(NetworkEnvelopeCodec.encode(proto, byteBuffer)).isEqualTo(expected.length);
+            assertThat(byteBuffer.position()).isEqualTo(expected.length);
+            byteBuffer.flip();
+            byte[] written = new byte[byteBuffer.remaining()];
+            byteBuffer.get(written);
+            assertThat(written).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void decodeFromReusedBuffer() throws IOException {
+        NetworkEnvelope first = createProto(1000);
+        NetworkEnvelope second = createProto(500);
+        byte[] firstBytes = first.toByteArray();
+        byte[] secondBytes = second.toByteArray();
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(4096);
+        byteBuffer.put(firstBytes).put(secondBytes).flip();
+
+        NetworkEnvelope decodedFirst = NetworkEnvelopeCodec.decode(byteBuffer, firstBytes.length);
+        assertThat(byteBuffer.position()).isEqualTo(firstBytes.length);
+        NetworkEnvelope decodedSecond = NetworkEnvelopeCodec.decode(byteBuffer, secondBytes.length);
+        assertThat(byteBuffer.hasRemaining()).isFalse();
+
+        byte[] array = Arrays.copyOf(secondBytes, 4096);
+        NetworkEnvelope decodedFromArray = NetworkEnvelopeCodec.decode(array, 0, secondBytes.length);
+
+        // Overwriting the buffers must not affect the parsed messages
+        byteBuffer.clear();
+        byteBuffer.put(new byte[4096]);
+        Arrays.fill(array, (byte) 0);
+        assertThat(decodedFirst).isEqualTo(first);
+        assertThat(decodedSecond).isEqualTo(second);
+        assertThat(decodedFromArray).isEqualTo(second);
+    }
+
+    @Test
+    void byteBufferPool() {
+        ByteBufferPool pool = new ByteBufferPool(1);
+        ByteBuffer buffer = pool.acquire(1500);
+        assertThat(buffer.isDirect()).isTrue();
+        assertThat(buffer.capacity()).isEqualTo(2048);
+        pool.release(buffer);
+        assertThat(pool.acquire(2000)).isSameAs(buffer);
+        assertThat(pool.acquire(2000)).isNotSameAs(buffer);
+
+        ByteBuffer large = pool.acquire(2 * 1024 * 1024);
+        assertThat(large.isDirect()).isFalse();
+        assertThat(pool.acquire(10).capacity()).isEqualTo(1024);
+    }
+
+    private static NetworkEnvelope createProto(int payloadSize) {
+        byte[] payload = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(payload);
+        return NetworkEnvelope.newBuilder()
+                .setVersion(1)
+                .setAuthorizationToken(AuthorizationToken.newBuilder()
+                        .setProofOfWork(ProofOfWork.newBuilder()
+                                .setPayload(ByteString.copyFrom(payload))
+                                .setCounter(payloadSize))
+                        .setMessageCounter(1))
+                .build();
+    }
+}
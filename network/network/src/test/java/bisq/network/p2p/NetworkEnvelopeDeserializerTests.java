@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.p2p.node.envelope.NetworkEnvelopeCodec;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeDeserializer;
+import bisq.network.p2p.node.envelope.ProtoBufMessageLengthWriter;
+import bisq.network.protobuf.AuthorizationToken;
+import bisq.network.protobuf.NetworkEnvelope;
+import bisq.security.protobuf.ProofOfWork;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NetworkEnvelopeDeserializerTests {
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(8 * 1024);
+    private final NetworkEnvelopeDeserializer deserializer = new NetworkEnvelopeDeserializer(byteBuffer);
+
+    @Test
+    void rejectsOversizedLengthPrefix() {
+        byteBuffer.clear();
+        ProtoBufMessageLengthWriter.writeToBuffer(2_000_000_000, byteBuffer);
+        byteBuffer.put(new byte[100]);
+        byteBuffer.flip();
+        assertThrows(InvalidProtocolBufferException.class, deserializer::readFromByteBuffer);
+
+        byteBuffer.clear();
+        ProtoBufMessageLengthWriter.writeToBuffer(NetworkEnvelopeCodec.MAX_ENVELOPE_SIZE + 1, byteBuffer);
+        byteBuffer.flip();
+        assertThrows(InvalidProtocolBufferException.class, deserializer::readFromByteBuffer);
+    }
+
+    @Test
+    void readsMessageSpreadOverManyReads() throws IOException {
+        ProofOfWork proofOfWork = ProofOfWork.newBuilder()
+                .setPayload(ByteString.copyFrom(new byte[200_000]))
+                .build();
+        NetworkEnvelope proto = NetworkEnvelope.newBuilder()
+                .setVersion(1)
+                .setAuthorizationToken(AuthorizationToken.newBuilder().setProofOfWork(proofOfWork))
+                .build();
+        byte[] encoded = new byte[NetworkEnvelopeCodec.getFramedSize(proto)];
+        NetworkEnvelopeCodec.encode(proto, encoded);
+
+        List<NetworkEnvelope> received = new ArrayList<>();
+        for (int offset = 0; offset < encoded.length; offset += byteBuffer.capacity()) {
+            byteBuffer.clear();
+            byteBuffer.put(encoded, offset, Math.min(byteBuffer.capacity(), encoded.length - offset));
+            byteBuffer.flip();
+            deserializer.readFromByteBuffer();
+            received.addAll(deserializer.getAllProtos());
+        }
+        assertThat(received).containsExactly(proto);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.authorization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplayWindowTest {
+    @Test
+    void rejectsReplayedAndTooOldCounters() {
+        ReplayWindow replayWindow = new ReplayWindow();
+        assertThat(replayWindow.tryAccept(1)).isTrue();
+        assertThat(replayWindow.tryAccept(1)).isFalse();
+
+        // Out of order inside the window
+        assertThat(replayWindow.tryAccept(5)).isTrue();
+        assertThat(replayWindow.isAcceptable(3)).isTrue();
+        assertThat(replayWindow.tryAccept(3)).isTrue();
+        assertThat(replayWindow.isAcceptable(3)).isFalse();
+        assertThat(replayWindow.tryAccept(3)).isFalse();
+        assertThat(replayWindow.tryAccept(5)).isFalse();
+
+        // Sliding the window clears the bits of skipped counters which share the bit position with old counters
+        int highest = 5 + ReplayWindow.WINDOW_SIZE - 1;
+        assertThat(replayWindow.tryAccept(highest)).isTrue();
+        assertThat(replayWindow.tryAccept(highest - 1)).isTrue();
+        assertThat(replayWindow.tryAccept(5)).isFalse();
+        assertThat(replayWindow.tryAccept(1 + ReplayWindow.WINDOW_SIZE)).isTrue();
+
+        // Older than the window
+        assertThat(replayWindow.tryAccept(highest - ReplayWindow.WINDOW_SIZE)).isFalse();
+        assertThat(replayWindow.tryAccept(highest - ReplayWindow.WINDOW_SIZE + 2)).isTrue();
+
+        // Jump larger than the window
+        int jumped = highest + 10 * ReplayWindow.WINDOW_SIZE;
+        assertThat(replayWindow.tryAccept(jumped)).isTrue();
+        assertThat(replayWindow.tryAccept(jumped - 1)).isTrue();
+        assertThat(replayWindow.tryAccept(jumped)).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomDataFilterTest {
+    private final Random random = new Random(42);
+
+    @Test
+    void noFalseNegatives() {
+        List<FilterEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(new FilterEntry(randomHash(), random.nextInt(10)));
+        }
+        BloomDataFilter bloomDataFilter = BloomDataFilter.from(entries);
+        entries.forEach(entry -> assertThat(bloomDataFilter.mightContain(entry)).isTrue());
+
+        BloomDataFilter fromProto = BloomDataFilter.fromProto(bloomDataFilter.toProto());
+        entries.forEach(entry -> assertThat(fromProto.mightContain(entry)).isTrue());
+    }
+
+    @Test
+    void falsePositiveRate() {
+        List<FilterEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(new FilterEntry(randomHash(), 1));
+        }
+        BloomDataFilter bloomDataFilter = BloomDataFilter.from(entries);
+
+        int numFalsePositives = 0;
+        int numTests = 100_000;
+        for (int i = 0; i < numTests; i++) {
+            if (bloomDataFilter.mightContain(new FilterEntry(randomHash(), 1))) {
+                numFalsePositives++;
+            }
+        }
+        // Expected rate is 0.1%; we allow some tolerance
+        assertThat(numFalsePositives).isLessThan(numTests / 200);
+
+        // A newer sequence number of a known hash must not be reported as known (except for false positives)
+        int numNewerReportedAsKnown = 0;
+        for (FilterEntry entry : entries) {
+            if (bloomDataFilter.mightContain(new FilterEntry(entry.getHash(), 2))) {
+                numNewerReportedAsKnown++;
+            }
+        }
+        assertThat(numNewerReportedAsKnown).isLessThan(entries.size() / 200);
+    }
+
+    private byte[] randomHash() {
+        byte[] hash = new byte[20];
+        random.nextBytes(hash);
+        return hash;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataFilterTest {
+    private final Random random = new Random(42);
+
+    @Test
+    void containsMatchesListContains() {
+        List<FilterEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.add(new FilterEntry(randomHash(), random.nextInt(10)));
+        }
+        DataFilter dataFilter = new DataFilter(new ArrayList<>(entries));
+
+        for (FilterEntry entry : entries) {
+            assertThat(dataFilter.contains(entry)).isTrue();
+            FilterEntry newerEntry = new FilterEntry(entry.getHash(), entry.getSequenceNumber() + 10);
+            assertThat(dataFilter.contains(newerEntry)).isFalse();
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat(dataFilter.contains(new FilterEntry(randomHash(), 0))).isFalse();
+        }
+    }
+
+    @Test
+    void containsWithDuplicateHashes() {
+        byte[] hash = randomHash();
+        List<FilterEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(new FilterEntry(randomHash(), 0));
+        }
+        entries.add(new FilterEntry(hash, 1));
+        entries.add(new FilterEntry(hash, 2));
+        entries.add(new FilterEntry(hash, 3));
+        DataFilter dataFilter = new DataFilter(entries);
+
+        assertThat(dataFilter.contains(new FilterEntry(hash, 1))).isTrue();
+        assertThat(dataFilter.contains(new FilterEntry(hash, 2))).isTrue();
+        assertThat(dataFilter.contains(new FilterEntry(hash, 3))).isTrue();
+        assertThat(dataFilter.contains(new FilterEntry(hash, 4))).isFalse();
+    }
+
+    private byte[] randomHash() {
+        byte[] hash = new byte[20];
+        random.nextBytes(hash);
+        return hash;
+    }
+}
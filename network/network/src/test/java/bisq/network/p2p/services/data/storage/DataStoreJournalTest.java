@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class DataStoreJournalTest {
+    @TempDir
+    private Path tempDir;
+    private Path storePath;
+    private final ByteArray key = new ByteArray(new byte[]{1, 2, 3});
+
+    @BeforeEach
+    void setUp() {
+        storePath = tempDir.resolve("test_store.protobuf");
+    }
+
+    @Test
+    void replaysJournalOfSnapshotGeneration() {
+        DataStoreJournal<DataRequest> journal = new DataStoreJournal<>(storePath);
+        journal.startGeneration(1);
+        // The key is not in the map, so a removal gets journaled
+        journal.append(List.of(key), new DataStore<>());
+
+        DataStore<DataRequest> snapshot = createSnapshot();
+        DataStoreJournal<DataRequest> restarted = new DataStoreJournal<>(storePath);
+        restarted.replay(snapshot, 1);
+        assertThat(snapshot.containsKey(key)).isFalse();
+        assertThat(restarted.getNumEntries()).isEqualTo(1);
+        assertThat(restarted.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresJournalLeftOverFromOlderSnapshot() {
+        DataStoreJournal<DataRequest> journal = new DataStoreJournal<>(storePath);
+        journal.startGeneration(1);
+        journal.append(List.of(key), new DataStore<>());
+        // Simulates a crash after the snapshot of the next generation got written but before the journal of the
+        // previous generation got deleted
+        long nextGeneration = journal.getNextGeneration();
+        assertThat(nextGeneration).isEqualTo(2);
+
+        DataStore<DataRequest> snapshot = createSnapshot();
+        DataStoreJournal<DataRequest> restarted = new DataStoreJournal<>(storePath);
+        restarted.replay(snapshot, nextGeneration);
+        assertThat(snapshot.containsKey(key)).isTrue();
+        assertThat(restarted.getNumEntries()).isEqualTo(0);
+        assertThat(storePath.resolveSibling("test_store_1" + DataStoreJournal.EXTENSION)).doesNotExist();
+
+        // After compaction only the journal of the new generation is kept and replayed
+        restarted.append(List.of(key), new DataStore<>());
+        restarted.startGeneration(restarted.getNextGeneration());
+        assertThat(storePath.resolveSibling("test_store_2" + DataStoreJournal.EXTENSION)).doesNotExist();
+        snapshot = createSnapshot();
+        new DataStoreJournal<DataRequest>(storePath).replay(snapshot, 3);
+        assertThat(snapshot.containsKey(key)).isTrue();
+    }
+
+    private DataStore<DataRequest> createSnapshot() {
+        DataStore<DataRequest> store = new DataStore<>();
+        store.put(key, mock(DataRequest.class), new byte[0]);
+        return store;
+    }
+}
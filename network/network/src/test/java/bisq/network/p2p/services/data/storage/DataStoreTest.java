@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DataStoreTest {
+    private final ByteArray expired = new ByteArray(new byte[]{1});
+    private final ByteArray oldest = new ByteArray(new byte[]{2});
+    private final ByteArray newest = new ByteArray(new byte[]{3});
+
+    @Test
+    void prunesExpiredAndOldestEntries() {
+        DataStore<DataRequest> store = createStore();
+        assertThat(store.getExpiredKeys()).containsExactly(expired);
+
+        store.prune(1);
+        assertThat(store.getKeys()).containsExactly(newest);
+    }
+
+    @Test
+    void returnsRequestAndForgetsRemovedOne() {
+        DataStore<DataRequest> store = createStore();
+        DataRequest request = mock(DataRequest.class);
+        store.put(oldest, request, new byte[0]);
+        assertThat(store.get(oldest)).isSameAs(request);
+        assertThat(store.size()).isEqualTo(3);
+
+        store.remove(oldest);
+        assertThat(store.containsKey(oldest)).isFalse();
+        assertThat(store.get(oldest)).isNull();
+    }
+
+    @Test
+    void serializesSameBytesAsProto() throws InvalidProtocolBufferException {
+        DataStore<DataRequest> store = createStore();
+        store.setSnapshotGeneration(5);
+        assertThat(store.serialize()).isEqualTo(store.toProto().toByteArray());
+        assertThat(store.toAny().unpack(bisq.network.protobuf.DataStore.class)).isEqualTo(store.toProto());
+
+        store.remove(expired);
+        store.remove(oldest);
+        store.remove(newest);
+        store.setSnapshotGeneration(0);
+        assertThat(store.serialize()).isEqualTo(store.toProto().toByteArray());
+    }
+
+    private DataStore<DataRequest> createStore() {
+        long now = System.currentTimeMillis();
+        DataStore<DataRequest> store = new DataStore<>();
+        store.put(expired, createRequest(now - 2000, now - 1000), new byte[0]);
+        store.put(oldest, createRequest(now - 2000, Long.MAX_VALUE), new byte[0]);
+        store.put(newest, createRequest(now - 1000, Long.MAX_VALUE), new byte[0]);
+        return store;
+    }
+
+    private DataRequest createRequest(long created, long expirationDate) {
+        DataRequest request = mock(DataRequest.class);
+        when(request.getCreated()).thenReturn(created);
+        when(request.getExpirationDate()).thenReturn(expirationDate);
+        return request;
+    }
+}
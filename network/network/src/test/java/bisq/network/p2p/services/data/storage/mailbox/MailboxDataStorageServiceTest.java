@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.mailbox;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.confidential.ConfidentialMessage;
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.HybridEncryption;
+import bisq.security.KeyGeneration;
+import bisq.security.SignatureUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MailboxDataStorageServiceTest {
+    private static final String RECEIVER_KEY_ID = "receiverKeyId";
+
+    @TempDir
+    private Path tempDir;
+    private MailboxDataStorageService service;
+    private KeyPair senderKeyPair;
+    private KeyPair receiverKeyPair;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        PersistenceService persistenceService = new PersistenceService(tempDir.toAbsolutePath().toString());
+        service = new MailboxDataStorageService(persistenceService, "test", "MailboxDataStore");
+        senderKeyPair = KeyGeneration.generateKeyPair();
+        receiverKeyPair = KeyGeneration.generateKeyPair();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void addAndRemoveUpdateIndex() throws GeneralSecurityException {
+        MailboxData mailboxData = createMailboxData("msg", TimeUnit.DAYS.toMillis(1));
+        assertThat(service.add(AddMailboxRequest.from(mailboxData, senderKeyPair, receiverKeyPair.getPublic()))
+                .isSuccess()).isTrue();
+        assertThat(service.getNumMailboxData(RECEIVER_KEY_ID)).isEqualTo(1);
+        assertThat(service.getMailboxData(RECEIVER_KEY_ID)).containsExactly(mailboxData);
+        assertThat(service.getMailboxData("otherKeyId")).isEmpty();
+
+        assertThat(service.remove(RemoveMailboxRequest.from(mailboxData, receiverKeyPair)).isSuccess()).isTrue();
+        assertThat(service.getNumMailboxData(RECEIVER_KEY_ID)).isEqualTo(0);
+        assertThat(service.getMailboxData(RECEIVER_KEY_ID)).isEmpty();
+        // The remove request is kept in the store to track the sequence number, but it is not indexed
+        assertThat(service.persistableStore.size()).isEqualTo(1);
+    }
+
+    @Test
+    void onPersistedAppliedRebuildsIndex() throws GeneralSecurityException {
+        MailboxData added = createMailboxData("added", TimeUnit.DAYS.toMillis(1));
+        MailboxData removed = createMailboxData("removed", TimeUnit.DAYS.toMillis(1));
+        // Putting the requests directly into the store bypasses the index, like applying the persisted store does
+        service.persistableStore.put(hash(added),
+                AddMailboxRequest.from(added, senderKeyPair, receiverKeyPair.getPublic()));
+        service.persistableStore.put(hash(removed), RemoveMailboxRequest.from(removed, receiverKeyPair));
+        assertThat(service.getNumMailboxData(RECEIVER_KEY_ID)).isEqualTo(0);
+
+        service.onPersistedApplied(service.persistableStore);
+        assertThat(service.getNumMailboxData(RECEIVER_KEY_ID)).isEqualTo(1);
+        assertThat(service.getMailboxData(RECEIVER_KEY_ID)).containsExactly(added);
+    }
+
+    @Test
+    void pruneExpiredUpdatesIndex() throws GeneralSecurityException {
+        MailboxData valid = createMailboxData("valid", TimeUnit.DAYS.toMillis(1));
+        assertThat(service.add(AddMailboxRequest.from(valid, senderKeyPair, receiverKeyPair.getPublic()))
+                .isSuccess()).isTrue();
+
+        MailboxData expired = createMailboxData("expired", 1000);
+        // The expiry check is done in validateAdd, so we add the already expired request with addValidated
+        assertThat(service.addValidated(createAddRequest(expired, System.currentTimeMillis() - 2000))
+                .isSuccess()).isTrue();
+        assertThat(service.getNumMailboxData(RECEIVER_KEY_ID)).isEqualTo(2);
+
+        service.pruneExpired();
+        assertThat(service.getNumMailboxData(RECEIVER_KEY_ID)).isEqualTo(1);
+        assertThat(service.getMailboxData(RECEIVER_KEY_ID)).containsExactly(valid);
+        assertThat(service.persistableStore.containsKey(hash(expired))).isFalse();
+    }
+
+    private MailboxData createMailboxData(String message, long ttl) throws GeneralSecurityException {
+        bisq.network.protobuf.ConfidentialMessage proto = bisq.network.protobuf.ConfidentialMessage.newBuilder()
+                .setConfidentialData(HybridEncryption.encryptAndSign(message.getBytes(),
+                        receiverKeyPair.getPublic(),
+                        senderKeyPair).toProto())
+                .setReceiverKeyId(RECEIVER_KEY_ID)
+                .build();
+        return new MailboxData(ConfidentialMessage.fromProto(proto), new MetaData(ttl, "TestMailboxMessage"));
+    }
+
+    private AddMailboxRequest createAddRequest(MailboxData mailboxData, long created) throws GeneralSecurityException {
+        MailboxSequentialData mailboxSequentialData = new MailboxSequentialData(mailboxData,
+                DigestUtil.hash(senderKeyPair.getPublic().getEncoded()),
+                DigestUtil.hash(receiverKeyPair.getPublic().getEncoded()),
+                receiverKeyPair.getPublic(),
+                created,
+                1);
+        byte[] signature = SignatureUtil.sign(mailboxSequentialData.serialize(), senderKeyPair.getPrivate());
+        return new AddMailboxRequest(mailboxSequentialData, signature, senderKeyPair.getPublic());
+    }
+
+    private static ByteArray hash(MailboxData mailboxData) {
+        return new ByteArray(DigestUtil.hash(mailboxData.serialize()));
+    }
+}
@@ -60,13 +60,17 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
         return Optional.empty();
     }
 
-    public synchronized void write(T persistableStore) {
+    /**
+     * @return True if the store file has been replaced by the new content
+     */
+    public synchronized boolean write(T persistableStore) {
         storeFileManager.createParentDirectoriesIfNotExisting();
 
         try {
             writeStoreToTempFile(persistableStore);
             storeFileManager.tryToBackupCurrentStoreFile();
             storeFileManager.renameTempFileToCurrentFile();
+            return true;
 
         } catch (CouldNotSerializePersistableStore e) {
             log.error("Couldn't serialize " + persistableStore, e);
@@ -75,6 +79,7 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
             log.error("Couldn't write persistable store to disk. Trying restore backup.", e);
             storeFileManager.restoreBackupFileIfCurrentFileNotExisting();
         }
+        return false;
     }
 
     private PersistableStore<?> readStoreFromFile() throws IOException {
@@ -19,12 +19,14 @@ package bisq.persistence;
 
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.StringUtils;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
@@ -32,40 +34,71 @@ import java.util.function.Consumer;
 public class Persistence<T extends PersistableStore<T>> {
     public static final String EXTENSION = ".protobuf";
 
-    private static final ExecutorService executorService = ExecutorFactory.newSingleThreadExecutor("Persistence-io-pool");
+    // Writes of different store files run concurrently on a shared bounded pool. Each Persistence instance submits to
+    // its own sequential executor on top of that pool, so tasks for the same file keep their order.
+    private static final ExecutorService ioExecutorService = ExecutorFactory.newFixedThreadPool("Persistence-io-pool", 4);
+    // Reads at startup are independent of each other, so we parse the store files in parallel.
+    // Read and write of the same store file are synchronized by the PersistableStoreReaderWriter.
+    private static final ExecutorService readExecutorService = ExecutorFactory.newFixedThreadPool("Persistence-read-pool");
 
     @Getter
     private final Path storePath;
 
     private final PersistableStoreReaderWriter<T> persistableStoreReaderWriter;
+    private final Executor executor;
 
     public Persistence(String directory, String fileName) {
         String storageFileName = StringUtils.camelCaseToSnakeCase(fileName);
         storePath = Path.of(directory, storageFileName + EXTENSION);
         var storeFileManager = new PersistableStoreFileManager(storePath);
         persistableStoreReaderWriter = new PersistableStoreReaderWriter<>(storeFileManager);
+        //noinspection UnstableApiUsage
+        executor = MoreExecutors.newSequentialExecutor(ioExecutorService);
     }
 
     public CompletableFuture<Optional<T>> readAsync(Consumer<T> consumer) {
-        return readAsync().whenComplete((result, throwable) -> result.ifPresent(consumer));
+        return CompletableFuture.supplyAsync(() -> {
+            long ts = System.currentTimeMillis();
+            long fileSize = storePath.toFile().length();
+            Optional<T> result = persistableStoreReaderWriter.read();
+            result.ifPresent(consumer);
+            if (result.isPresent()) {
+                log.info("Read and applied {} ({} KB) in {} ms",
+                        storePath.getFileName(), fileSize / 1024, System.currentTimeMillis() - ts);
+            }
+            return result;
+        }, readExecutorService);
     }
 
     public CompletableFuture<Optional<T>> readAsync() {
-        return CompletableFuture.supplyAsync(persistableStoreReaderWriter::read, executorService);
+        return CompletableFuture.supplyAsync(persistableStoreReaderWriter::read, readExecutorService);
     }
 
     public CompletableFuture<Void> persistAsync(T serializable) {
         return CompletableFuture.runAsync(() -> {
             Thread.currentThread().setName("Persistence.persist-" + storePath);
             persist(serializable);
-        }, executorService);
+        }, executor);
     }
 
     public CompletableFuture<Void> flush() {
-        return CompletableFuture.runAsync(() -> Thread.currentThread().setName("Flush-Persistence.persist-" + storePath), executorService);
+        return CompletableFuture.runAsync(() -> Thread.currentThread().setName("Flush-Persistence.persist-" + storePath), executor);
     }
 
-    protected void persist(T persistableStore) {
-        persistableStoreReaderWriter.write(persistableStore);
+    /**
+     * Runs the task on the IO executor of that store, so that it gets executed in order with the write tasks.
+     * Used for clients which manage additional files next to the store file (e.g. a journal).
+     */
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    /**
+     * Writes the store synchronously. Must only be called from a task executed by runAsync or from a shutdown hook.
+     *
+     * @return True if the store file has been written successfully
+     */
+    public boolean persist(T persistableStore) {
+        return persistableStoreReaderWriter.write(persistableStore);
     }
 }
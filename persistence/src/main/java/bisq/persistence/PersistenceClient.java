@@ -39,6 +39,10 @@ public interface PersistenceClient<T extends PersistableStore<T>> {
     default void onPersistedApplied(T persisted) {
     }
 
+    default ReadPriority getReadPriority() {
+        return ReadPriority.HIGH;
+    }
+
     Persistence<T> getPersistence();
 
     PersistableStore<T> getPersistableStore();
@@ -23,6 +23,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -61,15 +62,23 @@ public class PersistenceService {
         return persistence;
     }
 
+    /**
+     * Reads all stores in parallel. Clients with ReadPriority.HIGH get scheduled first.
+     */
     public CompletableFuture<Boolean> readAllPersisted() {
+        long ts = System.currentTimeMillis();
+        long totalSize = clients.stream()
+                .mapToLong(client -> client.getPersistence().getStorePath().toFile().length())
+                .sum();
         return CompletableFutureUtils.allOf(clients.stream()
+                        .sorted(Comparator.comparing(PersistenceClient::getReadPriority))
                         .map(persistenceClient -> persistenceClient.readPersisted()
                                 .whenComplete((optionalResult, throwable) -> {
                                     String storagePath = persistenceClient.getPersistence().getStorePath()
                                             .toAbsolutePath().toString();
                                     if (throwable == null) {
                                         if (optionalResult.isPresent()) {
-                                            log.info("Read persisted data from {}", storagePath);
+                                            log.debug("Read persisted data from {}", storagePath);
                                         } else {
                                             log.debug("No persisted data at {} found", storagePath);
                                         }
@@ -78,7 +87,11 @@ public class PersistenceService {
                                         throwable.printStackTrace();
                                     }
                                 })))
-                .thenApply(list -> true);
+                .thenApply(list -> {
+                    log.info("Read {} persisted stores ({} KB) in {} ms",
+                            clients.size(), totalSize / 1024, System.currentTimeMillis() - ts);
+                    return true;
+                });
     }
 
     public CompletableFuture<Boolean> persistAllClients() {
@@ -17,28 +17,47 @@
 
 package bisq.persistence;
 
+import bisq.common.threading.ExecutorFactory;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This implementation of PersistenceClient drops persist requests if they happen too frequently.
- * It registers a shutdown hook and persists at shutdown. If the JVM got terminated non-gracefully
- * (e.g. kill signal or JVM crash) the shutdown hook is not executed (but any other approach to write in such cases
- * would fail as well).
- * As there is no guarantee that the last data are persisted in case of such unexpected terminations, it should be only
- * used if data loss is not critical (e.g. network data) and when write frequency is rather high.
+ * This implementation of PersistenceClient coalesces persist requests into deferred writes.
+ * A persist call marks the store as dirty and schedules a write which is delayed until no further persist call happened
+ * within getWriteDelayInMs, but not longer than getMaxWriteLatencyInMs after the store became dirty. Two writes are at
+ * least getMaxWriteRateInMs apart. Persist calls while a write is scheduled are merged into that write, and calls
+ * during a write in progress schedule a trailing write, so the last state is always written.
+ * The store gets cloned on the IO thread, thus the store must support concurrent reads.
+ * <p>
+ * It registers a shutdown hook and persists at shutdown if the store is dirty. If the JVM got terminated
+ * non-gracefully (e.g. kill signal or JVM crash) the shutdown hook is not executed and changes within the last
+ * max latency are lost. It should be only used if such data loss is not critical (e.g. network data) and when write
+ * frequency is rather high.
  */
 @Slf4j
 public abstract class RateLimitedPersistenceClient<T extends PersistableStore<T>> implements PersistenceClient<T> {
-    private volatile long lastWrite;
+    private static final ScheduledExecutorService scheduler = ExecutorFactory.newSingleThreadScheduledExecutor("RateLimitedPersistenceClient-scheduler");
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private boolean dirty;
+    private long dirtySince;
+    private long lastPersistRequest;
+    private long lastWrite;
+    private CompletableFuture<Boolean> pendingWrite;
+
+    @Getter
+    private volatile long numWrites;
     @Getter
-    private volatile boolean dropped;
-    private volatile boolean writeInProgress;
+    private volatile long numCoalescedPersistRequests;
+    @Getter
+    private volatile long maxDirtyDurationInMs;
 
     public RateLimitedPersistenceClient() {
-        //todo
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             Thread.currentThread().setName("RateLimitedPersistenceClient-shutdownHook-" + getPersistence().getStorePath());
             persistOnShutdown();
@@ -47,31 +66,101 @@ public abstract class RateLimitedPersistenceClient<T extends PersistableStore<T>
 
     @Override
     public CompletableFuture<Boolean> persist() {
-        boolean tooFast = System.currentTimeMillis() - lastWrite < getMaxWriteRateInMs();
-        dropped = tooFast || writeInProgress;
-        if (dropped) {
-            return CompletableFuture.completedFuture(false);
-        } else {
-            lastWrite = System.currentTimeMillis();
-            writeInProgress = true;
-            dropped = false;
-            return getPersistence()
-                    .persistAsync(getPersistableStore().getClone())
-                    .handle((r, t) -> {
-                        writeInProgress = false;
-                        return true;
-                    });
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            lastPersistRequest = now;
+            if (!dirty) {
+                dirty = true;
+                dirtySince = now;
+            }
+            if (pendingWrite != null) {
+                numCoalescedPersistRequests++;
+                return pendingWrite;
+            }
+            pendingWrite = new CompletableFuture<>();
+            schedule(getNextWriteTime() - now);
+            return pendingWrite;
         }
     }
 
+    /**
+     * Minimum interval between two writes.
+     */
     protected long getMaxWriteRateInMs() {
         return 1000;
     }
 
+    /**
+     * Quiet period after the last persist call before we write.
+     */
+    protected long getWriteDelayInMs() {
+        return 200;
+    }
+
+    /**
+     * Max. time a change stays unpersisted if persist gets called continuously.
+     */
+    protected long getMaxWriteLatencyInMs() {
+        return 5000;
+    }
+
+    public long getDirtyDurationInMs() {
+        synchronized (lock) {
+            return dirty ? System.currentTimeMillis() - dirtySince : 0;
+        }
+    }
+
+    public boolean hasPendingWrite() {
+        synchronized (lock) {
+            return pendingWrite != null;
+        }
+    }
+
+    private long getNextWriteTime() {
+        long debounced = Math.min(lastPersistRequest + getWriteDelayInMs(), dirtySince + getMaxWriteLatencyInMs());
+        return Math.max(lastWrite + getMaxWriteRateInMs(), debounced);
+    }
+
+    private void schedule(long delay) {
+        scheduler.schedule(this::onWriteTimer, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void onWriteTimer() {
+        CompletableFuture<Boolean> future;
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            long nextWriteTime = getNextWriteTime();
+            if (nextWriteTime > now) {
+                // Persist got called since we scheduled, so we move the write out.
+                schedule(nextWriteTime - now);
+                return;
+            }
+            future = pendingWrite;
+            pendingWrite = null;
+            maxDirtyDurationInMs = Math.max(maxDirtyDurationInMs, now - dirtySince);
+            dirty = false;
+            lastWrite = now;
+            numWrites++;
+        }
+
+        // Persist calls from now on mark the store dirty again and schedule a trailing write, which gets executed
+        // after this write as the tasks of one store are executed sequentially.
+        getPersistence().runAsync(() -> getPersistence().persist(getPersistableStore().getClone()))
+                .whenComplete((nil, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Writing {} failed", getPersistence().getStorePath(), throwable);
+                    }
+                    future.complete(throwable == null);
+                });
+    }
+
     private void persistOnShutdown() {
-        if (dropped) {
-            dropped = false;
-            getPersistence().persist(getPersistableStore().getClone());
+        synchronized (lock) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
         }
+        getPersistence().persist(getPersistableStore().getClone());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitedPersistenceClientTests {
+    @Getter
+    private static class TimestampClient extends RateLimitedPersistenceClient<TimestampStore> {
+        private final TimestampStore persistableStore = new TimestampStore();
+        private final Persistence<TimestampStore> persistence;
+
+        TimestampClient(Path directory) {
+            persistence = new Persistence<>(directory.toString(), "timestampStore");
+        }
+
+        @Override
+        protected long getMaxWriteRateInMs() {
+            return 100;
+        }
+
+        @Override
+        protected long getWriteDelayInMs() {
+            return 20;
+        }
+
+        @Override
+        protected long getMaxWriteLatencyInMs() {
+            return 200;
+        }
+    }
+
+    @Test
+    void coalescePersistCalls(@TempDir Path tempDir) throws Exception {
+        PersistableStoreResolver.addResolver(new TimestampStore().getResolver());
+        var client = new TimestampClient(tempDir);
+
+        CompletableFuture<Boolean> first = client.persist();
+        for (long i = 0; i < 10; i++) {
+            client.getPersistableStore().getTimestampsByProfileId().put("A", i);
+            assertThat(client.persist()).isSameAs(first);
+        }
+        assertThat(client.hasPendingWrite()).isTrue();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(client.getNumWrites()).isEqualTo(1);
+        assertThat(client.getNumCoalescedPersistRequests()).isEqualTo(10);
+        assertThat(client.hasPendingWrite()).isFalse();
+        assertThat(client.getDirtyDurationInMs()).isZero();
+
+        Optional<TimestampStore> persisted = client.getPersistence().readAsync().get(5, TimeUnit.SECONDS);
+        assertThat(persisted).isPresent();
+        assertThat(persisted.get().getTimestampsByProfileId().get("A")).isEqualTo(9L);
+    }
+
+    @Test
+    void trailingWriteAfterWrite(@TempDir Path tempDir) throws Exception {
+        PersistableStoreResolver.addResolver(new TimestampStore().getResolver());
+        var client = new TimestampClient(tempDir);
+
+        client.getPersistableStore().getTimestampsByProfileId().put("A", 1L);
+        assertThat(client.persist().get(5, TimeUnit.SECONDS)).isTrue();
+
+        // Within max write rate, so it must not be dropped but written later.
+        client.getPersistableStore().getTimestampsByProfileId().put("A", 2L);
+        long ts = System.currentTimeMillis();
+        assertThat(client.persist().get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.currentTimeMillis() - ts).isLessThan(1000);
+
+        assertThat(client.getNumWrites()).isEqualTo(2);
+        Optional<TimestampStore> persisted = client.getPersistence().readAsync().get(5, TimeUnit.SECONDS);
+        assertThat(persisted.orElseThrow().getTimestampsByProfileId().get("A")).isEqualTo(2L);
+    }
+}
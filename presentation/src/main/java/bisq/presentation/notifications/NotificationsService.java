@@ -30,10 +30,11 @@ import bisq.presentation.notifications.osx.OsxNotifications;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -50,7 +51,9 @@ public class NotificationsService implements PersistenceClient<NotificationsStor
     @Getter
     private final Persistence<NotificationsStore> persistence;
     private NotificationsDelegate delegate;
-    private final Set<Subscriber> subscribers = new HashSet<>();
+    // Subscribers get notified in the order they have subscribed. Services which maintain derived state (e.g.
+    // notification counters) subscribe at initialize, thus before UI components which read that state.
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
 
     // We do not persist the state of a closed notification panel as we prefer to show the panel again at restart.
     // If any new notification gets added the panel will also be shown again.
@@ -128,6 +131,31 @@ public class NotificationsService implements PersistenceClient<NotificationsStor
         }
     }
 
+    /**
+     * Consumes all given notification IDs but persists only once.
+     */
+    public void consumeNotificationIds(Collection<String> notificationIds) {
+        synchronized (persistableStore) {
+            boolean changed = false;
+            for (String notificationId : notificationIds) {
+                DateAndConsumedFlag dateAndConsumedFlag = getNotificationIdMap().get(notificationId);
+                if (dateAndConsumedFlag != null && !dateAndConsumedFlag.isConsumed()) {
+                    dateAndConsumedFlag.setConsumed(true);
+                    subscribers.forEach(subscriber -> subscriber.onChanged(notificationId));
+                    changed = true;
+                }
+            }
+            if (changed) {
+                persist();
+            }
+        }
+    }
+
+    public boolean isNotConsumed(String notificationId) {
+        DateAndConsumedFlag dateAndConsumedFlag = getNotificationIdMap().get(notificationId);
+        return dateAndConsumedFlag != null && !dateAndConsumedFlag.isConsumed();
+    }
+
     public void removeNotificationId(String notificationId) {
         synchronized (persistableStore) {
             DateAndConsumedFlag previous = getNotificationIdMap().remove(notificationId);
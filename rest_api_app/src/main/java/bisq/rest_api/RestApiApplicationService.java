@@ -216,6 +216,9 @@ public class RestApiApplicationService extends ApplicationService {
                         if (success) {
                             setState(State.APP_INITIALIZED);
                             log.info("ApplicationService initialized");
+                            // All services have added their message listeners, so we can process the mailbox messages we have
+                            // already received.
+                            networkService.processMailboxBacklog();
                         } else {
                             setState(State.FAILED);
                             log.error("Initializing applicationService failed");
@@ -17,6 +17,7 @@
 
 package bisq.security;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
@@ -35,11 +36,13 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 @Slf4j
 public class HybridEncryption {
+    @Getter
+    private static final SharedSecretCache sharedSecretCache = new SharedSecretCache();
 
     public static ConfidentialData encryptAndSign(byte[] message, PublicKey receiverPublicKey, KeyPair senderKeyPair)
             throws GeneralSecurityException {
         // Create shared secret with our private key and receivers public key
-        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(senderKeyPair.getPrivate(), receiverPublicKey);
+        SecretKey sharedAesSecretKey = sharedSecretCache.get(senderKeyPair, receiverPublicKey.getEncoded()).getSharedAesSecretKey();
 
         byte[] iv = AesGcm.generateIv().getIV();
         byte[] cipherText = AesGcm.encrypt(sharedAesSecretKey, iv, message);
@@ -55,11 +58,16 @@ public class HybridEncryption {
         byte[] cipherText = confidentialData.getCipherText();
         byte[] signature = confidentialData.getSignature();
 
-        PublicKey senderPublicKey = KeyGeneration.generatePublic(encodedSenderPublicKey);
-        checkArgument(SignatureUtil.verify(cipherText, signature, senderPublicKey), "Invalid signature");
+        // Parsed sender public key and shared secret of our private key and senders public key
+        SharedSecretCache.Entry entry = sharedSecretCache.get(receiversKeyPair, encodedSenderPublicKey);
+        checkArgument(SignatureUtil.verify(cipherText, signature, entry.getPeerPublicKey()), "Invalid signature");
+        return AesGcm.decrypt(entry.getSharedAesSecretKey(), iv, cipherText);
+    }
 
-        // Create shared secret with our private key and senders public key
-        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(receiversKeyPair.getPrivate(), senderPublicKey);
-        return AesGcm.decrypt(sharedAesSecretKey, iv, cipherText);
+    /**
+     * @return The parsed public key of the sender. Uses the cache filled at decryptAndVerify.
+     */
+    public static PublicKey getSenderPublicKey(ConfidentialData confidentialData, KeyPair receiversKeyPair) throws GeneralSecurityException {
+        return sharedSecretCache.get(receiversKeyPair, confidentialData.getSenderPublicKey()).getPeerPublicKey();
     }
 }
@@ -30,6 +30,8 @@ import java.security.spec.ECGenParameterSpec;
 import java.security.spec.EncodedKeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
 
 public class KeyGeneration {
     public static final String ECDH = "ECDH";
@@ -37,6 +39,10 @@ public class KeyGeneration {
     private static final String ECDSA = "ECDSA";
     public static final String DSA = "DSA";
 
+    // KeyFactory.getInstance is expensive (provider lookup) and KeyFactory is not guaranteed to be thread safe, so we
+    // keep one instance per algorithm and thread.
+    private static final ThreadLocal<Map<String, KeyFactory>> keyFactoryByAlgorithm = ThreadLocal.withInitial(HashMap::new);
+
     static {
         if (java.security.Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
             Security.addProvider(new BouncyCastleProvider());
@@ -56,7 +62,7 @@ public class KeyGeneration {
 
     public static PublicKey generatePublic(byte[] encodedKey, String algorithm) throws GeneralSecurityException {
         EncodedKeySpec keySpec = new X509EncodedKeySpec(encodedKey);
-        return KeyFactory.getInstance(algorithm).generatePublic(keySpec);
+        return getKeyFactory(algorithm).generatePublic(keySpec);
     }
 
     public static PublicKey generatePublicFromCompressed(byte[] compressedKey) throws GeneralSecurityException {
@@ -76,7 +82,17 @@ public class KeyGeneration {
 
     public static PrivateKey generatePrivate(byte[] encodedKey, String algorithm) throws GeneralSecurityException {
         EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(encodedKey);
-        return KeyFactory.getInstance(algorithm).generatePrivate(keySpec);
+        return getKeyFactory(algorithm).generatePrivate(keySpec);
+    }
+
+    private static KeyFactory getKeyFactory(String algorithm) throws GeneralSecurityException {
+        Map<String, KeyFactory> map = keyFactoryByAlgorithm.get();
+        KeyFactory keyFactory = map.get(algorithm);
+        if (keyFactory == null) {
+            keyFactory = KeyFactory.getInstance(algorithm);
+            map.put(algorithm, keyFactory);
+        }
+        return keyFactory;
     }
 
     public static byte[] encodePublicKey(PublicKey publicKey) {
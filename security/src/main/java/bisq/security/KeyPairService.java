@@ -39,6 +39,7 @@ import java.security.spec.DSAPublicKeySpec;
 import java.security.spec.KeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
@@ -67,6 +68,12 @@ public class KeyPairService implements PersistenceClient<KeyPairStore> {
         }
     }
 
+    public Set<String> getKeyIds() {
+        synchronized (persistableStore) {
+            return persistableStore.getKeyIds();
+        }
+    }
+
     public KeyPair getOrCreateKeyPair(String keyId) {
         try {
             return getOrCreateKeyPairAsync(keyId).get();
@@ -25,8 +25,10 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.security.KeyPair;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -86,6 +88,10 @@ public final class KeyPairStore implements PersistableStore<KeyPairStore> {
         return Optional.ofNullable(keyPairsById.get(keyId));
     }
 
+    Set<String> getKeyIds() {
+        return new HashSet<>(keyPairsById.keySet());
+    }
+
     public void put(String keyId, KeyPair keyPair) {
         keyPairsById.put(keyId, keyPair);
     }
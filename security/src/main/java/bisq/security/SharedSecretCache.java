@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.Getter;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the parsed public key of a peer together with the AES key derived by the ECDH key agreement of our key pair
+ * with that peer's public key. With peers we exchange many messages with, we avoid to repeat the key parsing and the
+ * expensive key agreement for each message.
+ * <p>
+ * The key of the cache is the hash of our encoded public key and the encoded public key of the peer.
+ * Entries expire if not accessed for an hour, so the derived keys do not stay in memory longer than needed.
+ */
+public class SharedSecretCache {
+    private static final int MAX_SIZE = 1000;
+
+    @Getter
+    public static final class Entry {
+        private final PublicKey peerPublicKey;
+        private final SecretKey sharedAesSecretKey;
+
+        private Entry(PublicKey peerPublicKey, SecretKey sharedAesSecretKey) {
+            this.peerPublicKey = peerPublicKey;
+            this.sharedAesSecretKey = sharedAesSecretKey;
+        }
+    }
+
+    private final Cache<ByteArray, Entry> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .recordStats()
+            .build();
+
+    SharedSecretCache() {
+    }
+
+    Entry get(KeyPair myKeyPair, byte[] encodedPeerPublicKey) throws GeneralSecurityException {
+        byte[] myEncodedPublicKey = myKeyPair.getPublic().getEncoded();
+        byte[] concatenated = new byte[myEncodedPublicKey.length + encodedPeerPublicKey.length];
+        System.arraycopy(myEncodedPublicKey, 0, concatenated, 0, myEncodedPublicKey.length);
+        System.arraycopy(encodedPeerPublicKey, 0, concatenated, myEncodedPublicKey.length, encodedPeerPublicKey.length);
+        ByteArray key = new ByteArray(DigestUtil.sha256(concatenated));
+        try {
+            return cache.get(key, () -> {
+                PublicKey peerPublicKey = KeyGeneration.generatePublic(encodedPeerPublicKey);
+                SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(myKeyPair.getPrivate(), peerPublicKey);
+                return new Entry(peerPublicKey, sharedAesSecretKey);
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) e.getCause();
+            }
+            throw new GeneralSecurityException(e.getCause());
+        }
+    }
+
+    public long getSize() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
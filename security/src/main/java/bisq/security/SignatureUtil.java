@@ -19,17 +19,27 @@ package bisq.security;
 
 import bisq.common.encoding.Base64;
 import bisq.common.encoding.Hex;
+import lombok.Getter;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SignatureUtil {
     public static final String SHA256withECDSA = "SHA256withECDSA";
     public static final String SHA256withDSA = "SHA256withDSA";
 
+    @Getter
+    private static final SignatureVerificationCache verificationCache = new SignatureVerificationCache();
+    // Signature.getInstance is expensive (provider lookup) and Signature instances are not thread safe, so we keep one
+    // verifier instance per algorithm and thread. The instances are re-initialized with initVerify at each use.
+    // We do not reuse instances for signing, as they would keep a reference to the private key after use.
+    private static final ThreadLocal<Map<String, Signature>> verifierByAlgorithm = ThreadLocal.withInitial(HashMap::new);
+
     static {
         if (java.security.Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
             Security.addProvider(new BouncyCastleProvider());
@@ -52,10 +62,29 @@ public class SignatureUtil {
     }
 
     public static boolean verify(byte[] message, byte[] signature, PublicKey publicKey, String algorithm) throws GeneralSecurityException {
-        Signature sig = Signature.getInstance(algorithm, "BC");
+        byte[] cacheKey = SignatureVerificationCache.getKey(message, signature, publicKey, algorithm);
+        if (verificationCache.isVerified(cacheKey)) {
+            return true;
+        }
+
+        Signature sig = getVerifier(algorithm);
         sig.initVerify(publicKey);
         sig.update(message);
-        return sig.verify(signature);
+        boolean isValid = sig.verify(signature);
+        if (isValid) {
+            verificationCache.onVerified(cacheKey);
+        }
+        return isValid;
+    }
+
+    private static Signature getVerifier(String algorithm) throws GeneralSecurityException {
+        Map<String, Signature> map = verifierByAlgorithm.get();
+        Signature signature = map.get(algorithm);
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm, "BC");
+            map.put(algorithm, signature);
+        }
+        return signature;
     }
 
     // input: a base-64 bitcoin sig
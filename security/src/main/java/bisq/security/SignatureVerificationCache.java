@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+
+/**
+ * Bounded cache of successfully verified signatures. The same signed network data is received many times (re-broadcasts,
+ * inventory responses from multiple peers), and we want to avoid repeating the expensive ECDSA verification.
+ * <p>
+ * The key is the hash over the algorithm, the encoded public key, the hash of the message and the signature, so a hit
+ * implies that exactly that combination has been verified before. We only cache valid signatures, as otherwise an
+ * attacker could evict the valid entries by sending invalid signatures.
+ */
+public class SignatureVerificationCache {
+    private static final int MAX_SIZE = 50_000;
+
+    private final Cache<ByteArray, Boolean> cache;
+
+    SignatureVerificationCache() {
+        this(MAX_SIZE);
+    }
+
+    SignatureVerificationCache(int maxSize) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    boolean isVerified(byte[] key) {
+        return cache.getIfPresent(new ByteArray(key)) != null;
+    }
+
+    void onVerified(byte[] key) {
+        cache.put(new ByteArray(key), Boolean.TRUE);
+    }
+
+    static byte[] getKey(byte[] message, byte[] signature, PublicKey publicKey, String algorithm) {
+        byte[] algorithmBytes = algorithm.getBytes(StandardCharsets.UTF_8);
+        byte[] publicKeyBytes = publicKey.getEncoded();
+        byte[] messageHash = DigestUtil.sha256(message);
+        ByteBuffer buffer = ByteBuffer.allocate(12 + algorithmBytes.length + publicKeyBytes.length + messageHash.length + signature.length);
+        // We add the lengths to avoid ambiguity of the concatenated fields
+        buffer.putInt(algorithmBytes.length).put(algorithmBytes)
+                .putInt(publicKeyBytes.length).put(publicKeyBytes)
+                .put(messageHash)
+                .putInt(signature.length).put(signature);
+        return DigestUtil.sha256(buffer.array());
+    }
+
+    public long getSize() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
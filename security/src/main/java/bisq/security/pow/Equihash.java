@@ -18,17 +18,24 @@
 package bisq.security.pow;
 
 import bisq.common.util.ByteArrayUtils;
+import bisq.common.util.OsUtils;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.primitives.*;
 import lombok.ToString;
 import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.util.Pack;
 
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -73,6 +80,9 @@ public class Equihash {
      * Mean solution count per nonce for Equihash puzzles with unit difficulty.
      */
     private static final double MEAN_SOLUTION_COUNT_PER_NONCE = 2.0;
+    // Each solver task needs its own tables (a few MB for Equihash-90-5), so we use a dedicated pool instead of
+    // competing with other users of the common pool.
+    private static final ForkJoinPool SOLVER_POOL = new ForkJoinPool(OsUtils.availableProcessors());
 
     private final int k, N;
     private final int tableCapacity;
@@ -208,6 +218,35 @@ public class Equihash {
             }
         }
 
+        /**
+         * Tries the nonces in parallel on the solver pool using the solver based on primitive tables.
+         * The solution is valid but not necessarily the one with the lowest nonce, as found by findSolution.
+         */
+        public Solution findSolutionInParallel() {
+            AtomicLong nextNonce = new AtomicLong();
+            AtomicReference<Solution> solution = new AtomicReference<>();
+            AtomicBoolean stopped = new AtomicBoolean();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < SOLVER_POOL.getParallelism(); i++) {
+                tasks.add(SOLVER_POOL.submit(() -> {
+                    try {
+                        while (!stopped.get()) {
+                            long nonce = nextNonce.getAndIncrement();
+                            withHashPrefix(seed, nonce).findInputsUsingPrimitiveTables().ifPresent(inputs -> {
+                                solution.compareAndSet(null, new Solution(nonce, inputs));
+                                stopped.set(true);
+                            });
+                        }
+                    } finally {
+                        // If a worker fails, the others must stop as well, as join rethrows the failure anyway
+                        stopped.set(true);
+                    }
+                }));
+            }
+            tasks.forEach(ForkJoinTask::join);
+            return solution.get();
+        }
+
         @VisibleForTesting
         int countAllSolutionsForNonce(long nonce) {
             return (int) withHashPrefix(seed, nonce).streamInputsHits()
@@ -215,6 +254,14 @@ public class Equihash {
                     .distinct()
                     .count();
         }
+
+        @VisibleForTesting
+        int countAllSolutionsForNonceUsingPrimitiveTables(long nonce) {
+            return (int) withHashPrefix(seed, nonce).streamInputsHitsUsingPrimitiveTables()
+                    .map(ImmutableIntArray::copyOf)
+                    .distinct()
+                    .count();
+        }
     }
 
     private WithHashPrefix withHashPrefix(byte[] seed, long nonce) {
@@ -254,6 +301,44 @@ public class Equihash {
             return streamInputsHits().findFirst();
         }
 
+        Stream<int[]> streamInputsHitsUsingPrimitiveTables() {
+            var table = computeAllHashesIntoIntTable();
+            for (int i = 0; i < k; i++) {
+                table = findCollisions(table, i + 1 < k);
+            }
+            var finalTable = table;
+            return IntStream.range(0, finalTable.numRows)
+                    .mapToObj(finalTable::getIndexTuple)
+                    .filter(Equihash::hasDistinctValues)
+                    .map(Equihash::sortInputs)
+                    .filter(this::testDifficultyCondition);
+        }
+
+        Optional<int[]> findInputsUsingPrimitiveTables() {
+            return streamInputsHitsUsingPrimitiveTables().findFirst();
+        }
+
+        // Same content as computeAllHashes but filled sequentially (we parallelize over the nonces) with a reused
+        // digest and buffers.
+        private IntTable computeAllHashesIntoIntTable() {
+            int rowWidth = k + 2;
+            int[] values = new int[N * rowWidth];
+            var digest = new Blake2bDigest(HASH_BIT_LENGTH);
+            byte[] inputBytes = new byte[Integer.BYTES];
+            byte[] outputBytes = new byte[HASH_BIT_LENGTH / 8];
+            for (int i = 0, row = 0; i < N; i++, row += rowWidth) {
+                digest.update(prefixBytes, 0, prefixBytes.length);
+                Pack.intToBigEndian(i, inputBytes, 0);
+                digest.update(inputBytes, 0, inputBytes.length);
+                digest.doFinal(outputBytes, 0);
+                for (int j = 0; j <= k; j++) {
+                    values[row + j] = Pack.bigEndianToInt(outputBytes, j * Integer.BYTES) & (N / 2 - 1);
+                }
+                values[row + k + 1] = i;
+            }
+            return new IntTable(k + 1, 1, values, N);
+        }
+
         private XorTable computeAllHashes() {
             var tableValues = IntStream.range(0, N).flatMap(i -> {
                 int[] hash = hashInputs(i);
@@ -313,6 +398,24 @@ public class Equihash {
         }
     }
 
+    private static class IntTable {
+        private final int hashWidth, indexTupleWidth, rowWidth, numRows;
+        private final int[] values;
+
+        IntTable(int hashWidth, int indexTupleWidth, int[] values, int numRows) {
+            this.hashWidth = hashWidth;
+            this.indexTupleWidth = indexTupleWidth;
+            this.values = values;
+            this.numRows = numRows;
+            rowWidth = hashWidth + indexTupleWidth;
+        }
+
+        int[] getIndexTuple(int index) {
+            int from = index * rowWidth + hashWidth;
+            return Arrays.copyOfRange(values, from, from + indexTupleWidth);
+        }
+    }
+
     private static class IntListMultimap {
         final int[] shortLists;
         final ListMultimap<Integer, Integer> overspillMultimap;
@@ -390,6 +493,68 @@ public class Equihash {
         return new XorTable(newHashWidth, newIndexTupleWidth, newTableValues.build());
     }
 
+    // Apply a single iteration of Wagner's Algorithm on a primitive table. The rows are bucket sorted by their first
+    // hash block (counting sort), so the colliding rows are found in adjacent positions without any boxing.
+    private IntTable findCollisions(IntTable table, boolean isPartial) {
+        int hashWidth = table.hashWidth;
+        int rowWidth = table.rowWidth;
+        int[] values = table.values;
+        int newHashWidth = isPartial ? hashWidth - 1 : 0;
+        int newIndexTupleWidth = table.indexTupleWidth * 2;
+        int newRowWidth = newHashWidth + newIndexTupleWidth;
+        int[] newValues = new int[newRowWidth * (isPartial ? tableCapacity : 10)];
+        int newNumRows = 0;
+
+        int numBuckets = N / 2;
+        int[] bucketStart = new int[numBuckets + 1];
+        for (int i = 0; i < table.numRows; i++) {
+            bucketStart[values[i * rowWidth] + 1]++;
+        }
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            bucketStart[bucket + 1] += bucketStart[bucket];
+        }
+        int[] bucketPosition = Arrays.copyOf(bucketStart, numBuckets);
+        int[] sortedRowOffsets = new int[table.numRows];
+        for (int i = 0; i < table.numRows; i++) {
+            sortedRowOffsets[bucketPosition[values[i * rowWidth]]++] = i * rowWidth;
+        }
+
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            int end = bucketStart[bucket + 1];
+            for (int a = bucketStart[bucket]; a < end - 1; a++) {
+                int collidingRow = sortedRowOffsets[a];
+                for (int b = a + 1; b < end; b++) {
+                    int row = sortedRowOffsets[b];
+                    if (!isPartial && !Arrays.equals(values, collidingRow + 1, collidingRow + hashWidth,
+                            values, row + 1, row + hashWidth)) {
+                        continue;
+                    }
+                    if ((newNumRows + 1) * newRowWidth > newValues.length) {
+                        newValues = Arrays.copyOf(newValues, newValues.length * 2);
+                    }
+                    int newRow = newNumRows++ * newRowWidth;
+                    for (int j = 1; j <= newHashWidth; j++) {
+                        newValues[newRow++] = values[collidingRow + j] ^ values[row + j];
+                    }
+                    System.arraycopy(values, collidingRow + hashWidth, newValues, newRow, table.indexTupleWidth);
+                    System.arraycopy(values, row + hashWidth, newValues, newRow + table.indexTupleWidth, table.indexTupleWidth);
+                }
+            }
+        }
+        return new IntTable(newHashWidth, newIndexTupleWidth, newValues, newNumRows);
+    }
+
+    private static boolean hasDistinctValues(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static int[] sortInputs(int[] inputs) {
         Deque<int[]> sublistStack = new ArrayDeque<>();
         int[] topSublist;
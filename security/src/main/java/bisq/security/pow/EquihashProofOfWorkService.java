@@ -36,8 +36,17 @@ public class EquihashProofOfWorkService extends ProofOfWorkService {
      */
     private static final double DIFFICULTY_SCALE_FACTOR = 3.0e-5;
 
+    // If true, nonces are tried in parallel using the solver based on primitive tables, otherwise the original
+    // single threaded solver is used. Both produce solutions which pass the same verification.
+    private final boolean useParallelSolver;
+
     public EquihashProofOfWorkService() {
+        this(true);
+    }
+
+    public EquihashProofOfWorkService(boolean useParallelSolver) {
         super();
+        this.useParallelSolver = useParallelSolver;
     }
 
     @Override
@@ -48,7 +57,8 @@ public class EquihashProofOfWorkService extends ProofOfWorkService {
         return CompletableFuture.supplyAsync(() -> {
             long ts = System.currentTimeMillis();
             byte[] seed = getSeed(payload, challenge);
-            byte[] solution = new Equihash(90, 5, scaledDifficulty).puzzle(seed).findSolution().serialize();
+            Equihash.Puzzle puzzle = new Equihash(90, 5, scaledDifficulty).puzzle(seed);
+            byte[] solution = (useParallelSolver ? puzzle.findSolutionInParallel() : puzzle.findSolution()).serialize();
             long counter = Longs.fromByteArray(Arrays.copyOf(solution, 8));
             long duration = System.currentTimeMillis() - ts;
             var proofOfWork = new ProofOfWork(payload, counter, challenge, difficulty, solution, duration);
@@ -17,13 +17,18 @@
 
 package bisq.security.pow;
 
+import bisq.common.threading.ExecutorFactory;
+import bisq.common.util.OsUtils;
 import bisq.security.DigestUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.primitives.Longs;
 import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.util.Pack;
 
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * HashCash implementation for proof of work
@@ -33,28 +38,88 @@ import java.util.concurrent.CompletableFuture;
  */
 @Slf4j
 public class HashCashService extends ProofOfWorkService {
+    private static final int NUM_MINTING_THREADS = OsUtils.availableProcessors();
+    private static final ExecutorService MINTING_POOL = ExecutorFactory.newFixedThreadPool("HashCash-minting", NUM_MINTING_THREADS);
+    // Below that difficulty the expected number of attempts is too low to benefit from splitting the work
+    private static final int MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING = 12;
+    // Interval of attempts after which we check if another task has found a solution already
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
     public HashCashService() {
     }
 
+    /**
+     * Payload and challenge are hashed once. For each attempt we only copy the digest state and add the counter.
+     * For higher difficulties the counter space is split across the minting threads (task i tries counters
+     * i + 1, i + 1 + numTasks, ...). The first found solution completes the future and the other tasks stop.
+     */
     @Override
     public CompletableFuture<ProofOfWork> mint(byte[] payload,
                                                byte[] challenge,
                                                double difficulty) {
-        return CompletableFuture.supplyAsync(() -> {
-            long ts = System.currentTimeMillis();
-            int log2Difficulty = toNumLeadingZeros(difficulty);
-            byte[] hash;
-            long counter = 0;
-            do {
-                hash = toSha256Hash(payload, challenge, ++counter);
+        long ts = System.currentTimeMillis();
+        int log2Difficulty = toNumLeadingZeros(difficulty);
+        SHA256Digest midstate = createMidstate(payload, challenge);
+        int numTasks = log2Difficulty >= MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING ? NUM_MINTING_THREADS : 1;
+        CompletableFuture<ProofOfWork> future = new CompletableFuture<>();
+        for (int i = 0; i < numTasks; i++) {
+            long firstCounter = i + 1;
+            MINTING_POOL.execute(() -> {
+                try {
+                    long counter = findCounter(midstate, log2Difficulty, firstCounter, numTasks, future);
+                    if (counter > 0) {
+                        byte[] solution = Longs.toByteArray(counter);
+                        ProofOfWork proofOfWork = new ProofOfWork(payload, counter, challenge, difficulty, solution,
+                                System.currentTimeMillis() - ts);
+                        if (future.complete(proofOfWork)) {
+                            log.debug("Completed minting proofOfWork: {}", proofOfWork);
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * @return The first counter starting at firstCounter with the given step size which satisfies the difficulty
+     * or -1 if the future got completed by another task.
+     */
+    @VisibleForTesting
+    static long findCounter(SHA256Digest midstate,
+                            int log2Difficulty,
+                            long firstCounter,
+                            int step,
+                            CompletableFuture<?> future) {
+        SHA256Digest digest = new SHA256Digest(midstate);
+        byte[] counterBytes = new byte[8];
+        byte[] hash = new byte[digest.getDigestSize()];
+        long counter = firstCounter;
+        for (int attempts = 1; ; attempts++) {
+            digest.reset(midstate);
+            Pack.longToBigEndian(counter, counterBytes, 0);
+            digest.update(counterBytes, 0, counterBytes.length);
+            digest.doFinal(hash, 0);
+            if (numberOfLeadingZeros(hash) > log2Difficulty) {
+                return counter;
+            }
+            if (attempts % CANCEL_CHECK_INTERVAL == 0 && future.isDone()) {
+                return -1;
             }
-            while (numberOfLeadingZeros(hash) <= log2Difficulty);
-            byte[] solution = Longs.toByteArray(counter);
-            ProofOfWork proofOfWork = new ProofOfWork(payload, counter, challenge, difficulty, solution,
-                    System.currentTimeMillis() - ts);
-            log.debug("Completed minting proofOfWork: {}", proofOfWork);
-            return proofOfWork;
-        });
+            counter += step;
+        }
+    }
+
+    @VisibleForTesting
+    static SHA256Digest createMidstate(byte[] payload, byte[] challenge) {
+        SHA256Digest digest = new SHA256Digest();
+        digest.update(payload, 0, payload.length);
+        if (challenge != null) {
+            digest.update(challenge, 0, challenge.length);
+        }
+        return digest;
     }
 
     @Override
@@ -45,6 +45,21 @@ public class HybridEncryptionTest {
         assertArrayEquals(message, decrypted);
     }
 
+    @Test
+    void sharedSecretIsCached() throws GeneralSecurityException {
+        SharedSecretCache cache = HybridEncryption.getSharedSecretCache();
+        cache.clear();
+        for (int i = 0; i < 5; i++) {
+            byte[] message = ("hello" + i).getBytes();
+            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(message, keyPairReceiver.getPublic(), keyPairSender);
+            assertArrayEquals(message, HybridEncryption.decryptAndVerify(confidentialData, keyPairReceiver));
+            assertEquals(keyPairSender.getPublic(), HybridEncryption.getSenderPublicKey(confidentialData, keyPairReceiver));
+        }
+        // One entry for the sender side and one for the receiver side
+        assertEquals(2, cache.getSize());
+        assertEquals(2, cache.getStats().missCount());
+    }
+
     @Test
     void decryptWithWrongKey() throws GeneralSecurityException {
         byte[] message = "hello".getBytes();
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+public class SignatureVerificationCacheTest {
+    @Test
+    public void onlyValidSignaturesAreCached() throws GeneralSecurityException {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] message = "hello".getBytes();
+        byte[] signature = SignatureUtil.sign(message, keyPair.getPrivate());
+        SignatureVerificationCache cache = SignatureUtil.getVerificationCache();
+        cache.clear();
+
+        assertThat(SignatureUtil.verify("other".getBytes(), signature, keyPair.getPublic())).isFalse();
+        assertThat(cache.getSize()).isEqualTo(0);
+
+        assertThat(SignatureUtil.verify(message, signature, keyPair.getPublic())).isTrue();
+        assertThat(cache.getSize()).isEqualTo(1);
+
+        // A hit requires the same public key
+        KeyPair otherKeyPair = KeyGeneration.generateKeyPair();
+        assertThat(SignatureUtil.verify(message, signature, otherKeyPair.getPublic())).isFalse();
+
+        // Same key decoded from the encoded bytes results in a hit
+        long hitCount = cache.getStats().hitCount();
+        assertThat(SignatureUtil.verify(message, signature, KeyGeneration.generatePublic(keyPair.getPublic().getEncoded()))).isTrue();
+        assertThat(cache.getStats().hitCount()).isEqualTo(hitCount + 1);
+    }
+
+    @Test
+    public void isBounded() {
+        SignatureVerificationCache cache = new SignatureVerificationCache(10);
+        for (int i = 0; i < 100; i++) {
+            cache.onVerified(DigestUtil.sha256(new byte[]{(byte) i}));
+        }
+        assertThat(cache.getSize()).isLessThanOrEqualTo(10);
+    }
+
+    // Replaces a micro-benchmark: a duplicate heavy workload like we get from re-broadcasts and inventory responses
+    @Test
+    public void duplicateHeavyWorkload() throws GeneralSecurityException {
+        int numDistinct = 50;
+        int numDuplicates = 20;
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        List<byte[]> messages = new ArrayList<>();
+        List<byte[]> signatures = new ArrayList<>();
+        for (int i = 0; i < numDistinct; i++) {
+            byte[] message = ("message-" + i).getBytes();
+            messages.add(message);
+            signatures.add(SignatureUtil.sign(message, keyPair.getPrivate()));
+        }
+        SignatureVerificationCache cache = SignatureUtil.getVerificationCache();
+        cache.clear();
+        long hitCount = cache.getStats().hitCount();
+
+        long ts = System.currentTimeMillis();
+        for (int n = 0; n < numDuplicates; n++) {
+            for (int i = 0; i < numDistinct; i++) {
+                assertThat(SignatureUtil.verify(messages.get(i), signatures.get(i), keyPair.getPublic())).isTrue();
+            }
+        }
+        log.info("Verifying {} signatures with {} duplicates each took {} ms. {}",
+                numDistinct, numDuplicates, System.currentTimeMillis() - ts, cache.getStats());
+        assertThat(cache.getStats().hitCount() - hitCount).isEqualTo((long) numDistinct * (numDuplicates - 1));
+    }
+}
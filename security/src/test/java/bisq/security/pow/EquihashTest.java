@@ -0,0 +1,55 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.pow;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EquihashTest {
+    private static final byte[] SEED = "Equihash test seed".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void primitiveTablesFindSameSolutions() {
+        Equihash.Puzzle puzzle = new Equihash(90, 5, 1.0).puzzle(SEED);
+        for (long nonce = 0; nonce < 5; nonce++) {
+            assertThat(puzzle.countAllSolutionsForNonceUsingPrimitiveTables(nonce))
+                    .isEqualTo(puzzle.countAllSolutionsForNonce(nonce));
+        }
+    }
+
+    @Test
+    public void parallelSolutionIsValid() {
+        Equihash.Puzzle puzzle = new Equihash(90, 5, Equihash.adjustDifficulty(10)).puzzle(SEED);
+        Equihash.Puzzle.Solution solution = puzzle.findSolutionInParallel();
+        assertThat(solution.verify()).isTrue();
+        assertThat(puzzle.deserializeSolution(solution.serialize()).verify()).isTrue();
+    }
+
+    @Test
+    public void solversAreInterchangeable() {
+        byte[] payload = "payload".getBytes(StandardCharsets.UTF_8);
+        ProofOfWork proofOfWork = new EquihashProofOfWorkService(true).mint(payload, null, 10_000).join();
+        assertThat(new EquihashProofOfWorkService(false).verify(proofOfWork)).isTrue();
+
+        proofOfWork = new EquihashProofOfWorkService(false).mint(payload, null, 10_000).join();
+        assertThat(new EquihashProofOfWorkService(true).verify(proofOfWork)).isTrue();
+    }
+}
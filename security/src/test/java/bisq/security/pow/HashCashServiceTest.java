@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.pow;
+
+import bisq.security.DigestUtil;
+import com.google.common.primitives.Longs;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashCashServiceTest {
+    private final HashCashService hashCashService = new HashCashService();
+
+    @Test
+    public void mintedProofOfWorkIsValid() {
+        byte[] payload = new byte[1024];
+        new Random().nextBytes(payload);
+        byte[] challenge = DigestUtil.sha256(payload);
+        // MIN_DIFFICULTY and MAX_DIFFICULTY of the network AuthorizationService and the nym difficulty
+        for (double difficulty : new double[]{128, 65536, ProofOfWorkService.MINT_NYM_DIFFICULTY}) {
+            ProofOfWork proofOfWork = hashCashService.mint(payload, challenge, difficulty).join();
+            assertThat(hashCashService.verify(proofOfWork)).isTrue();
+            assertThat(proofOfWork.getSolution()).isEqualTo(Longs.toByteArray(proofOfWork.getCounter()));
+        }
+
+        ProofOfWork withoutChallenge = hashCashService.mintNymProofOfWork(challenge).join();
+        assertThat(hashCashService.verify(withoutChallenge)).isTrue();
+    }
+
+    @Test
+    public void midstateMatchesConcatenatedPreImage() {
+        byte[] payload = new byte[100];
+        new Random().nextBytes(payload);
+        byte[] challenge = new byte[]{1, 2, 3};
+        int log2Difficulty = 8;
+        long counter = HashCashService.findCounter(HashCashService.createMidstate(payload, challenge),
+                log2Difficulty, 1, 1, new CompletableFuture<>());
+
+        long expected = 0;
+        byte[] hash;
+        do {
+            hash = DigestUtil.sha256(org.bouncycastle.util.Arrays.concatenate(payload, challenge, Longs.toByteArray(++expected)));
+        } while (HashCashService.numberOfLeadingZeros(hash) <= log2Difficulty);
+        assertThat(counter).isEqualTo(expected);
+    }
+}
@@ -18,6 +18,7 @@
 package bisq.user.profile;
 
 import bisq.common.application.Service;
+import bisq.common.data.ByteArray;
 import bisq.common.observable.Observable;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.network.NetworkService;
@@ -32,6 +33,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class UserProfileService implements PersistenceClient<UserProfileStore>, DataService.Listener, Service {
@@ -45,6 +47,9 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
     private final NetworkService networkService;
     @Getter
     private final Observable<Integer> numUserProfiles = new Observable<>();
+    // Reverse lookup for the hash based reputation keys. Other reputation sources use the profile ID as key.
+    private final Map<ByteArray, String> userProfileIdByProofOfBurnKey = new ConcurrentHashMap<>();
+    private final Map<ByteArray, String> userProfileIdByBondedReputationKey = new ConcurrentHashMap<>();
 
     public UserProfileService(PersistenceService persistenceService,
                               NetworkService networkService) {
@@ -67,6 +72,16 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // PersistenceClient
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onPersistedApplied(UserProfileStore persisted) {
+        getUserProfileById().values().forEach(this::addToIndex);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // DataService.Listener
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -94,6 +109,16 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
         return Optional.ofNullable(getUserProfileById().get(id));
     }
 
+    public Optional<UserProfile> findUserProfileByProofOfBurnKey(ByteArray proofOfBurnKey) {
+        return Optional.ofNullable(userProfileIdByProofOfBurnKey.get(proofOfBurnKey))
+                .flatMap(this::findUserProfile);
+    }
+
+    public Optional<UserProfile> findUserProfileByBondedReputationKey(ByteArray bondedReputationKey) {
+        return Optional.ofNullable(userProfileIdByBondedReputationKey.get(bondedReputationKey))
+                .flatMap(this::findUserProfile);
+    }
+
     public List<UserProfile> getUserProfiles() {
         return new ArrayList<>(getUserProfileById().values());
     }
@@ -145,6 +170,7 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
             synchronized (persistableStore) {
                 getUserProfileById().put(userProfile.getId(), userProfile);
             }
+            addToIndex(userProfile);
             numUserProfiles.set(getUserProfileById().values().size());
             persist();
         }
@@ -157,11 +183,18 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
             synchronized (persistableStore) {
                 getUserProfileById().remove(userProfile.getId());
             }
+            userProfileIdByProofOfBurnKey.remove(userProfile.getProofOfBurnKey());
+            userProfileIdByBondedReputationKey.remove(userProfile.getBondedReputationKey());
             numUserProfiles.set(getUserProfileById().values().size());
             persist();
         }
     }
 
+    private void addToIndex(UserProfile userProfile) {
+        userProfileIdByProofOfBurnKey.put(userProfile.getProofOfBurnKey(), userProfile.getId());
+        userProfileIdByBondedReputationKey.put(userProfile.getBondedReputationKey(), userProfile.getId());
+    }
+
     private Map<String, Set<String>> getNymsByNickName() {
         return persistableStore.getNymsByNickName();
     }
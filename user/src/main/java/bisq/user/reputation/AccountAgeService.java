@@ -147,6 +147,11 @@ public class AccountAgeService extends SourceReputationService<AuthorizedAccount
         return userProfile.getAccountAgeKey();
     }
 
+    @Override
+    protected Optional<UserProfile> findUserProfile(AuthorizedAccountAgeData data) {
+        return userProfileService.findUserProfile(data.getProfileId());
+    }
+
     @Override
     public long calculateScore(AuthorizedAccountAgeData data) {
         return doCalculateScore(getAgeInDays(data.getDate()));
@@ -64,6 +64,11 @@ public class BondedReputationService extends SourceReputationService<AuthorizedB
         return userProfile.getBondedReputationKey();
     }
 
+    @Override
+    protected Optional<UserProfile> findUserProfile(AuthorizedBondedReputationData data) {
+        return userProfileService.findUserProfileByBondedReputationKey(getDataKey(data));
+    }
+
     @Override
     public long calculateScore(AuthorizedBondedReputationData data) {
         return doCalculateScore(data.getAmount(), data.getLockTime(), getAgeInDays(data.getTime()));
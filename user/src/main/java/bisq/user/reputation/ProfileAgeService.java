@@ -129,6 +129,11 @@ public class ProfileAgeService extends SourceReputationService<AuthorizedTimesta
         return userProfile.getProfileAgeKey();
     }
 
+    @Override
+    protected Optional<UserProfile> findUserProfile(AuthorizedTimestampData data) {
+        return userProfileService.findUserProfile(data.getProfileId());
+    }
+
     @Override
     public long calculateScore(AuthorizedTimestampData data) {
         // We do not apply any reputation score to the profile age
@@ -64,6 +64,11 @@ public class ProofOfBurnService extends SourceReputationService<AuthorizedProofO
         return userProfile.getProofOfBurnKey();
     }
 
+    @Override
+    protected Optional<UserProfile> findUserProfile(AuthorizedProofOfBurnData data) {
+        return userProfileService.findUserProfileByProofOfBurnKey(getDataKey(data));
+    }
+
     @Override
     public long calculateScore(AuthorizedProofOfBurnData data) {
         return doCalculateScore(data.getAmount(), getAgeInDays(data.getTime()));
@@ -27,6 +27,7 @@ import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
 import bisq.user.profile.UserProfileService;
 import com.google.common.annotations.VisibleForTesting;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,6 +45,15 @@ public class ReputationService implements Service {
     private final Observable<String> changedUserProfileScore = new Observable<>();
     private final Map<String, Long> scoreByUserProfileId = new ConcurrentHashMap<>();
     private final ProfileAgeService profileAgeService;
+    // Guarded by itself. Keeps the values of scoreByUserProfileId sorted for rank lookups.
+    @Getter(AccessLevel.NONE)
+    private final ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
+    // At initialize the source services replay all their data. We only update the map and rebuild the index once
+    // at the end of the batch.
+    @Getter(AccessLevel.NONE)
+    private boolean isBatchUpdate;
+    @Getter(AccessLevel.NONE)
+    private boolean isIndexDirty;
 
     public ReputationService(PersistenceService persistenceService,
                              NetworkService networkService,
@@ -94,11 +104,20 @@ public class ReputationService implements Service {
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
+        synchronized (scoreRankIndex) {
+            isBatchUpdate = true;
+        }
         return proofOfBurnService.initialize()
                 .thenCompose(r -> bondedReputationService.initialize())
                 .thenCompose(r -> accountAgeService.initialize())
                 .thenCompose(r -> signedWitnessService.initialize())
-                .thenCompose(r -> profileAgeService.initialize());
+                .thenCompose(r -> profileAgeService.initialize())
+                .whenComplete((r, t) -> {
+                    synchronized (scoreRankIndex) {
+                        isBatchUpdate = false;
+                        rebuildIndexIfDirty();
+                    }
+                });
     }
 
     public CompletableFuture<Boolean> shutdown() {
@@ -124,15 +143,20 @@ public class ReputationService implements Service {
     }
 
     public Optional<ReputationScore> findReputationScore(String userProfileId) {
-        if (!scoreByUserProfileId.containsKey(userProfileId)) {
-            return Optional.empty();
+        synchronized (scoreRankIndex) {
+            Long score = scoreByUserProfileId.get(userProfileId);
+            if (score == null) {
+                return Optional.empty();
+            }
+            rebuildIndexIfDirty();
+            long bestScore = scoreRankIndex.getMaxScore();
+            double relativeScore = bestScore > 0 ? score / (double) bestScore : 0;
+            int size = scoreRankIndex.size();
+            int index = scoreRankIndex.countLower(score);
+            int rank = size - index;
+            double relativeRanking = (index + 1) / (double) size;
+            return Optional.of(new ReputationScore(score, relativeScore, rank, relativeRanking));
         }
-        long score = scoreByUserProfileId.get(userProfileId);
-        double relativeScore = getRelativeScore(score, scoreByUserProfileId.values());
-        int index = getIndex(score, scoreByUserProfileId.values());
-        int rank = scoreByUserProfileId.size() - index;
-        double relativeRanking = (index + 1) / (double) scoreByUserProfileId.size();
-        return Optional.of(new ReputationScore(score, relativeScore, rank, relativeRanking));
     }
 
     private void onUserProfileScoreChanged(String userProfileId) {
@@ -144,10 +168,27 @@ public class ReputationService implements Service {
                 accountAgeService.getScore(userProfileId) +
                 signedWitnessService.getScore(userProfileId) +
                 profileAgeService.getScore(userProfileId);
-        scoreByUserProfileId.put(userProfileId, score);
+        synchronized (scoreRankIndex) {
+            Long previousScore = scoreByUserProfileId.put(userProfileId, score);
+            if (isBatchUpdate || isIndexDirty) {
+                isIndexDirty = true;
+            } else if (previousScore == null) {
+                scoreRankIndex.add(score);
+            } else {
+                scoreRankIndex.update(previousScore, score);
+            }
+        }
         changedUserProfileScore.set(userProfileId);
     }
 
+    private void rebuildIndexIfDirty() {
+        if (isIndexDirty) {
+            scoreRankIndex.rebuild(scoreByUserProfileId.values());
+            isIndexDirty = false;
+        }
+    }
+
+    // Reference implementations for the ScoreRankIndex based lookups
     @VisibleForTesting
     static double getRelativeScore(long candidateScore, Collection<Long> scores) {
         long bestScore = scores.stream().max(Comparator.comparing(Long::longValue)).orElse(0L);
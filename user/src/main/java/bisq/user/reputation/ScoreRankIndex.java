@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Multiset of reputation scores which supports O(log n) updates and rank queries.
+ * Implemented as a treap where each node holds a distinct score, the number of profiles having that score and
+ * the size of its subtree.
+ * <p>
+ * Not thread safe. Access needs to be synchronized by the caller.
+ */
+class ScoreRankIndex {
+    private static class Node {
+        private final long score;
+        private final int priority;
+        private int count = 1;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long score, int priority) {
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Random random = new Random();
+    private Node root;
+
+    void add(long score) {
+        root = add(root, score);
+    }
+
+    void remove(long score) {
+        root = remove(root, score);
+    }
+
+    void update(long oldScore, long newScore) {
+        if (oldScore != newScore) {
+            remove(oldScore);
+            add(newScore);
+        }
+    }
+
+    /**
+     * Replaces the content with the given scores. Used after batch updates where applying each change
+     * individually would be more expensive than rebuilding.
+     */
+    void rebuild(Collection<Long> scores) {
+        root = null;
+        scores.forEach(this::add);
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * @return Number of scores which are lower than the given score. This is the index of the first occurrence of
+     * the given score in the sorted list of all scores.
+     */
+    int countLower(long score) {
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            if (score <= node.score) {
+                node = node.left;
+            } else {
+                result += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    long getMaxScore() {
+        if (root == null) {
+            return 0;
+        }
+        Node node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.score;
+    }
+
+    private Node add(Node node, long score) {
+        if (node == null) {
+            return new Node(score, random.nextInt());
+        }
+        if (score == node.score) {
+            node.count++;
+        } else if (score < node.score) {
+            node.left = add(node.left, score);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = add(node.right, score);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        updateSize(node);
+        return node;
+    }
+
+    private Node remove(Node node, long score) {
+        if (node == null) {
+            return null;
+        }
+        if (score < node.score) {
+            node.left = remove(node.left, score);
+        } else if (score > node.score) {
+            node.right = remove(node.right, score);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            return merge(node.left, node.right);
+        }
+        updateSize(node);
+        return node;
+    }
+
+    // All scores in left are lower than those in right
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            updateSize(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            updateSize(right);
+            return right;
+        }
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateSize(node);
+        updateSize(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateSize(node);
+        updateSize(right);
+        return right;
+    }
+
+    private static void updateSize(Node node) {
+        node.size = size(node.left) + node.count + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -143,6 +143,11 @@ public class SignedWitnessService extends SourceReputationService<AuthorizedSign
         return userProfile.getSignedWitnessKey();
     }
 
+    @Override
+    protected Optional<UserProfile> findUserProfile(AuthorizedSignedWitnessData data) {
+        return userProfileService.findUserProfile(data.getProfileId());
+    }
+
   /*  @Override
     public long calculateScore(AuthorizedSignedWitnessData data) {
         long age = getAgeInDays(data.getWitnessSignDate());
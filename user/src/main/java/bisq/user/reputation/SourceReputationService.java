@@ -34,6 +34,7 @@ import bisq.user.profile.UserProfileService;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
@@ -64,6 +65,9 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
     protected final Map<String, Long> scoreByUserProfileId = new ConcurrentHashMap<>();
     @Getter
     protected final Observable<String> userProfileIdOfUpdatedScore = new Observable<>();
+    // While replaying the existing data at initialize we only collect the data and compute the scores once at the end.
+    private boolean isBulkRecompute;
+    private final Map<String, ByteArray> pendingUserProfileKeyById = new HashMap<>();
 
     public SourceReputationService(NetworkService networkService,
                                    UserIdentityService userIdentityService,
@@ -79,7 +83,11 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
+        isBulkRecompute = true;
         networkService.getDataService().ifPresent(dataService -> dataService.getAuthorizedData().forEach(this::onAuthorizedDataAdded));
+        isBulkRecompute = false;
+        pendingUserProfileKeyById.forEach((userProfileId, hash) -> putScore(userProfileId, dataSetByHash.get(hash)));
+        pendingUserProfileKeyById.clear();
         networkService.addDataServiceListener(this);
         return CompletableFuture.completedFuture(true);
     }
@@ -93,20 +101,20 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
     @Override
     public void onAuthorizedDataAdded(AuthorizedData authorizedData) {
         findRelevantData(authorizedData.getAuthorizedDistributedData())
-                .ifPresent(data -> {
-                    ByteArray providedHash = getDataKey(data);
-                    userProfileService.getUserProfileById().values().stream()
-                            .filter(userProfile -> getUserProfileKey(userProfile).equals(providedHash))
-                            .forEach(userProfile -> {
-                                ByteArray hash = getUserProfileKey(userProfile);
-                                if (!dataSetByHash.containsKey(hash)) {
-                                    dataSetByHash.put(hash, new HashSet<>());
-                                }
-                                Set<T> dataSet = dataSetByHash.get(hash);
-                                addToDataSet(dataSet, data);
+                .ifPresent(data -> findUserProfile(data)
+                        .ifPresent(userProfile -> {
+                            ByteArray hash = getUserProfileKey(userProfile);
+                            if (!dataSetByHash.containsKey(hash)) {
+                                dataSetByHash.put(hash, new HashSet<>());
+                            }
+                            Set<T> dataSet = dataSetByHash.get(hash);
+                            addToDataSet(dataSet, data);
+                            if (isBulkRecompute) {
+                                pendingUserProfileKeyById.put(userProfile.getId(), hash);
+                            } else {
                                 putScore(userProfile.getId(), dataSet);
-                            });
-                });
+                            }
+                        }));
     }
 
     protected abstract Optional<T> findRelevantData(AuthorizedDistributedData authorizedDistributedData);
@@ -120,6 +128,9 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
 
     protected abstract ByteArray getUserProfileKey(UserProfile userProfile);
 
+    // Finds the user profile whose user profile key matches the data key of the given data
+    protected abstract Optional<UserProfile> findUserProfile(T data);
+
     protected void putScore(String userProfileId, Set<T> dataSet) {
         long score = dataSet.stream().mapToLong(this::calculateScore).sum();
         scoreByUserProfileId.put(userProfileId, score);
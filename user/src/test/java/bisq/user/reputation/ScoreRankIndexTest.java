@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ScoreRankIndexTest {
+
+    @Test
+    void testCountLowerAndMax() {
+        ScoreRankIndex index = new ScoreRankIndex();
+        List.of(1L, 2L, 2L, 4L, 5L).forEach(index::add);
+        assertEquals(5, index.size());
+        assertEquals(0, index.countLower(1));
+        assertEquals(1, index.countLower(2));
+        assertEquals(3, index.countLower(4));
+        assertEquals(5, index.getMaxScore());
+
+        index.remove(2);
+        index.update(5, 3);
+        assertEquals(4, index.size());
+        assertEquals(1, index.countLower(3));
+        assertEquals(4, index.getMaxScore());
+
+        index.rebuild(List.of());
+        assertEquals(0, index.size());
+        assertEquals(0, index.getMaxScore());
+    }
+
+    @Test
+    void testMatchesSortedListWith50kProfiles() {
+        Random random = new Random(1);
+        int numProfiles = 50_000;
+        List<Long> scores = new ArrayList<>(numProfiles);
+        ScoreRankIndex index = new ScoreRankIndex();
+        for (int i = 0; i < numProfiles; i++) {
+            long score = random.nextInt(100_000);
+            scores.add(score);
+            index.add(score);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            int position = random.nextInt(numProfiles);
+            long newScore = random.nextInt(100_000);
+            index.update(scores.get(position), newScore);
+            scores.set(position, newScore);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            long score = scores.get(random.nextInt(numProfiles));
+            assertEquals(ReputationService.getIndex(score, scores), index.countLower(score));
+        }
+        long bestScore = scores.stream().mapToLong(Long::longValue).max().orElse(0);
+        assertEquals(bestScore, index.getMaxScore());
+
+        ScoreRankIndex rebuilt = new ScoreRankIndex();
+        rebuilt.rebuild(scores);
+        assertEquals(numProfiles, rebuilt.size());
+        long score = scores.get(0);
+        assertEquals(index.countLower(score), rebuilt.countLower(score));
+    }
+}